@@ -4,47 +4,81 @@ import java.io.OutputStream;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Serviço responsável pela comunicação com a API Gemini da Google.
  * Implementa fallback automático para dados locais se a API falhar.
  */
 public class APIService {
+    private static final long VALIDADE_QUENTES_MS = Long.getLong("chefai.quentes.validadeApiMs", 600_000L);
+    
+    // Chamadas à API na atualização em segundo plano: uma thread só para elas,
+    // para não atrasar a atualização dos sugestores locais
+    private static final ExecutorService ATUALIZADOR_API = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "chefai-quentes-api");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Respostas da API pré-calculadas para as despensas mais pedidas (renovadas em segundo plano).
+    // Por nomes e quantidades: o prompt leva o texto, não os ids do dicionário
+    private final DespensasQuentes despensasQuentes = new DespensasQuentes("APIService",
+        this::consultarApi, CatalogoReceitas::atual, VALIDADE_QUENTES_MS, ATUALIZADOR_API,
+        DespensasQuentes.Impressao.NOMES);
     
     /**
      * Método principal para buscar receitas.
      * Tenta a API primeiro, se falhar usa receitas locais.
+     * Despensas muito frequentes são respondidas com o resultado pré-calculado
+     * (ver {@link DespensasQuentes}), sem chamar a API de novo. Só respostas
+     * da API são guardadas; o fallback local é sempre calculado na hora.
      */
     public ArrayList<Receita> buscarReceitas(Usuario usuario) {
-        System.out.println("🔗 Conectando com API Gemini...");
+        ArrayList<Receita> receitas = despensasQuentes.sugerir(usuario);
+        if (receitas == null) {
+            Log.info("🔄 Ativando fallback para receitas locais...");
+            return criarReceitasLocais(usuario);
+        }
+        return receitas;
+    }
+    
+    /**
+     * Consulta a API para o usuário.
+     * @return Receitas da API, ou null se não houver chave, der erro ou vier vazia
+     */
+    private ArrayList<Receita> consultarApi(Usuario usuario) {
+        Log.debug(() -> "🔗 Conectando com API Gemini...");
         
         try {
             // 1. Verificar se temos chave API configurada
             String apiKey = ConfiguracaoAPI.getApiKey();
             if (apiKey == null || apiKey.isEmpty() || apiKey.contains("SUA_CHAVE")) {
-                System.out.println("⚠️  Chave API não configurada. Usando modo local.");
-                return criarReceitasLocais(usuario);
+                Log.info("⚠️  Chave API não configurada. Usando modo local.");
+                return null;
             }
             
             // 2. Tentar chamar a API
-            System.out.println("🌐 Tentando conectar com Gemini API...");
+            Log.debug(() -> "🌐 Tentando conectar com Gemini API...");
             String respostaJson = fazerRequisicaoAPI(usuario, apiKey);
             
             // 3. Processar resposta
             ArrayList<Receita> receitas = processarRespostaAPI(respostaJson);
             
             if (receitas.isEmpty()) {
-                System.out.println("📭 API não retornou receitas válidas. Usando modo local.");
-                return criarReceitasLocais(usuario);
+                Log.aviso("📭 API não retornou receitas válidas. Usando modo local.");
+                return null;
             }
             
-            System.out.println("✅ " + receitas.size() + " receitas obtidas da API!");
+            Log.info(() -> "✅ " + receitas.size() + " receitas obtidas da API!");
+            IngestorReceitas.getInstancia().enviar(receitas); // guarda no catálogo local
             return receitas;
             
         } catch (Exception e) {
-            System.out.println("❌ Erro na API: " + e.getMessage());
-            System.out.println("🔄 Ativando fallback para receitas locais...");
-            return criarReceitasLocais(usuario);
+            Metricas.contarErroApi();
+            Log.erro("❌ Erro na API: " + e.getMessage());
+            return null;
         }
     }
     
@@ -52,18 +86,20 @@ public class APIService {
      * Faz a requisição HTTP para a API Gemini.
      */
     private String fazerRequisicaoAPI(Usuario usuario, String apiKey) throws Exception {
-        String urlString = ConfiguracaoAPI.getApiUrl() + "?key=" + apiKey;
+        ConfiguracaoAPI.Valores config = ConfiguracaoAPI.getValores();
+        String urlString = config.getApiUrl() + "?key=" + apiKey;
         URL url = new URL(urlString);
         HttpURLConnection conn = (HttpURLConnection) url.openConnection();
         
-        // Configurar conexão
+        // Configurar conexão (timeouts vêm do config.properties, padrão 15 segundos)
         conn.setRequestMethod("POST");
         conn.setRequestProperty("Content-Type", "application/json");
         conn.setDoOutput(true);
-        conn.setConnectTimeout(15000); // 15 segundos timeout
-        conn.setReadTimeout(15000);
+        conn.setConnectTimeout(config.getTimeoutConexaoMs());
+        conn.setReadTimeout(config.getTimeoutLeituraMs());
         
         // Criar prompt personalizado
+        long inicio = Metricas.inicio();
         String prompt = criarPromptPersonalizado(usuario);
         
         // Corpo da requisição no formato Gemini
@@ -72,18 +108,27 @@ public class APIService {
             "\"generationConfig\":{\"temperature\":0.7,\"maxOutputTokens\":2000}}",
             escapeJson(prompt)
         );
+        Metricas.registrar(Metricas.Etapa.MONTAR_PROMPT, inicio);
+        
+        // Abrir conexão
+        inicio = Metricas.inicio();
+        conn.connect();
+        Metricas.registrar(Metricas.Etapa.HTTP_CONEXAO, inicio);
         
-        System.out.println("📤 Enviando requisição para API...");
+        Log.debug(() -> "📤 Enviando requisição para API...");
         
         // Enviar dados
+        inicio = Metricas.inicio();
         OutputStream os = conn.getOutputStream();
         os.write(requestBody.getBytes("UTF-8"));
         os.flush();
         os.close();
+        Metricas.registrar(Metricas.Etapa.HTTP_ENVIO, inicio);
         
-        // Verificar resposta
+        // Verificar resposta (inclui espera pelo modelo)
+        inicio = Metricas.inicio();
         int responseCode = conn.getResponseCode();
-        System.out.println("📥 Código HTTP: " + responseCode);
+        Log.debug(() -> "📥 Código HTTP: " + responseCode);
         
         if (responseCode != 200) {
             // Tentar ler mensagem de erro
@@ -96,7 +141,7 @@ public class APIService {
                     errorResponse.append(line);
                 }
                 errorReader.close();
-                System.out.println("Erro da API: " + errorResponse.toString());
+                Log.erro("Erro da API: " + errorResponse.toString());
             } catch (Exception e) {
                 // Ignorar erro ao ler erro
             }
@@ -111,6 +156,7 @@ public class APIService {
             response.append(line);
         }
         br.close();
+        Metricas.registrar(Metricas.Etapa.HTTP_RECEBIMENTO, inicio);
         
         return response.toString();
     }
@@ -183,29 +229,33 @@ public class APIService {
         ArrayList<Receita> receitas = new ArrayList<>();
         
         try {
-            System.out.println("🔍 Processando resposta da API...");
+            Log.debug(() -> "🔍 Processando resposta da API...");
             
             // Extrair o texto da resposta JSON
+            long inicio = Metricas.inicio();
             String textoResposta = extrairTextoDaResposta(respostaJson);
+            Metricas.registrar(Metricas.Etapa.EXTRAIR_JSON, inicio);
             
             if (textoResposta == null || textoResposta.isEmpty()) {
-                System.out.println("Resposta da API vazia ou inválida.");
+                Log.aviso("Resposta da API vazia ou inválida.");
                 return receitas;
             }
             
             // Dividir por "---FIM_RECEITA---"
+            inicio = Metricas.inicio();
             String[] partesReceitas = textoResposta.split("---FIM_RECEITA---");
             
             for (String parte : partesReceitas) {
                 Receita receita = parseReceita(parte.trim());
                 if (receita != null) {
                     receitas.add(receita);
-                    System.out.println("  ✅ Receita extraída: " + receita.getNome());
+                    Log.debug(() -> "  ✅ Receita extraída: " + receita.getNome());
                 }
             }
+            Metricas.registrar(Metricas.Etapa.PARSEAR_RECEITAS, inicio);
             
         } catch (Exception e) {
-            System.out.println("Erro ao processar resposta da API: " + e.getMessage());
+            Log.erro("Erro ao processar resposta da API: " + e.getMessage());
         }
         
         return receitas;
@@ -322,18 +372,24 @@ public class APIService {
             return receita;
             
         } catch (Exception e) {
-            System.out.println("Erro ao parsear receita: " + e.getMessage());
+            Log.aviso("Erro ao parsear receita: " + e.getMessage());
             return null;
         }
     }
     
     /**
      * Cria receitas locais como fallback quando a API falha.
+     * Primeiro procura no catálogo local (que cresce com as respostas da API);
+     * as receitas fixas abaixo só completam o que faltar.
      */
     private ArrayList<Receita> criarReceitasLocais(Usuario usuario) {
-        System.out.println("🏠 Criando receitas locais de exemplo...");
+        Log.debug(() -> "🏠 Criando receitas locais de exemplo...");
+        Metricas.contarFallback();
+        long inicio = Metricas.inicio();
         
-        ArrayList<Receita> receitas = new ArrayList<>();
+        ArrayList<Receita> receitas = buscarNoCatalogo(usuario, 3);
+        CatalogoReceitas catalogo = CatalogoReceitas.atual();
+        long[] permitidas = catalogo.permitidasPara(usuario);
         
         // Receita 1 - Omelete
         Receita r1 = new Receita("Omelete de Queijo", 12, false);
@@ -380,10 +436,10 @@ public class APIService {
             if (receitas.size() >= 3) break;
             
             // Verificar se atende às preferências
-            boolean adequada = true;
+            boolean adequada = !receitas.contains(receita);
             
-            if (usuario.isVegetariano() && !receita.isVegetariana()) {
-                adequada = false;
+            if (!catalogo.permitida(permitidas, receita, usuario)) {
+                adequada = false; // restrições alimentares ou algo que não gosta
             }
             
             // Verificar compatibilidade básica (pelo menos 1 ingrediente em comum)
@@ -401,14 +457,42 @@ public class APIService {
             }
         }
         
-        // Se não encontrou suficientes, adiciona algumas padrão
-        while (receitas.size() < 3) {
-            receitas.add(r1);
-            if (receitas.size() < 3) receitas.add(r2);
-            if (receitas.size() < 3) receitas.add(r3);
-            break;
+        // Se não encontrou suficientes, adiciona algumas padrão (que o usuário possa comer)
+        for (Receita receita : new Receita[]{r1, r2, r3, r4}) {
+            if (receitas.size() >= 3) break;
+            if (!receitas.contains(receita) && catalogo.permitida(permitidas, receita, usuario)) {
+                receitas.add(receita);
+            }
+        }
+        
+        Metricas.registrar(Metricas.Etapa.FALLBACK, inicio);
+        return receitas;
+    }
+    
+    /**
+     * As receitas do catálogo local mais compatíveis com o usuário
+     * (pelo menos 1 ingrediente em comum, respeitando as restrições alimentares
+     * e sem ingredientes que o usuário não gosta).
+     */
+    private ArrayList<Receita> buscarNoCatalogo(Usuario usuario, int limite) {
+        CatalogoReceitas catalogo = CatalogoReceitas.atual();
+        ContagemAcertos acertos = catalogo.contarAcertos(catalogo.resolverDespensa(usuario));
+        long[] permitidas = catalogo.permitidasPara(usuario);
+        
+        ArrayList<ReceitaPontuada> candidatas = new ArrayList<>();
+        for (int i = 0; i < acertos.tamanho(); i++) {
+            Receita receita = catalogo.getReceita(acertos.getReceita(i));
+            if (ColunasCatalogo.contem(permitidas, acertos.getReceita(i))) {
+                candidatas.add(new ReceitaPontuada(receita,
+                    catalogo.calcularCompatibilidade(acertos.getReceita(i), acertos.getAcertos(i))));
+            }
         }
+        candidatas.sort(ReceitaPontuada.MELHOR_PRIMEIRO);
         
+        ArrayList<Receita> receitas = new ArrayList<>();
+        for (int i = 0; i < candidatas.size() && i < limite; i++) {
+            receitas.add(candidatas.get(i).getReceita());
+        }
         return receitas;
     }
     
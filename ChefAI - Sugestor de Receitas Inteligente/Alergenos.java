@@ -0,0 +1,149 @@
+import java.util.Map;
+
+/**
+ * Tabela de alérgenos e restrições por ingrediente, em bits.
+ *
+ * Cada receita do catálogo ganha, na construção, o OU dos bits dos seus
+ * ingredientes (ver {@link Receita#getRestricoes()}); cada usuário tem os
+ * bits que não pode comer ({@link #proibidosPara}). Filtrar é um único teste:
+ * {@code (receita & proibidos) == 0}.
+ *
+ * A busca usa o nome normalizado inteiro e depois cada palavra dele
+ * ("queijo ralado" → queijo → LACTOSE). Exceções conhecidas ("leite de coco",
+ * "farinha de arroz") e "sem lactose"/"sem glúten" no nome tiram o bit.
+ */
+public final class Alergenos {
+    public static final int LACTOSE = 1;
+    public static final int GLUTEN = 1 << 1;
+    public static final int CARNE = 1 << 2;   // inclui aves
+    public static final int PEIXE = 1 << 3;   // inclui frutos do mar
+    public static final int OVO = 1 << 4;
+
+    /** O que um vegetariano não come. */
+    public static final int NAO_VEGETARIANO = CARNE | PEIXE;
+
+    private static final String[] NOMES = {"lactose", "glúten", "carne", "peixe", "ovo"};
+
+    // Chaves já normalizadas (sem acento, singular)
+    private static final Map<String, Integer> TABELA = Map.ofEntries(
+        Map.entry("leite", LACTOSE), Map.entry("queijo", LACTOSE), Map.entry("manteiga", LACTOSE),
+        Map.entry("nata", LACTOSE), Map.entry("iogurte", LACTOSE), Map.entry("requeijao", LACTOSE),
+        Map.entry("mussarela", LACTOSE), Map.entry("mucarela", LACTOSE), Map.entry("parmesao", LACTOSE),
+        Map.entry("ricota", LACTOSE), Map.entry("catupiry", LACTOSE), Map.entry("chantilly", LACTOSE),
+        Map.entry("coalhada", LACTOSE), Map.entry("cream cheese", LACTOSE),
+
+        Map.entry("farinha", GLUTEN), Map.entry("trigo", GLUTEN), Map.entry("pao", GLUTEN),
+        Map.entry("macarrao", GLUTEN), Map.entry("massa", GLUTEN), Map.entry("espaguete", GLUTEN),
+        Map.entry("lasanha", GLUTEN), Map.entry("biscoito", GLUTEN), Map.entry("bolacha", GLUTEN),
+        Map.entry("torrada", GLUTEN), Map.entry("cevada", GLUTEN), Map.entry("centeio", GLUTEN),
+        Map.entry("aveia", GLUTEN),
+
+        Map.entry("carne", CARNE), Map.entry("frango", CARNE), Map.entry("bacon", CARNE),
+        Map.entry("presunto", CARNE), Map.entry("linguica", CARNE), Map.entry("salsicha", CARNE),
+        Map.entry("calabresa", CARNE), Map.entry("peru", CARNE), Map.entry("porco", CARNE),
+        Map.entry("costela", CARNE), Map.entry("picanha", CARNE), Map.entry("file", CARNE),
+        Map.entry("lombo", CARNE), Map.entry("mortadela", CARNE), Map.entry("salame", CARNE),
+
+        Map.entry("peixe", PEIXE), Map.entry("atum", PEIXE), Map.entry("sardinha", PEIXE),
+        Map.entry("salmao", PEIXE), Map.entry("bacalhau", PEIXE), Map.entry("camarao", PEIXE),
+        Map.entry("tilapia", PEIXE), Map.entry("lula", PEIXE), Map.entry("marisco", PEIXE),
+
+        Map.entry("ovo", OVO), Map.entry("gema", OVO), Map.entry("clara", OVO), Map.entry("maionese", OVO)
+    );
+
+    /** Nomes completos que não seguem as palavras que contêm. */
+    private static final Map<String, Integer> EXCECOES = Map.ofEntries(
+        Map.entry("leite de coco", 0), Map.entry("leite vegetal", 0), Map.entry("leite de amendoa", 0),
+        Map.entry("leite de soja", 0), Map.entry("creme de leite de coco", 0),
+        Map.entry("manteiga de amendoim", 0), Map.entry("manteiga de cacau", 0),
+        Map.entry("farinha de arroz", 0), Map.entry("farinha de mandioca", 0),
+        Map.entry("farinha de milho", 0), Map.entry("farinha de amendoa", 0),
+        Map.entry("farinha de rosca", GLUTEN), Map.entry("macarrao de arroz", 0),
+        Map.entry("carne de soja", 0), Map.entry("file de peixe", PEIXE),
+        Map.entry("pao de queijo", LACTOSE | OVO), Map.entry("clara de ovo", OVO)
+    );
+
+    private Alergenos() {
+    }
+
+    /**
+     * Bits de um ingrediente pelo nome (qualquer grafia; é normalizado aqui).
+     */
+    public static int mascaraDe(String nomeIngrediente) {
+        return mascaraDeNormalizado(DicionarioIngredientes.normalizar(nomeIngrediente));
+    }
+
+    /**
+     * Bits de um nome já normalizado com {@link DicionarioIngredientes#normalizar}.
+     */
+    static int mascaraDeNormalizado(String nome) {
+        Integer excecao = EXCECOES.get(nome);
+        if (excecao != null) {
+            return excecao;
+        }
+        Integer exato = TABELA.get(nome);
+        int mascara = exato != null ? exato : 0;
+        if (exato == null) {
+            for (String palavra : nome.split(" ")) {
+                Integer bits = TABELA.get(palavra);
+                if (bits != null) {
+                    mascara |= bits;
+                }
+            }
+        }
+        if (nome.contains("sem lactose") || nome.contains("zero lactose")) {
+            mascara &= ~LACTOSE;
+        }
+        if (nome.contains("sem gluten")) {
+            mascara &= ~GLUTEN;
+        }
+        return mascara;
+    }
+
+    /**
+     * Bits que o usuário não pode comer, a partir das restrições dele.
+     */
+    public static int proibidosPara(Usuario usuario) {
+        int proibidos = 0;
+        if (usuario.isVegetariano()) {
+            proibidos |= NAO_VEGETARIANO;
+        }
+        if (usuario.isSemLactose()) {
+            proibidos |= LACTOSE;
+        }
+        if (usuario.isSemGluten()) {
+            proibidos |= GLUTEN;
+        }
+        return proibidos;
+    }
+
+    /**
+     * A receita respeita as restrições do usuário? (um teste de máscara)
+     */
+    public static boolean permitida(Receita receita, Usuario usuario) {
+        return (receita.getRestricoes() & proibidosPara(usuario)) == 0;
+    }
+
+    /**
+     * Nomes dos bits ligados, ex.: "lactose, glúten".
+     */
+    public static String descrever(int mascara) {
+        StringBuilder sb = new StringBuilder();
+        for (int b = 0; b < NOMES.length; b++) {
+            if ((mascara & (1 << b)) != 0) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(NOMES[b]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Quantos bits a tabela usa (cabe em um byte).
+     */
+    static int totalBits() {
+        return NOMES.length;
+    }
+}
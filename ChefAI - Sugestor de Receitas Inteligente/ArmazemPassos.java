@@ -0,0 +1,271 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Guarda os passos de preparo das receitas comprimidos e fora do heap.
+ *
+ * Os passos só são lidos para as poucas receitas exibidas ao usuário, mas
+ * são a maior parte da memória do catálogo. Aqui cada lista de passos vira
+ * um bloco comprimido (Deflate com um dicionário de palavras comuns de
+ * receitas) dentro de buffers diretos; a receita guarda só um int.
+ *
+ * O registro de cada lista (tamanho original, tamanho comprimido, bytes) é
+ * o mesmo no armazém e no {@link SnapshotCatalogo}, que copia os registros
+ * sem descomprimir nem comprimir de novo.
+ *
+ * Só cresce. Escritas são sincronizadas; leituras não usam lock.
+ */
+public class ArmazemPassos {
+    private static final int TAMANHO_BLOCO = 4 * 1024 * 1024;
+
+    /**
+     * Trechos frequentes em modos de preparo; ajuda a comprimir textos curtos.
+     * Mudar o dicionário invalida os snapshots gravados (SnapshotCatalogo.VERSAO).
+     */
+    private static final byte[] DICIONARIO = (
+        "minutos fogo baixo fogo médio fogo alto frigideira panela tigela forno " +
+        "até ficar dourado cremoso Sirva quente Adicione Misture Coloque Aqueça " +
+        "Bata os ovos Corte em pedaços Tempere com sal e pimenta Deixe cozinhar por " +
+        "Mexa sempre Despeje a mistura Leve ao forno Retire do fogo e "
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private static final class Holder {
+        static final ArmazemPassos PADRAO = new ArmazemPassos();
+    }
+
+    private volatile ByteBuffer[] blocos;  // buffers diretos
+    private volatile long[] enderecos;     // por id: bloco << 32 | posição
+    private int totalBlocos;               // guardados por "this"
+    private int posicaoNoBloco;
+    private int total;
+    private long bytesOriginais;
+    private long bytesGuardados;
+
+    private final Deflater compressor;
+    private final ThreadLocal<Inflater> descompressor;
+
+    public ArmazemPassos() {
+        this.blocos = new ByteBuffer[4];
+        this.enderecos = new long[1024];
+        this.compressor = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        this.descompressor = ThreadLocal.withInitial(Inflater::new);
+    }
+
+    /**
+     * Armazém usado pelo catálogo.
+     */
+    public static ArmazemPassos padrao() {
+        return Holder.PADRAO;
+    }
+
+    // ========== ESCRITA ==========
+
+    /**
+     * Comprime e guarda uma lista de passos.
+     * @return Id para ler os passos depois
+     */
+    public synchronized int guardar(List<String> passos) {
+        byte[] original = serializar(passos);
+        byte[] comprimido = comprimir(compressor, original);
+        return gravar(original.length, ByteBuffer.wrap(comprimido));
+    }
+
+    /**
+     * Guarda um registro já comprimido (como escrito por {@link #escreverRegistro}),
+     * lido da posição atual de {@code origem}, que avança até o fim dele.
+     * @return Id para ler os passos depois
+     * @throws BufferUnderflowException se o registro estiver truncado
+     */
+    public synchronized int guardarRegistro(ByteBuffer origem) {
+        int tamanhoOriginal = origem.getInt();
+        int tamanho = origem.getInt();
+        if (tamanhoOriginal < 0 || tamanho < 0 || tamanho > origem.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        ByteBuffer comprimido = origem.slice(origem.position(), tamanho);
+        origem.position(origem.position() + tamanho);
+        return gravar(tamanhoOriginal, comprimido);
+    }
+
+    /**
+     * Copia o registro de um id (tamanho original, tamanho comprimido, bytes).
+     */
+    public void escreverRegistro(int id, DataOutputStream out) throws IOException {
+        long endereco = enderecos[id];
+        ByteBuffer bloco = blocos[(int) (endereco >>> 32)];
+        int posicao = (int) endereco;
+        byte[] registro = new byte[8 + bloco.getInt(posicao + 4)];
+        bloco.get(posicao, registro);
+        out.write(registro);
+    }
+
+    /**
+     * Escreve o registro de passos que não estão em armazém nenhum.
+     */
+    public static void escreverRegistro(List<String> passos, DataOutputStream out) throws IOException {
+        byte[] original = serializar(passos);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            byte[] comprimido = comprimir(deflater, original);
+            out.writeInt(original.length);
+            out.writeInt(comprimido.length);
+            out.write(comprimido);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] comprimir(Deflater deflater, byte[] original) {
+        deflater.reset();
+        deflater.setDictionary(DICIONARIO);
+        deflater.setInput(original);
+        deflater.finish();
+        byte[] comprimido = new byte[original.length + 64];
+        int tamanho = 0;
+        while (!deflater.finished()) {
+            if (tamanho == comprimido.length) {
+                comprimido = Arrays.copyOf(comprimido, comprimido.length * 2);
+            }
+            tamanho += deflater.deflate(comprimido, tamanho, comprimido.length - tamanho);
+        }
+        return Arrays.copyOf(comprimido, tamanho);
+    }
+
+    /**
+     * Cabeçalho (tamanho original e comprimido) e bytes comprimidos no bloco atual.
+     */
+    private int gravar(int tamanhoOriginal, ByteBuffer comprimido) {
+        int tamanho = comprimido.remaining();
+        int necessario = 8 + tamanho;
+        ByteBuffer bloco = reservar(necessario);
+        int posicao = posicaoNoBloco;
+        bloco.putInt(posicao, tamanhoOriginal);
+        bloco.putInt(posicao + 4, tamanho);
+        bloco.put(posicao + 8, comprimido, comprimido.position(), tamanho);
+        posicaoNoBloco += necessario;
+
+        int id = total;
+        long[] atuais = enderecos;
+        if (id == atuais.length) {
+            atuais = Arrays.copyOf(atuais, id * 2);
+        }
+        atuais[id] = ((long) (totalBlocos - 1) << 32) | posicao;
+        enderecos = atuais; // publica o endereço depois dos bytes
+        total = id + 1;
+
+        bytesOriginais += tamanhoOriginal;
+        bytesGuardados += necessario;
+        return id;
+    }
+
+    /**
+     * Bloco com espaço para {@code bytes}; abre um novo se o atual encheu.
+     */
+    private ByteBuffer reservar(int bytes) {
+        if (totalBlocos > 0 && posicaoNoBloco + bytes <= blocos[totalBlocos - 1].capacity()) {
+            return blocos[totalBlocos - 1];
+        }
+        ByteBuffer novo = ByteBuffer.allocateDirect(Math.max(TAMANHO_BLOCO, bytes));
+        ByteBuffer[] atuais = blocos;
+        if (totalBlocos == atuais.length) {
+            atuais = Arrays.copyOf(atuais, totalBlocos * 2);
+        }
+        atuais[totalBlocos++] = novo;
+        blocos = atuais;
+        posicaoNoBloco = 0;
+        return novo;
+    }
+
+    /**
+     * Quantidade e, para cada passo, tamanho + bytes UTF-8 (sem o limite de
+     * 64 KB do writeUTF: receitas da API podem ter passos enormes).
+     */
+    private static byte[] serializar(List<String> passos) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(passos.size() * 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(passos.size());
+            for (String passo : passos) {
+                byte[] utf8 = passo.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // não acontece em memória
+        }
+    }
+
+    // ========== LEITURA ==========
+
+    /**
+     * Descomprime os passos guardados com {@link #guardar}.
+     */
+    public ArrayList<String> ler(int id) {
+        long endereco = enderecos[id];
+        ByteBuffer bloco = blocos[(int) (endereco >>> 32)];
+        int posicao = (int) endereco;
+
+        int tamanhoOriginal = bloco.getInt(posicao);
+        byte[] comprimido = new byte[bloco.getInt(posicao + 4)];
+        bloco.get(posicao + 8, comprimido);
+
+        byte[] original = new byte[tamanhoOriginal];
+        Inflater inflater = descompressor.get();
+        inflater.reset();
+        inflater.setInput(comprimido);
+        try {
+            int lidos = inflater.inflate(original);
+            if (lidos == 0 && inflater.needsDictionary()) {
+                inflater.setDictionary(DICIONARIO);
+                lidos = inflater.inflate(original);
+            }
+            if (lidos != tamanhoOriginal) {
+                throw new IllegalStateException("passos corrompidos (id " + id + ")");
+            }
+
+            ByteBuffer in = ByteBuffer.wrap(original);
+            int quantidade = in.getInt();
+            ArrayList<String> passos = new ArrayList<>(Math.min(quantidade, 1024));
+            for (int i = 0; i < quantidade; i++) {
+                int tamanho = in.getInt();
+                passos.add(new String(original, in.position(), tamanho, StandardCharsets.UTF_8));
+                in.position(in.position() + tamanho);
+            }
+            return passos;
+        } catch (DataFormatException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalStateException("passos corrompidos (id " + id + ")", e);
+        }
+    }
+
+    // ========== ESTATÍSTICAS ==========
+
+    public synchronized int tamanho() {
+        return total;
+    }
+
+    /**
+     * Bytes ocupados fora do heap pelos passos (comprimidos).
+     */
+    public synchronized long getBytesGuardados() {
+        return bytesGuardados;
+    }
+
+    /**
+     * Bytes que os passos teriam sem compressão (UTF-8).
+     */
+    public synchronized long getBytesOriginais() {
+        return bytesOriginais;
+    }
+}
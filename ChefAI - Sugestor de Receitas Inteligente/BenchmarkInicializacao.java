@@ -0,0 +1,38 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+/**
+ * Mede o tempo de inicialização até a primeira sugestão.
+ *
+ * Mostra quanto tempo foi gasto em cada fase desde o lançamento da JVM:
+ * JVM até o main, carga do catálogo (snapshot ou banco básico) e primeira sugestão.
+ * Veja inicio-rapido.sh para rodar com snapshot + AppCDS. Para a linha de base,
+ * aponte -Dchefai.catalogo para um arquivo inexistente (o catálogo é montado do zero).
+ */
+public class BenchmarkInicializacao {
+
+    public static void main(String[] args) {
+        long inicioMain = System.currentTimeMillis();
+        long inicioJvm = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        long t0 = System.nanoTime();
+        CatalogoReceitas catalogo = CatalogoReceitas.atual();
+        long t1 = System.nanoTime();
+
+        Usuario usuario = new Usuario("Benchmark");
+        usuario.adicionarIngrediente(new Ingrediente("ovo", 4));
+        usuario.adicionarIngrediente(new Ingrediente("queijo", 150));
+        usuario.adicionarIngrediente(new Ingrediente("sal", 50));
+
+        ArrayList<Receita> sugestoes = new SugestorRapido().sugerirReceitas(usuario);
+        long t2 = System.nanoTime();
+        long fim = System.currentTimeMillis();
+
+        System.out.println("⏱️  TEMPO ATÉ A PRIMEIRA SUGESTÃO");
+        System.out.println("   JVM → main:          " + (inicioMain - inicioJvm) + " ms");
+        System.out.println("   Catálogo (" + catalogo.tamanho() + " receitas): " + (t1 - t0) / 1_000_000.0 + " ms");
+        System.out.println("   Primeira sugestão:   " + (t2 - t1) / 1_000_000.0 + " ms");
+        System.out.println("   TOTAL desde a JVM:   " + (fim - inicioJvm) + " ms");
+        System.out.println("   Sugestões: " + sugestoes.size());
+    }
+}
@@ -0,0 +1,163 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Confere a ida e volta do JSON e mede a vazão de escrita e leitura.
+ *
+ * Primeiro verifica que {@link EscritorJson} gera os mesmos bytes que o
+ * {@link ConversorJson} (que passa pelo mesmo escritor, mas via String), e que {@link LeitorJson} devolve receitas e usuários
+ * iguais aos originais (inclusive com aspas, barras, controles, acentos e emoji).
+ * Depois mede receitas/s e MB/s dos dois caminhos.
+ *
+ * Uso: java BenchmarkJson [repetições]
+ */
+public class BenchmarkJson {
+
+    public static void main(String[] args) {
+        int repeticoes = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        List<Receita> receitas = CatalogoReceitas.atual().getReceitas();
+        Usuario usuario = criarUsuario();
+
+        conferirIdaEVolta(receitas, usuario);
+        System.out.println("✅ Ida e volta OK (" + receitas.size() + " receitas + usuário)");
+
+        medir(receitas, usuario, repeticoes);
+    }
+
+    private static Usuario criarUsuario() {
+        Usuario usuario = new Usuario("Zé \"Chef\" \\ Ñandú 🍳\u0001");
+        usuario.adicionarIngrediente(new Ingrediente("ovos", 4));
+        usuario.adicionarIngrediente(new Ingrediente("queijo", 150));
+        usuario.adicionarIngrediente(new Ingrediente("açúcar\tmascavo", 200));
+        usuario.adicionarIngrediente(new Ingrediente("farinha de trigo", 500));
+        usuario.adicionarIngredienteNaoGosta(new Ingrediente("coentro\n", 1));
+        usuario.setSemLactose(true);
+        return usuario;
+    }
+
+    // ========== IDA E VOLTA ==========
+
+    private static void conferirIdaEVolta(List<Receita> receitas, Usuario usuario) {
+        // Mesmos bytes que o caminho com StringBuilder
+        StringBuilder sb = new StringBuilder();
+        ConversorJson.escreverReceitas(sb, receitas, usuario);
+        byte[] esperado = sb.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] escrito = EscritorJson.local().receitas(receitas, usuario).paraBytes();
+        verificar(Arrays.equals(esperado, escrito), "EscritorJson difere do ConversorJson");
+
+        List<Receita> lidas = LeitorJson.lerReceitas(escrito);
+        verificar(lidas.size() == receitas.size(), "quantidade de receitas");
+        for (int i = 0; i < receitas.size(); i++) {
+            conferirReceita(receitas.get(i), lidas.get(i));
+        }
+
+        Receita estranha = new Receita("Bolo \"da vó\" \\ 🎂\u001f", 45, true);
+        estranha.adicionarIngrediente(new Ingrediente("leite\r\n", -3));
+        estranha.adicionarPasso("Misture\tbem / asse");
+        estranha.adicionarPasso("");
+        conferirReceita(estranha, LeitorJson.lerReceita(EscritorJson.local().receita(estranha, null).paraBytes()));
+
+        Usuario lido = LeitorJson.lerUsuario(EscritorJson.local().usuario(usuario).paraBytes());
+        verificar(lido.getNome().equals(usuario.getNome()), "nome do usuário");
+        verificar(mesmosIngredientes(lido.getIngredientesDisponiveis(), usuario.getIngredientesDisponiveis()),
+            "despensa do usuário");
+        verificar(mesmosIngredientes(lido.getIngredientesNaoGosta(), usuario.getIngredientesNaoGosta()),
+            "não gosta do usuário");
+        verificar(lido.isVegetariano() == usuario.isVegetariano()
+            && lido.isSemLactose() == usuario.isSemLactose()
+            && lido.isSemGluten() == usuario.isSemGluten(), "restrições do usuário");
+
+        // O leitor aceita o formato de entrada antigo (nomes soltos, campos extras, espaços)
+        Usuario antigo = ConversorJson.lerUsuario(
+            " { \"extra\": {\"a\": [1, 2.5e3, null]}, \"ingredientes\": [\"ovo\", {\"nome\": \"sal\", \"quantidade\": 2.7}],"
+            + " \"vegetariano\": true } ");
+        verificar(antigo.getIngredientesDisponiveis().size() == 2
+            && antigo.getIngredientesDisponiveis().get(1).getQuantidade() == 2
+            && antigo.isVegetariano() && antigo.getNome().equals("Anônimo"), "formato antigo");
+
+        try {
+            LeitorJson.lerUsuario("{\"nome\":\"Ana\"".getBytes(StandardCharsets.UTF_8));
+            verificar(false, "JSON incompleto deveria falhar");
+        } catch (IllegalArgumentException esperada) {
+            // ok
+        }
+    }
+
+    private static void conferirReceita(Receita original, Receita lida) {
+        String nome = original.getNome();
+        verificar(nome.equals(lida.getNome()), "nome: " + nome);
+        verificar(original.getTempoPreparo() == lida.getTempoPreparo(), "tempo: " + nome);
+        verificar(original.isVegetariana() == lida.isVegetariana(), "vegetariana: " + nome);
+        verificar(mesmosIngredientes(original.getIngredientes(), lida.getIngredientes()), "ingredientes: " + nome);
+        verificar(original.getPassos().equals(lida.getPassos()), "passos: " + nome);
+    }
+
+    private static boolean mesmosIngredientes(List<Ingrediente> a, List<Ingrediente> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).getNome().equals(b.get(i).getNome())
+                    || a.get(i).getQuantidade() != b.get(i).getQuantidade()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void verificar(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException("❌ Ida e volta falhou: " + mensagem);
+        }
+    }
+
+    // ========== VAZÃO ==========
+
+    private static void medir(List<Receita> receitas, Usuario usuario, int repeticoes) {
+        List<Receita> pagina = new ArrayList<>(receitas.subList(0, Math.min(10, receitas.size())));
+        byte[] bytes = EscritorJson.local().receitas(pagina, usuario).paraBytes();
+        String texto = new String(bytes, StandardCharsets.UTF_8);
+        long soma = 0;
+
+        for (int aquecimento = 0; aquecimento < 2; aquecimento++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                soma += EscritorJson.local().receitas(pagina, usuario).tamanho();
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                StringBuilder sb = new StringBuilder(1024);
+                ConversorJson.escreverReceitas(sb, pagina, usuario);
+                soma += sb.toString().getBytes(StandardCharsets.UTF_8).length;
+            }
+            long t2 = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                soma += LeitorJson.lerReceitas(bytes).size();
+            }
+            long t3 = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                soma += ((List<?>) ConversorJson.ler(texto)).size();
+            }
+            long t4 = System.nanoTime();
+
+            if (aquecimento == 1) {
+                System.out.println("📊 VAZÃO (" + pagina.size() + " receitas, " + bytes.length + " bytes por documento)");
+                imprimir("Escrita EscritorJson ", t1 - t0, repeticoes, pagina.size(), bytes.length);
+                imprimir("Escrita via String   ", t2 - t1, repeticoes, pagina.size(), bytes.length);
+                imprimir("Leitura LeitorJson   ", t3 - t2, repeticoes, pagina.size(), bytes.length);
+                imprimir("Leitura parser (Map) ", t4 - t3, repeticoes, pagina.size(), bytes.length);
+            }
+        }
+        if (soma == 42) {
+            System.out.println(); // impede que o JIT descarte os laços
+        }
+    }
+
+    private static void imprimir(String nome, long nanos, int repeticoes, int receitas, int bytes) {
+        double segundos = nanos / 1e9;
+        System.out.printf("   %s %10.0f receitas/s %8.1f MB/s%n", nome,
+            (double) repeticoes * receitas / segundos, (double) repeticoes * bytes / segundos / 1e6);
+    }
+}
@@ -0,0 +1,133 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache limitado de resultados de sugestão de um sugestor.
+ *
+ * A chave é (identidade do usuário, versão do usuário, limite, geração do
+ * catálogo): só números, então o cache não prende usuários nem catálogos
+ * antigos na memória. Quando o usuário ou o catálogo mudam, a entrada antiga
+ * simplesmente deixa de ser encontrada e sai quando ficar entre as menos usadas.
+ *
+ * Cada sugestor tem o seu cache, então instâncias configuradas de jeitos
+ * diferentes nunca trocam resultados. Consultas não usam lock; ao passar da
+ * capacidade, uma thread remove o quarto menos usado recentemente.
+ */
+public class CacheSugestoes {
+    private final int capacidade;
+    private final ConcurrentHashMap<Chave, Entrada> entradas;
+    private final AtomicLong relogio;       // ordem de uso (aproximada entre threads)
+    private final AtomicBoolean removendo;
+
+    public CacheSugestoes(int capacidade) {
+        this.capacidade = Math.max(1, capacidade);
+        this.entradas = new ConcurrentHashMap<>();
+        this.relogio = new AtomicLong();
+        this.removendo = new AtomicBoolean();
+    }
+
+    /**
+     * Resultado guardado ou null se não houver (ou se o usuário mudou desde então).
+     */
+    public ArrayList<Receita> buscar(Usuario usuario, int limite, CatalogoReceitas catalogo) {
+        Entrada entrada = entradas.get(new Chave(usuario.getIdentidade(), usuario.getVersao(),
+            limite, catalogo.getGeracao()));
+        if (entrada == null) {
+            return null;
+        }
+        entrada.usadaEm = relogio.get(); // sem incrementar: o contador só anda nas gravações
+        return entrada.receitas;
+    }
+
+    /**
+     * Guarda o resultado para a versão informada do usuário.
+     * A versão deve ser lida antes de calcular as sugestões, para que uma
+     * alteração concorrente não fique associada a um resultado antigo.
+     */
+    public void guardar(Usuario usuario, long versao, int limite, CatalogoReceitas catalogo,
+                        ArrayList<Receita> receitas) {
+        entradas.put(new Chave(usuario.getIdentidade(), versao, limite, catalogo.getGeracao()),
+            new Entrada(receitas, relogio.incrementAndGet()));
+        if (entradas.size() > capacidade) {
+            removerMenosUsadas();
+        }
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    public void limpar() {
+        entradas.clear();
+    }
+
+    /**
+     * Tira o quarto das entradas usado há mais tempo. Só uma thread faz isso
+     * por vez; as outras seguem sem esperar.
+     */
+    private void removerMenosUsadas() {
+        if (!removendo.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long[] usos = new long[entradas.size()];
+            int n = 0;
+            for (Entrada entrada : entradas.values()) {
+                if (n == usos.length) {
+                    break;
+                }
+                usos[n++] = entrada.usadaEm;
+            }
+            Arrays.sort(usos, 0, n);
+            long corte = usos[Math.max(0, n / 4 - 1)];
+            entradas.values().removeIf(entrada -> entrada.usadaEm <= corte);
+        } finally {
+            removendo.set(false);
+        }
+    }
+
+    private static final class Entrada {
+        final ArrayList<Receita> receitas;
+        volatile long usadaEm;
+
+        Entrada(ArrayList<Receita> receitas, long usadaEm) {
+            this.receitas = receitas;
+            this.usadaEm = usadaEm;
+        }
+    }
+
+    private static final class Chave {
+        private final long usuario;
+        private final long versao;
+        private final int limite;
+        private final long catalogo;
+
+        Chave(long usuario, long versao, int limite, long catalogo) {
+            this.usuario = usuario;
+            this.versao = versao;
+            this.limite = limite;
+            this.catalogo = catalogo;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Chave)) {
+                return false;
+            }
+            Chave outra = (Chave) obj;
+            return usuario == outra.usuario && versao == outra.versao
+                && limite == outra.limite && catalogo == outra.catalogo;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = Long.hashCode(usuario);
+            h = 31 * h + Long.hashCode(versao);
+            h = 31 * h + limite;
+            return 31 * h + Long.hashCode(catalogo);
+        }
+    }
+}
@@ -0,0 +1,776 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Catálogo de receitas indexado, compartilhado por todos os sugestores.
+ *
+ * Cada receita recebe um id (sua posição no catálogo) e cada ingrediente
+ * um id do {@link DicionarioIngredientes}. Para cada ingrediente guardamos a
+ * lista ordenada de receitas que o usam (posting list), então contar quantos
+ * ingredientes de cada receita o usuário tem custa só as postings da despensa,
+ * não uma varredura de todas as receitas.
+ *
+ * O catálogo é imutável depois de construído; as receitas não devem ser alteradas.
+ */
+public class CatalogoReceitas {
+    private static final int[] VAZIO = new int[0];
+    private static final AtomicLong GERACOES = new AtomicLong();
+
+    private final DicionarioIngredientes dicionario;
+    private final Receita[] receitas;
+    private final int[][] ingredientesPorReceita; // ids ordenados e sem repetição
+    private final int[][] postings;               // por id de ingrediente: ids de receitas
+    private final int[] receitasPorTotal;         // ids ordenados pelo nº de ingredientes
+    private final int[] acumuladoPorTotal;        // [t] = quantas receitas têm até t ingredientes
+    private final int[] receitasPorTempo;         // ids ordenados por tempo de preparo (empate: id)
+    private final int[] temposOrdenados;          // tempo de receitasPorTempo[i], para busca binária
+    private final int[] restricoesPorReceita;     // bits de Alergenos
+    private final AtomicReferenceArray<int[]> idsNaOrdem; // ids na ordem da receita, para exibir (sob demanda)
+
+    private final long geracao;                   // única por catálogo montado
+    private final ThreadLocal<int[]> rascunho;
+    private final IndiceSimilaridade similaridade;    // montado junto com o catálogo
+    private volatile ColunasCatalogo colunas;         // montado na primeira consulta
+    private volatile PlanejadorConsultas planejador;  // idem
+    private volatile IdentityHashMap<Receita, Integer> indicePorReceita; // idem; só leitura depois de pronto
+
+    /**
+     * O catálogo atual é carregado uma única vez, na primeira consulta.
+     */
+    private static final class Holder {
+        static volatile CatalogoReceitas atual = carregarPadrao();
+    }
+
+    CatalogoReceitas(DicionarioIngredientes dicionario, Receita[] receitas,
+                     int[][] ingredientesPorReceita, int[][] postings) {
+        this(dicionario, receitas, ingredientesPorReceita, postings, null);
+    }
+
+    /**
+     * @param anterior Catálogo do qual este é uma extensão (mesmas receitas e ids
+     *                 no começo), para aproveitar o índice de similaridade; ou null
+     */
+    private CatalogoReceitas(DicionarioIngredientes dicionario, Receita[] receitas,
+                             int[][] ingredientesPorReceita, int[][] postings, CatalogoReceitas anterior) {
+        this.dicionario = dicionario;
+        this.receitas = receitas;
+        this.ingredientesPorReceita = ingredientesPorReceita;
+        this.postings = postings;
+        this.geracao = GERACOES.incrementAndGet();
+        this.rascunho = ThreadLocal.withInitial(() -> new int[receitas.length]);
+
+        // Ordenação por contagem do nº de ingredientes (para consultas "faltam até k")
+        int maiorTotal = 0;
+        for (int[] ids : ingredientesPorReceita) {
+            maiorTotal = Math.max(maiorTotal, ids.length);
+        }
+        this.acumuladoPorTotal = new int[maiorTotal + 1];
+        for (int[] ids : ingredientesPorReceita) {
+            acumuladoPorTotal[ids.length]++;
+        }
+        for (int t = 1; t <= maiorTotal; t++) {
+            acumuladoPorTotal[t] += acumuladoPorTotal[t - 1];
+        }
+        this.receitasPorTotal = new int[receitas.length];
+        int[] proxima = new int[maiorTotal + 1];
+        for (int t = 1; t <= maiorTotal; t++) {
+            proxima[t] = acumuladoPorTotal[t - 1];
+        }
+        for (int r = 0; r < receitas.length; r++) {
+            receitasPorTotal[proxima[ingredientesPorReceita[r].length]++] = r;
+        }
+
+        // Índice por tempo de preparo (para consultas "pronta em até x minutos")
+        long[] porTempo = new long[receitas.length];
+        for (int r = 0; r < receitas.length; r++) {
+            porTempo[r] = ((long) receitas[r].getTempoPreparo() << 32) | r;
+        }
+        Arrays.sort(porTempo);
+        this.receitasPorTempo = new int[receitas.length];
+        this.temposOrdenados = new int[receitas.length];
+        for (int i = 0; i < porTempo.length; i++) {
+            receitasPorTempo[i] = (int) porTempo[i];
+            temposOrdenados[i] = (int) (porTempo[i] >> 32);
+        }
+
+        // Alérgenos: bits calculados uma vez por ingrediente do dicionário, OU por receita
+        int[] alergenosPorIngrediente = new int[dicionario.tamanho()];
+        for (int i = 0; i < alergenosPorIngrediente.length; i++) {
+            alergenosPorIngrediente[i] = Alergenos.mascaraDeNormalizado(dicionario.getNome(i));
+        }
+
+        // Nada por catálogo fica na Receita: o mesmo objeto pode estar em vários
+        // catálogos (fragmentos, catálogo anterior a uma ingestão)
+        this.restricoesPorReceita = new int[receitas.length];
+        this.idsNaOrdem = new AtomicReferenceArray<>(receitas.length);
+        for (int i = 0; i < receitas.length; i++) {
+            int restricoes = receitas[i].isVegetariana() ? 0 : Alergenos.CARNE;
+            for (int ingrediente : ingredientesPorReceita[i]) {
+                restricoes |= alergenosPorIngrediente[ingrediente];
+            }
+            restricoesPorReceita[i] = restricoes;
+            receitas[i].guardarPassos(); // passos saem do heap até serem exibidos
+        }
+
+        // Por último: o índice lê os ids de ingredientes já montados acima
+        this.similaridade = anterior == null
+            ? new IndiceSimilaridade(this)
+            : anterior.similaridade.comReceitas(this, anterior.receitas.length);
+    }
+
+    // ========== CONSTRUÇÃO ==========
+
+    /**
+     * Constrói um catálogo novo (com dicionário próprio) a partir de receitas.
+     *
+     * As receitas passam a ser do catálogo: a construção altera os próprios
+     * objetos recebidos (os passos saem do heap para o {@link ArmazemPassos}
+     * padrão) e quem chama não deve mais modificá-los. O mesmo objeto pode estar
+     * em vários catálogos (fragmentos, reconstruções por {@link #comReceitas}):
+     * os passos já guardados não são guardados de novo.
+     */
+    public static CatalogoReceitas construir(List<Receita> receitas) {
+        return construir(receitas, new DicionarioIngredientes());
+    }
+
+    /**
+     * Como {@link #construir(List)}, registrando os ingredientes em um
+     * dicionário existente. Também toma posse das receitas.
+     */
+    static CatalogoReceitas construir(List<Receita> lista, DicionarioIngredientes dicionario) {
+        Receita[] receitas = lista.toArray(new Receita[0]);
+        int[][] porReceita = new int[receitas.length][];
+
+        for (int r = 0; r < receitas.length; r++) {
+            porReceita[r] = registrarIngredientes(receitas[r], dicionario);
+        }
+
+        return new CatalogoReceitas(dicionario, receitas, porReceita,
+            montarPostings(porReceita, dicionario.tamanho()));
+    }
+
+    /**
+     * Novo catálogo com as receitas deste mais as novas, no mesmo dicionário.
+     * As receitas existentes mantêm os ids; as posting lists são remontadas e
+     * o índice de similaridade só assina as receitas novas.
+     */
+    CatalogoReceitas comReceitas(List<Receita> novas) {
+        Receita[] todas = Arrays.copyOf(receitas, receitas.length + novas.size());
+        int[][] porReceita = Arrays.copyOf(ingredientesPorReceita, todas.length);
+        for (int i = 0; i < novas.size(); i++) {
+            todas[receitas.length + i] = novas.get(i);
+            porReceita[receitas.length + i] = registrarIngredientes(novas.get(i), dicionario);
+        }
+        return new CatalogoReceitas(dicionario, todas, porReceita,
+            montarPostings(porReceita, dicionario.tamanho()), this);
+    }
+
+    /**
+     * Ids (ordenados, sem repetição) dos ingredientes da receita, registrando os novos.
+     */
+    static int[] registrarIngredientes(Receita receita, DicionarioIngredientes dicionario) {
+        ArrayList<Ingrediente> ingredientes = receita.getIngredientes();
+        int[] ids = new int[ingredientes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = dicionario.registrar(ingredientes.get(i).getNome());
+        }
+        return ordenarSemRepeticao(ids);
+    }
+
+    /**
+     * Inverte "receita → ingredientes" em "ingrediente → receitas".
+     */
+    static int[][] montarPostings(int[][] porReceita, int totalIngredientes) {
+        int[] tamanhos = new int[totalIngredientes];
+        for (int[] ids : porReceita) {
+            for (int id : ids) {
+                tamanhos[id]++;
+            }
+        }
+
+        int[][] postings = new int[totalIngredientes][];
+        for (int i = 0; i < totalIngredientes; i++) {
+            postings[i] = new int[tamanhos[i]];
+            tamanhos[i] = 0;
+        }
+
+        // Percorre as receitas em ordem, então cada posting list já sai ordenada
+        for (int r = 0; r < porReceita.length; r++) {
+            for (int id : porReceita[r]) {
+                postings[id][tamanhos[id]++] = r;
+            }
+        }
+        return postings;
+    }
+
+    private static int[] ordenarSemRepeticao(int[] ids) {
+        Arrays.sort(ids);
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[n++] = ids[i];
+            }
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+
+    // ========== CATÁLOGO ATUAL ==========
+
+    public static CatalogoReceitas atual() {
+        return Holder.atual;
+    }
+
+    /**
+     * Troca o catálogo usado pelos sugestores.
+     */
+    public static void definirAtual(CatalogoReceitas catalogo) {
+        Holder.atual = catalogo;
+    }
+
+    /**
+     * Usa o snapshot pré-indexado se existir (-Dchefai.catalogo ou catalogo.snapshot
+     * na pasta atual); senão constrói o banco básico na mão.
+     */
+    private static CatalogoReceitas carregarPadrao() {
+        Path snapshot = Paths.get(System.getProperty("chefai.catalogo", SnapshotCatalogo.ARQUIVO_PADRAO));
+        if (Files.isRegularFile(snapshot)) {
+            try {
+                CatalogoReceitas catalogo = SnapshotCatalogo.carregar(snapshot);
+                Log.info(() -> "📦 Catálogo carregado do snapshot: " + catalogo.tamanho() + " receitas");
+                return catalogo;
+            } catch (Exception e) {
+                Log.aviso("⚠️  Snapshot do catálogo inválido (" + e.getMessage() + "). Usando banco básico.");
+            }
+        }
+        return construir(criarReceitasBasicas());
+    }
+
+    // ========== CONSULTA ==========
+
+    public int tamanho() {
+        return receitas.length;
+    }
+
+    public Receita getReceita(int id) {
+        return receitas[id];
+    }
+
+    /**
+     * Todas as receitas, em ordem de id (lista somente leitura, sem cópia).
+     */
+    public List<Receita> getReceitas() {
+        return Collections.unmodifiableList(Arrays.asList(receitas));
+    }
+
+    public DicionarioIngredientes getDicionario() {
+        return dicionario;
+    }
+
+    /**
+     * Número único deste catálogo; muda a cada troca (ingestão, recarga).
+     * Serve de chave de cache sem manter o catálogo antigo vivo.
+     */
+    public long getGeracao() {
+        return geracao;
+    }
+
+    /**
+     * Ids (ordenados) dos ingredientes de uma receita. Não altere o array.
+     */
+    public int[] getIngredientes(int receitaId) {
+        return ingredientesPorReceita[receitaId];
+    }
+
+    public int getTotalIngredientes(int receitaId) {
+        return ingredientesPorReceita[receitaId].length;
+    }
+
+    /**
+     * Bits de {@link Alergenos} da receita, calculados pelo dicionário deste catálogo.
+     */
+    public int getRestricoes(int receitaId) {
+        return restricoesPorReceita[receitaId];
+    }
+
+    /**
+     * Id da receita neste catálogo (comparando por identidade) ou -1 se ela
+     * não faz parte dele (ex.: receita vinda da API).
+     */
+    public int indiceDe(Receita receita) {
+        IdentityHashMap<Receita, Integer> indice = indicePorReceita;
+        if (indice == null) {
+            synchronized (this) {
+                indice = indicePorReceita;
+                if (indice == null) {
+                    indice = new IdentityHashMap<>(receitas.length);
+                    for (int i = 0; i < receitas.length; i++) {
+                        indice.put(receitas[i], i);
+                    }
+                    indicePorReceita = indice;
+                }
+            }
+        }
+        Integer id = indice.get(receita);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Ids (ordenados) das receitas que usam um ingrediente. Não altere o array.
+     */
+    public int[] getPostings(int ingredienteId) {
+        if (ingredienteId < 0 || ingredienteId >= postings.length) {
+            return VAZIO;
+        }
+        return postings[ingredienteId];
+    }
+
+    public int getTotalPostings() {
+        return postings.length;
+    }
+
+    /**
+     * Quantas receitas têm no máximo {@code total} ingredientes.
+     * Essas receitas são as primeiras posições de {@link #getReceitaPorTotal}.
+     */
+    public int contarReceitasComAte(int total) {
+        if (total < 0) {
+            return 0;
+        }
+        return acumuladoPorTotal[Math.min(total, acumuladoPorTotal.length - 1)];
+    }
+
+    /**
+     * i-ésima receita em ordem crescente de número de ingredientes.
+     */
+    public int getReceitaPorTotal(int i) {
+        return receitasPorTotal[i];
+    }
+
+    /**
+     * Quantas receitas ficam prontas em até {@code tempoMaximo} minutos (busca binária).
+     * Essas receitas são as primeiras posições de {@link #getReceitaPorTempo}.
+     */
+    public int contarReceitasComTempoAte(int tempoMaximo) {
+        int inicio = 0;
+        int fim = temposOrdenados.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (temposOrdenados[meio] <= tempoMaximo) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * i-ésima receita em ordem crescente de tempo de preparo (empate pelo id).
+     */
+    public int getReceitaPorTempo(int i) {
+        return receitasPorTempo[i];
+    }
+
+    /**
+     * Primeira posição do índice por tempo com (tempo, id) ≥ (tempo, receitaId).
+     * Serve para retomar uma paginação mesmo depois de o catálogo crescer.
+     */
+    public int posicaoPorTempo(int tempo, int receitaId) {
+        int inicio = 0;
+        int fim = temposOrdenados.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            int t = temposOrdenados[meio];
+            if (t < tempo || (t == tempo && receitasPorTempo[meio] < receitaId)) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    // ========== PONTUAÇÃO ==========
+
+    /**
+     * Converte a despensa do usuário em ids de ingredientes do catálogo.
+     * Nomes aproximados ("ovos", "acucar", "quejo") são resolvidos pelo
+     * dicionário uma vez e ficam em cache no usuário até a despensa mudar.
+     */
+    public int[] resolverDespensa(Usuario usuario) {
+        return usuario.getIdsDespensa(dicionario);
+    }
+
+    /**
+     * Conta, para cada receita tocada pela despensa, quantos ingredientes o usuário tem.
+     * O custo é proporcional ao tamanho das posting lists da despensa.
+     *
+     * @param idsDespensa Ids sem repetição (ver {@link #resolverDespensa})
+     */
+    public ContagemAcertos contarAcertos(int[] idsDespensa) {
+        int[] contagem = rascunho.get();
+        int[] tocadas = new int[Math.min(receitas.length, totalPostings(idsDespensa))];
+        int n = contarNoRascunho(idsDespensa, contagem, tocadas);
+
+        int[] acertos = new int[n];
+        for (int i = 0; i < n; i++) {
+            acertos[i] = contagem[tocadas[i]];
+            contagem[tocadas[i]] = 0; // deixa o rascunho zerado para a próxima chamada
+        }
+        return new ContagemAcertos(tocadas, acertos, n);
+    }
+
+    /**
+     * Quantos ingredientes de uma receita estão na despensa (interseção de ids
+     * ordenados). Para uma receita só, sai mais barato que {@link #contarAcertos(int[])}.
+     */
+    public int contarAcertos(int receitaId, int[] idsDespensa) {
+        int[] ingredientes = ingredientesPorReceita[receitaId];
+        int i = 0;
+        int j = 0;
+        int acertos = 0;
+        while (i < ingredientes.length && j < idsDespensa.length) {
+            if (ingredientes[i] == idsDespensa[j]) {
+                acertos++;
+                i++;
+                j++;
+            } else if (ingredientes[i] < idsDespensa[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return acertos;
+    }
+
+    /**
+     * Marca em {@code possui} quais ingredientes da receita (na ordem de
+     * {@code ingredientes}, que deve ser {@link Receita#getIngredientes()}) o
+     * usuário tem, e devolve quantos.
+     *
+     * Usa a despensa já resolvida na pontuação e os ids dos ingredientes da
+     * receita guardados no catálogo (resolvidos uma vez, na primeira exibição). Receitas fora deste catálogo (ex.: vindas
+     * da API) usam {@link Usuario#temIngrediente(String, DicionarioIngredientes)}.
+     * Nos dois casos o nome da receita só é buscado pela forma canônica exata.
+     */
+    public int marcarPossuidos(Receita receita, List<Ingrediente> ingredientes, Usuario usuario,
+                               boolean[] possui) {
+        int id = indiceDe(receita);
+        int total = 0;
+
+        if (id < 0) {
+            for (int i = 0; i < ingredientes.size(); i++) {
+                possui[i] = usuario.temIngrediente(ingredientes.get(i).getNome(), dicionario);
+                total += possui[i] ? 1 : 0;
+            }
+            return total;
+        }
+
+        int[] ids = idsNaOrdem.get(id);
+        if (ids == null || ids.length != ingredientes.size()) {
+            ids = new int[ingredientes.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = dicionario.idDe(ingredientes.get(i).getNome());
+            }
+            idsNaOrdem.set(id, ids);
+        }
+        int[] idsDespensa = resolverDespensa(usuario);
+        for (int i = 0; i < ids.length; i++) {
+            possui[i] = ids[i] >= 0 && Arrays.binarySearch(idsDespensa, ids[i]) >= 0;
+            total += possui[i] ? 1 : 0;
+        }
+        return total;
+    }
+
+    /**
+     * Soma os acertos em {@code contagem} (por id de receita) e anota em
+     * {@code tocadas} as receitas que saíram do zero. Quem chama zera depois.
+     */
+    private int contarNoRascunho(int[] idsDespensa, int[] contagem, int[] tocadas) {
+        int n = 0;
+        for (int ingrediente : idsDespensa) {
+            for (int receita : getPostings(ingrediente)) {
+                if (contagem[receita]++ == 0) {
+                    tocadas[n++] = receita;
+                }
+            }
+        }
+        return n;
+    }
+
+    private int totalPostings(int[] idsDespensa) {
+        int total = 0;
+        for (int id : idsDespensa) {
+            total += getPostings(id).length;
+        }
+        return total;
+    }
+
+    /**
+     * As primeiras {@code limite} receitas, em ordem de tempo, prontas em até
+     * {@code tempoMaximo} minutos, permitidas pela máscara (ver {@link ColunasCatalogo})
+     * e com pelo menos {@code compatibilidadeMinima}% dos ingredientes na despensa.
+     *
+     * Percorre só o prefixo do índice por tempo e para assim que junta {@code limite}
+     * receitas; o resultado já sai ordenado.
+     */
+    public int[] melhoresPorTempo(int[] idsDespensa, int tempoMaximo, long[] permitidas,
+                                  int compatibilidadeMinima, int limite) {
+        int[] contagem = rascunho.get();
+        int[] tocadas = new int[Math.min(receitas.length, totalPostings(idsDespensa))];
+        int n = contarNoRascunho(idsDespensa, contagem, tocadas);
+
+        int[] escolhidas = new int[Math.max(0, Math.min(limite, n))];
+        int total = 0;
+        int prefixo = n == 0 ? 0 : contarReceitasComTempoAte(tempoMaximo);
+        for (int i = 0; i < prefixo && total < escolhidas.length; i++) {
+            int receita = receitasPorTempo[i];
+            int acertos = contagem[receita];
+            if (acertos != 0 && ColunasCatalogo.contem(permitidas, receita)
+                    && calcularCompatibilidade(receita, acertos) >= compatibilidadeMinima) {
+                escolhidas[total++] = receita;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            contagem[tocadas[i]] = 0; // deixa o rascunho zerado para a próxima chamada
+        }
+        return total == escolhidas.length ? escolhidas : Arrays.copyOf(escolhidas, total);
+    }
+
+    // ========== RESTRIÇÕES E "NÃO GOSTA" ==========
+
+    /**
+     * Máscara (ver {@link ColunasCatalogo}) das receitas que o usuário aceita:
+     * sem nada proibido pelas restrições e sem nenhum ingrediente que ele não gosta.
+     *
+     * Os "não gosta" entram como anti-join: as posting lists desses ingredientes
+     * apagam seus bits de uma cópia da máscara de restrições, uma vez por consulta.
+     * Sem "não gosta" devolve a máscara em cache (não altere o array devolvido).
+     */
+    public long[] permitidasPara(Usuario usuario) {
+        long[] restricoes = getColunas().filtrar(Integer.MAX_VALUE, Alergenos.proibidosPara(usuario));
+        int[] naoGosta = usuario.getIdsNaoGosta(dicionario);
+        if (naoGosta.length == 0) {
+            return restricoes;
+        }
+
+        long[] permitidas = restricoes.clone();
+        for (int ingrediente : naoGosta) {
+            for (int receita : getPostings(ingrediente)) {
+                permitidas[receita >>> 6] &= ~(1L << receita);
+            }
+        }
+        return permitidas;
+    }
+
+    /**
+     * Quantas receitas um conjunto de "não gosta" exclui, no máximo (soma das postings).
+     */
+    public int contarExcluidasPor(int[] idsIngredientes) {
+        return Math.min(receitas.length, totalPostings(idsIngredientes));
+    }
+
+    /**
+     * A receita passa em {@code permitidas} (de {@link #permitidasPara})? Receitas
+     * que não são deste catálogo (ex.: vindas da API) são verificadas pelos
+     * bits de alérgenos e pelos ids dos ingredientes (forma canônica exata, sem
+     * busca aproximada: "leite condensado" não é "leite").
+     */
+    public boolean permitida(long[] permitidas, Receita receita, Usuario usuario) {
+        int id = indiceDe(receita);
+        if (id >= 0) {
+            return ColunasCatalogo.contem(permitidas, id);
+        }
+        if (!Alergenos.permitida(receita, usuario)) {
+            return false;
+        }
+        int[] naoGosta = usuario.getIdsNaoGosta(dicionario);
+        if (naoGosta.length > 0) {
+            for (Ingrediente ingrediente : receita.getIngredientes()) {
+                int ingredienteId = dicionario.idDe(ingrediente.getNome());
+                if (ingredienteId >= 0 && Arrays.binarySearch(naoGosta, ingredienteId) >= 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Porcentagem de ingredientes da receita que o usuário tem (0-100).
+     */
+    public int calcularCompatibilidade(int receitaId, int acertos) {
+        int total = ingredientesPorReceita[receitaId].length;
+        return total == 0 ? 0 : (acertos * 100) / total;
+    }
+
+    /**
+     * Tempo, flags e nº de ingredientes em arrays paralelos, para filtrar
+     * o catálogo inteiro por máscara de bits. Montado na primeira consulta.
+     */
+    public ColunasCatalogo getColunas() {
+        ColunasCatalogo atuais = colunas;
+        if (atuais == null) {
+            synchronized (this) {
+                atuais = colunas;
+                if (atuais == null) {
+                    atuais = new ColunasCatalogo(this);
+                    colunas = atuais;
+                }
+            }
+        }
+        return atuais;
+    }
+
+    /**
+     * Planejador com as estatísticas deste catálogo. Montado na primeira consulta.
+     */
+    public PlanejadorConsultas getPlanejador() {
+        PlanejadorConsultas atual = planejador;
+        if (atual == null) {
+            synchronized (this) {
+                atual = planejador;
+                if (atual == null) {
+                    atual = new PlanejadorConsultas(this);
+                    planejador = atual;
+                }
+            }
+        }
+        return atual;
+    }
+
+    // ========== RECEITAS SEMELHANTES ==========
+
+    /**
+     * "Mais receitas como esta": as k receitas com ingredientes mais parecidos
+     * (Jaccard), via MinHash/LSH. Só os candidatos do LSH são comparados.
+     * A receita pode ser do catálogo ou uma receita avulsa (ex.: vinda da API).
+     */
+    public List<Receita> similaresA(Receita receita, int k) {
+        int id = indiceDe(receita);
+        boolean doCatalogo = id >= 0;
+        int[] ingredientes = doCatalogo ? ingredientesPorReceita[id] : idsConhecidos(receita);
+        return similaridade.similares(ingredientes, doCatalogo ? id : -1, k);
+    }
+
+    private int[] idsConhecidos(Receita receita) {
+        ArrayList<Ingrediente> lista = receita.getIngredientes();
+        int[] ids = new int[lista.size()];
+        int n = 0;
+        for (Ingrediente ingrediente : lista) {
+            int id = dicionario.idDe(ingrediente.getNome());
+            if (id >= 0) {
+                ids[n++] = id;
+            }
+        }
+        return ordenarSemRepeticao(Arrays.copyOf(ids, n));
+    }
+
+    // ========== BANCO DE RECEITAS (COMPOSIÇÃO) ==========
+
+    /**
+     * Cria o banco básico de receitas para demonstração.
+     * Demonstra COMPOSIÇÃO - Receita contém Ingredientes.
+     *
+     * @return Lista de receitas de exemplo
+     */
+    public static ArrayList<Receita> criarReceitasBasicas() {
+        ArrayList<Receita> banco = new ArrayList<>();
+
+        // Receita 1 - Omelete (NÃO vegetariana)
+        Receita omelete = new Receita("Omelete Clássico", 12, false);
+        omelete.adicionarIngrediente(new Ingrediente("ovo", 3));
+        omelete.adicionarIngrediente(new Ingrediente("queijo", 100));
+        omelete.adicionarIngrediente(new Ingrediente("sal", 1));
+        omelete.adicionarPasso("Bata os ovos com sal em uma tigela");
+        omelete.adicionarPasso("Adicione queijo ralado e misture bem");
+        omelete.adicionarPasso("Aqueça uma frigideira antiaderente em fogo médio");
+        omelete.adicionarPasso("Despeje a mistura e cozinhe por 5-7 minutos até dourar");
+        omelete.adicionarPasso("Vire com cuidado e cozinhe por mais 2 minutos");
+        omelete.adicionarPasso("Sirva quente");
+
+        // Receita 2 - Panqueca (vegetariana)
+        Receita panqueca = new Receita("Panquecas Simples", 18, true);
+        panqueca.adicionarIngrediente(new Ingrediente("farinha", 200));
+        panqueca.adicionarIngrediente(new Ingrediente("leite", 250));
+        panqueca.adicionarIngrediente(new Ingrediente("ovo", 2));
+        panqueca.adicionarIngrediente(new Ingrediente("açúcar", 30));
+        panqueca.adicionarIngrediente(new Ingrediente("fermento", 1));
+        panqueca.adicionarPasso("Misture farinha, açúcar e fermento em uma tigela grande");
+        panqueca.adicionarPasso("Adicione os ovos e metade do leite, misturando bem");
+        panqueca.adicionarPasso("Incorpore o restante do leite aos poucos até obter massa homogênea");
+        panqueca.adicionarPasso("Deixe a massa descansar por 5 minutos");
+        panqueca.adicionarPasso("Aqueça uma frigideira antiaderente em fogo médio");
+        panqueca.adicionarPasso("Coloque uma concha de massa e espalhe pela frigideira");
+        panqueca.adicionarPasso("Cozinhe por 2-3 minutos até formar bolhas, então vire");
+        panqueca.adicionarPasso("Cozinhe por mais 1-2 minutos do outro lado");
+        panqueca.adicionarPasso("Repita com o restante da massa");
+
+        // Receita 3 - Sanduíche (NÃO vegetariana - tem queijo)
+        Receita sanduiche = new Receita("Sanduíche Quente", 8, false);
+        sanduiche.adicionarIngrediente(new Ingrediente("pão", 2));
+        sanduiche.adicionarIngrediente(new Ingrediente("queijo", 2));
+        sanduiche.adicionarIngrediente(new Ingrediente("manteiga", 1));
+        sanduiche.adicionarPasso("Passe manteiga na parte externa das fatias de pão");
+        sanduiche.adicionarPasso("Coloque as fatias de queijo entre as fatias de pão");
+        sanduiche.adicionarPasso("Aqueça uma frigideira em fogo médio");
+        sanduiche.adicionarPasso("Coloque o sanduíche na frigideira e cozinhe por 2-3 minutos");
+        sanduiche.adicionarPasso("Vire cuidadosamente com uma espátula");
+        sanduiche.adicionarPasso("Cozinhe por mais 2-3 minutos até dourar e o queijo derreter");
+        sanduiche.adicionarPasso("Retire da frigideira e corte ao meio");
+        sanduiche.adicionarPasso("Sirva imediatamente");
+
+        // Receita 4 - Salada (vegetariana)
+        Receita salada = new Receita("Salada Completa", 15, true);
+        salada.adicionarIngrediente(new Ingrediente("alface", 1));
+        salada.adicionarIngrediente(new Ingrediente("tomate", 2));
+        salada.adicionarIngrediente(new Ingrediente("cenoura", 1));
+        salada.adicionarIngrediente(new Ingrediente("cebola", 1));
+        salada.adicionarIngrediente(new Ingrediente("azeite", 2));
+        salada.adicionarIngrediente(new Ingrediente("vinagre", 1));
+        salada.adicionarPasso("Lave bem todos os vegetais sob água corrente");
+        salada.adicionarPasso("Rasgue as folhas de alface com as mãos em pedaços médios");
+        salada.adicionarPasso("Corte os tomates em fatias ou cubos, conforme preferência");
+        salada.adicionarPasso("Rale a cenoura no ralo grosso");
+        salada.adicionarPasso("Corte a cebola em fatias finas");
+        salada.adicionarPasso("Em uma tigela grande, misture todos os vegetais");
+        salada.adicionarPasso("Em uma tigela pequena, misture azeite, vinagre e sal");
+        salada.adicionarPasso("Regue a salada com o molho e misture delicadamente");
+        salada.adicionarPasso("Sirva imediatamente");
+
+        // Receita 5 - Ovo mexido (vegetariana)
+        Receita ovoMexido = new Receita("Ovo Mexido Cremoso", 10, true);
+        ovoMexido.adicionarIngrediente(new Ingrediente("ovo", 3));
+        ovoMexido.adicionarIngrediente(new Ingrediente("leite", 2));
+        ovoMexido.adicionarIngrediente(new Ingrediente("sal", 1));
+        ovoMexido.adicionarIngrediente(new Ingrediente("manteiga", 1));
+        ovoMexido.adicionarPasso("Quebre os ovos em uma tigela");
+        ovoMexido.adicionarPasso("Adicione o leite e o sal");
+        ovoMexido.adicionarPasso("Bata os ovos com um garfo até ficarem bem misturados");
+        ovoMexido.adicionarPasso("Derreta a manteiga em uma frigideira em fogo baixo-médio");
+        ovoMexido.adicionarPasso("Despeje a mistura de ovos na frigideira");
+        ovoMexido.adicionarPasso("Espere alguns segundos até começar a cozinhar nas bordas");
+        ovoMexido.adicionarPasso("Com uma espátula, empurre os ovos das bordas para o centro");
+        ovoMexido.adicionarPasso("Continue mexendo suavemente até os ovos estarem cremosos");
+        ovoMexido.adicionarPasso("Retire do fogo antes de ficarem completamente sólidos");
+        ovoMexido.adicionarPasso("Sirva imediatamente com pão torrado");
+
+        // Adicionar todas ao banco
+        banco.add(omelete);
+        banco.add(panqueca);
+        banco.add(sanduiche);
+        banco.add(salada);
+        banco.add(ovoMexido);
+
+        return banco;
+    }
+}
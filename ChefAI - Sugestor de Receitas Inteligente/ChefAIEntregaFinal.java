@@ -1,13 +1,29 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class ChefAIEntregaFinal {
+    /**
+     * Ponto de entrada pela linha de comando.
+     * Sem argumentos roda a demonstração; "servidor [porta]" sobe o serviço HTTP.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("servidor")) {
+            ServidorHTTP.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        main();
+    }
+    
     public static void main() {
         System.out.println("╔══════════════════════════════════════════════════════════╗");
         System.out.println("║                      CHEFAI                              ║");
         System.out.println("║         Sugestor de Receitas Inteligente (POO)           ║");
         System.out.println("╚══════════════════════════════════════════════════════════╝\n");
         
+        Metricas.registrarJMX();
         executarSistemaCompleto();
+        Log.descarregar();
+        Metricas.exibirRelatorio();
     }
     
     private static void executarSistemaCompleto() {
@@ -98,7 +114,8 @@ public class ChefAIEntregaFinal {
     SugestorBase sugestorRapido = new SugestorRapido();
     
     System.out.println("1. USANDO SUGESTOR RÁPIDO:");
-    ArrayList<Receita> sugestoesRapidas = sugestorRapido.sugerirReceitas(usuarioReal);
+    ArrayList<Receita> sugestoesRapidas = sugestorRapido.sugerirComCache(usuarioReal); // repetir sem mudar a despensa não recalcula
+    Log.descarregar(); // Garante que o log saia antes dos resultados no console
     
     // ========== MOSTRAR RESULTADOS DETALHADOS ==========
     System.out.println("\n🎯 RESULTADOS DETALHADOS:");
@@ -108,36 +125,10 @@ public class ChefAIEntregaFinal {
 }
 
 private static void exibirReceitasComDetalhes(ArrayList<Receita> receitas, Usuario usuario) {
-    if (receitas.isEmpty()) {
-        System.out.println("   Nenhuma receita encontrada.");
-        return;
-    }
-    
-    for (int i = 0; i < receitas.size(); i++) {
-        Receita receita = receitas.get(i);
-        int compatibilidade = calcularScoreCompatibilidade(usuario, receita);
-        
-        System.out.println("\n   " + (i+1) + ". ⭐ " + receita.getNome());
-        System.out.println("      ├── ⏱️  Tempo: " + receita.getTempoPreparo() + " min");
-        System.out.println("      ├── 📊 Compatibilidade: " + compatibilidade + "%");
-        
-        // DESTAQUE DE INGREDIENTES QUE O USUÁRIO TEM
-        System.out.println("      ├── 🛒 Ingredientes:");
-        for (Ingrediente ing : receita.getIngredientes()) {
-            String possui = usuario.temIngrediente(ing.getNome()) ? "✅ " : "   ";
-            System.out.println("      │   " + possui + ing);
-        }
-        
-        // 🔥🔥🔥 AQUI ESTÁ O PROBLEMA - MOSTRAR PASSOS COMPLETOS 🔥🔥🔥
-        System.out.println("      └── 📝 MODO DE PREPARO:");
-        if (receita.getPassos().isEmpty()) {
-            System.out.println("          (Passos não disponíveis)");
-        } else {
-            for (int j = 0; j < receita.getPassos().size(); j++) {
-                System.out.println("          " + (j+1) + ". " + receita.getPassos().get(j));
-            }
-        }
-    }
+    // Monta tudo em um buffer (reaproveitando a despensa já resolvida) e escreve de uma vez
+    RenderizadorResultados.local()
+        .renderizar(receitas, usuario, RenderizadorResultados.Formato.TEXTO)
+        .escreverEm(System.out);
 }
     
     private static ArrayList<Receita> gerarSugestoesInteligentes(Usuario usuario) {
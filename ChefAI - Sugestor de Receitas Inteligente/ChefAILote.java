@@ -0,0 +1,195 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Modo em lote: lê usuários em JSONL e grava sugestões em JSONL.
+ *
+ * Uso: java ChefAILote entrada.jsonl saida.jsonl [threads]
+ *
+ * Cada linha de entrada é um usuário no formato de {@link ConversorJson#lerUsuario}.
+ * As linhas são pontuadas em paralelo contra o catálogo compartilhado e gravadas
+ * na mesma ordem da entrada. O número de linhas em andamento é limitado,
+ * então a memória fica constante qualquer que seja o tamanho do arquivo.
+ *
+ * Se a gravação falhar, o lote é interrompido e o programa sai com código 1.
+ */
+public class ChefAILote {
+    private static final int EM_ANDAMENTO_POR_THREAD = 256;
+    private static final int TAMANHO_BUFFER_SAIDA = 1 << 20; // 1 MB
+    private static final long ESPERA_FILA_MS = 100; // entre verificações de falha do gravador
+    private static final byte[] CAMPO_LINHA = EscritorJson.campo("linha");
+    private static final byte[] CAMPO_USUARIO = EscritorJson.campo("usuario");
+    private static final byte[] CAMPO_RECEITAS = EscritorJson.campo("receitas");
+    private static final byte[] CAMPO_ERRO = EscritorJson.campo("erro");
+
+    /**
+     * Marca o fim da fila de resultados.
+     */
+    private static final Future<byte[]> FIM = CompletableFuture.completedFuture(null);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Uso: java ChefAILote entrada.jsonl saida.jsonl [threads]");
+            return;
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+                                      : Runtime.getRuntime().availableProcessors();
+        try {
+            processar(Paths.get(args[0]), Paths.get(args[1]), new SugestorRapido(), threads);
+        } catch (Exception e) {
+            Log.erro("❌ LOTE INTERROMPIDO: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Processa o arquivo inteiro e imprime um resumo de vazão no final.
+     *
+     * @throws IOException se a entrada não puder ser lida ou a saída não puder
+     *         ser gravada por inteiro
+     */
+    public static void processar(Path entrada, Path saida, SugestorBase sugestor, int threads)
+            throws Exception {
+        CatalogoReceitas.atual(); // carrega o catálogo antes de medir
+        long inicio = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        BlockingQueue<Future<byte[]>> pendentes = new ArrayBlockingQueue<>(threads * EM_ANDAMENTO_POR_THREAD);
+        LongAdder gravadas = new LongAdder();
+        LongAdder erros = new LongAdder();
+        AtomicReference<Throwable> falha = new AtomicReference<>();
+
+        // Gravação em ordem, numa thread separada da leitura
+        Thread gravador = new Thread(() -> gravar(pendentes, saida, gravadas, falha), "chefai-lote-gravador");
+        gravador.start();
+
+        long linhas = 0;
+        try (BufferedReader leitor = Files.newBufferedReader(entrada, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                final String json = linha;
+                final long numero = ++linhas;
+                // bloqueia quando há trabalho demais em andamento
+                enfileirar(pendentes, executor.submit(() -> processarLinha(json, numero, sugestor, erros)), falha);
+            }
+            enfileirar(pendentes, FIM, falha);
+            gravador.join();
+        } finally {
+            if (gravador.isAlive()) {
+                gravador.interrupt(); // saímos por erro antes do FIM
+                gravador.join();
+            }
+            executor.shutdownNow();
+        }
+
+        if (falha.get() != null) {
+            throw new IOException("falha ao gravar " + saida + ": " + falha.get(), falha.get());
+        }
+        if (gravadas.sum() != linhas) {
+            throw new IOException("gravadas " + gravadas.sum() + " de " + linhas + " linhas em " + saida);
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.println("📦 LOTE CONCLUÍDO");
+        System.out.println("   Linhas lidas:    " + linhas);
+        System.out.println("   Linhas gravadas: " + gravadas.sum());
+        System.out.println("   Erros:           " + erros.sum());
+        System.out.printf("   Tempo:           %.2f s%n", segundos);
+        System.out.printf("   Vazão:           %.0f usuários/s%n", linhas / Math.max(segundos, 1e-9));
+    }
+
+    private static byte[] processarLinha(String json, long numero, SugestorBase sugestor, LongAdder erros) {
+        EscritorJson saida = EscritorJson.local();
+        saida.simbolo('{').campo(CAMPO_LINHA).numero(numero);
+
+        try {
+            Usuario usuario = ConversorJson.lerUsuario(json);
+            ArrayList<Receita> receitas = sugestor.sugerirComDespensasQuentes(usuario);
+
+            saida.simbolo(',').campo(CAMPO_USUARIO).texto(usuario.getNome());
+            saida.simbolo(',').campo(CAMPO_RECEITAS).receitasResumidas(receitas, usuario);
+        } catch (RuntimeException e) {
+            erros.increment();
+            saida.simbolo(',').campo(CAMPO_ERRO).texto(String.valueOf(e.getMessage()));
+        }
+
+        saida.simbolo('}').simbolo('\n');
+        return saida.paraBytes();
+    }
+
+    /**
+     * Como put, mas desiste se o gravador falhou (senão a fila cheia nunca esvazia).
+     */
+    private static void enfileirar(BlockingQueue<Future<byte[]>> pendentes, Future<byte[]> futuro,
+                                   AtomicReference<Throwable> falha) throws IOException, InterruptedException {
+        while (!pendentes.offer(futuro, ESPERA_FILA_MS, TimeUnit.MILLISECONDS)) {
+            if (falha.get() != null) {
+                futuro.cancel(true);
+                throw new IOException("gravação interrompida: " + falha.get(), falha.get());
+            }
+        }
+    }
+
+    private static void gravar(BlockingQueue<Future<byte[]>> pendentes, Path saida, LongAdder gravadas,
+                               AtomicReference<Throwable> falha) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER_SAIDA);
+
+        try (FileChannel canal = FileChannel.open(saida, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (true) {
+                Future<byte[]> futuro = pendentes.take();
+                if (futuro == FIM) {
+                    break;
+                }
+
+                byte[] linha = futuro.get();
+                if (linha.length > buffer.remaining()) {
+                    esvaziar(canal, buffer);
+                }
+                if (linha.length > buffer.capacity()) {
+                    canal.write(ByteBuffer.wrap(linha));
+                } else {
+                    buffer.put(linha);
+                }
+
+                gravadas.increment();
+            }
+            esvaziar(canal, buffer);
+        } catch (ExecutionException e) {
+            falha.set(e.getCause()); // linha que falhou com algo além de RuntimeException
+        } catch (InterruptedException e) {
+            falha.compareAndSet(null, e);
+        } catch (Throwable e) {
+            falha.set(e); // qualquer coisa: o produtor não pode ficar esperando para sempre
+        }
+    }
+
+    private static void esvaziar(FileChannel canal, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
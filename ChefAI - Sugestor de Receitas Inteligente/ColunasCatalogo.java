@@ -0,0 +1,169 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Visão em colunas (struct-of-arrays) do catálogo para filtros em massa.
+ *
+ * Em vez de percorrer objetos Receita chamando getters, os filtros leem
+ * arrays primitivos contíguos (tempo, bits de alérgenos e nº de ingredientes
+ * por id de receita) e produzem uma máscara de bits: bit r ligado = receita r passou.
+ * Máscaras se combinam com AND palavra a palavra (64 receitas por vez).
+ *
+ * Os laços são sem desvios (branch-free) para o JIT; as máscaras mais usadas
+ * (mesmo tempo máximo e restrições) ficam em cache, então um sugestor só
+ * testa bits das receitas que já tocou pelas posting lists.
+ */
+public class ColunasCatalogo {
+    private static final int MAXIMO_MASCARAS_EM_CACHE = 64;
+
+    private final int tamanho;
+    private final int[] tempos;
+    private final byte[] restricoes;            // bits de Alergenos
+    private final int[] totaisIngredientes;
+    private final long[][] comAlergeno;         // por bit de Alergenos: receitas que o têm
+    private final ConcurrentHashMap<Long, long[]> mascaras;
+
+    ColunasCatalogo(CatalogoReceitas catalogo) {
+        this.tamanho = catalogo.tamanho();
+        this.tempos = new int[tamanho];
+        this.restricoes = new byte[tamanho];
+        this.totaisIngredientes = new int[tamanho];
+        this.comAlergeno = new long[Alergenos.totalBits()][palavras(tamanho)];
+        this.mascaras = new ConcurrentHashMap<>();
+
+        for (int r = 0; r < tamanho; r++) {
+            Receita receita = catalogo.getReceita(r);
+            tempos[r] = receita.getTempoPreparo();
+            totaisIngredientes[r] = catalogo.getTotalIngredientes(r);
+            int bits = catalogo.getRestricoes(r);
+            restricoes[r] = (byte) bits;
+            for (int b = 0; b < comAlergeno.length; b++) {
+                comAlergeno[b][r >>> 6] |= (long) ((bits >>> b) & 1) << r;
+            }
+        }
+    }
+
+    static int palavras(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    // ========== FILTROS ==========
+
+    /**
+     * Receitas com tempo de preparo até {@code tempoMaximo} minutos.
+     */
+    public long[] filtrarPorTempo(int tempoMaximo) {
+        long[] mascara = new long[palavras(tamanho)];
+        // t <= max  ⇔  (t - (max + 1)) < 0; limita max para não estourar o int
+        int limite = Math.max(-1, Math.min(tempoMaximo, Integer.MAX_VALUE / 2)) + 1;
+        for (int w = 0; w < mascara.length; w++) {
+            int base = w << 6;
+            int fim = Math.min(64, tamanho - base);
+            long bits = 0;
+            for (int j = 0; j < fim; j++) {
+                bits |= (long) ((tempos[base + j] - limite) >>> 31) << j;
+            }
+            mascara[w] = bits;
+        }
+        return mascara;
+    }
+
+    /**
+     * Receitas que passam no tempo máximo e não têm nenhum bit de {@code proibidos}
+     * (ver {@link Alergenos#proibidosPara}).
+     * O resultado fica em cache (não altere o array devolvido).
+     */
+    public long[] filtrar(int tempoMaximo, int proibidos) {
+        long chave = ((long) tempoMaximo << 32) | (proibidos & 0xFFFFFFFFL);
+        long[] mascara = mascaras.get(chave);
+        if (mascara != null) {
+            return mascara;
+        }
+
+        mascara = filtrarPorTempo(tempoMaximo);
+        for (int b = 0; b < comAlergeno.length; b++) {
+            if ((proibidos & (1 << b)) != 0) {
+                eNao(mascara, comAlergeno[b]);
+            }
+        }
+        if (mascaras.size() < MAXIMO_MASCARAS_EM_CACHE) {
+            mascaras.putIfAbsent(chave, mascara);
+        }
+        return mascara;
+    }
+
+    /**
+     * Restrições do usuário (vegetariano, sem lactose, sem glúten) mais o tempo máximo.
+     */
+    public long[] filtrar(Usuario usuario, int tempoMaximo) {
+        return filtrar(tempoMaximo, Alergenos.proibidosPara(usuario));
+    }
+
+    /**
+     * destino = destino AND outra.
+     */
+    public static void e(long[] destino, long[] outra) {
+        for (int w = 0; w < destino.length; w++) {
+            destino[w] &= outra[w];
+        }
+    }
+
+    /**
+     * destino = destino AND NOT outra.
+     */
+    public static void eNao(long[] destino, long[] outra) {
+        for (int w = 0; w < destino.length; w++) {
+            destino[w] &= ~outra[w];
+        }
+    }
+
+    public static boolean contem(long[] mascara, int receitaId) {
+        return (mascara[receitaId >>> 6] & (1L << receitaId)) != 0;
+    }
+
+    public static int contar(long[] mascara) {
+        int total = 0;
+        for (long palavra : mascara) {
+            total += Long.bitCount(palavra);
+        }
+        return total;
+    }
+
+    /**
+     * Próxima receita da máscara a partir de {@code desde} (inclusive), ou -1.
+     */
+    public static int proxima(long[] mascara, int desde) {
+        int w = desde >>> 6;
+        if (w >= mascara.length) {
+            return -1;
+        }
+        long palavra = mascara[w] & (-1L << desde);
+        while (palavra == 0) {
+            if (++w == mascara.length) {
+                return -1;
+            }
+            palavra = mascara[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(palavra);
+    }
+
+    // ========== COLUNAS ==========
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public int getTempo(int receitaId) {
+        return tempos[receitaId];
+    }
+
+    /**
+     * Bits de {@link Alergenos} da receita.
+     */
+    public int getRestricoes(int receitaId) {
+        return restricoes[receitaId];
+    }
+
+    public int getTotalIngredientes(int receitaId) {
+        return totaisIngredientes[receitaId];
+    }
+}
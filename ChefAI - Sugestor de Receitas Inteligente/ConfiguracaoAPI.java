@@ -1,100 +1,328 @@
-import java.io.File;
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Properties;
 
+/**
+ * Configuração da API Gemini lida de config.properties.
+ *
+ * Os valores ficam em um objeto imutável publicado por um campo volátil:
+ * ler a configuração é só uma leitura de campo, sem lock.
+ * Quando o arquivo muda no disco, uma thread de fundo (WatchService) recarrega
+ * e troca o objeto inteiro de uma vez, sem reiniciar a aplicação. Se a
+ * recarga falhar (erro de leitura, arquivo ainda sendo gravado, valor
+ * inválido), a configuração anterior continua valendo.
+ */
 public class ConfiguracaoAPI {
-    private static Properties props;
-    
+    private static final String URL_PADRAO =
+        "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent";
+    private static final int TIMEOUT_PADRAO_MS = 15000;
+    private static final long ESPERA_ESTABILIZAR_MS = 200; // arquivo parou de crescer?
+
     public ConfiguracaoAPI() {
         // Construtor vazio
     }
-    
-    private static void garantirCarregado() {
-        if (props != null) return;
-        
-        props = new Properties();
-        System.out.println("=== INICIANDO CARREGAMENTO DA CONFIGURAÇÃO ===");
-        
-        try {
-            // Método 1: Procurar arquivo manualmente
-            File arquivo = encontrarArquivoConfig();
-            
-            if (arquivo != null && arquivo.exists()) {
-                System.out.println("✅ Arquivo encontrado: " + arquivo.getAbsolutePath());
-                System.out.println("📏 Tamanho: " + arquivo.length() + " bytes");
-                
-                FileReader reader = new FileReader(arquivo);
-                props.load(reader);
-                reader.close();
-                
-                System.out.println("✅ Configurações carregadas!");
-                System.out.println("Chave API encontrada: " + 
-                    (getApiKey().isEmpty() ? "NÃO" : "SIM (" + getApiKey().substring(0, Math.min(10, getApiKey().length())) + "...)"));
-            } else {
-                System.out.println("⚠️ Arquivo config.properties NÃO encontrado.");
-                System.out.println("Usando modo de teste...");
-                definirValoresPadrao();
+
+    // ========== VALORES IMUTÁVEIS ==========
+
+    /**
+     * Retrato imutável da configuração em um dado momento.
+     */
+    public static final class Valores {
+        private final String apiKey;
+        private final String apiUrl;
+        private final int timeoutConexaoMs;
+        private final int timeoutLeituraMs;
+        private final Path arquivo;
+
+        /**
+         * @throws IllegalArgumentException se algum timeout for inválido
+         */
+        private Valores(Properties props, Path arquivo) {
+            this.apiKey = validarChave(props.getProperty("gemini.api.key", ""));
+            this.apiUrl = props.getProperty("gemini.api.url", URL_PADRAO).trim();
+            this.timeoutConexaoMs = lerTimeout(props, "gemini.api.timeout.conexao", TIMEOUT_PADRAO_MS);
+            this.timeoutLeituraMs = lerTimeout(props, "gemini.api.timeout.leitura", TIMEOUT_PADRAO_MS);
+            this.arquivo = arquivo;
+        }
+
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        public String getApiUrl() {
+            return apiUrl;
+        }
+
+        public int getTimeoutConexaoMs() {
+            return timeoutConexaoMs;
+        }
+
+        public int getTimeoutLeituraMs() {
+            return timeoutLeituraMs;
+        }
+
+        /**
+         * Arquivo de onde os valores vieram (null se usando valores padrão).
+         */
+        public Path getArquivo() {
+            return arquivo;
+        }
+    }
+
+    /**
+     * Holder: a JVM garante que o primeiro carregamento acontece uma única vez,
+     * mesmo com várias threads chamando ao mesmo tempo.
+     */
+    private static final class Holder {
+        static volatile Valores atual = carregarInicial();
+    }
+
+    // ========== CARREGAMENTO ==========
+
+    private static Valores carregarInicial() {
+        long inicio = Metricas.inicio();
+        Log.debug(() -> "=== INICIANDO CARREGAMENTO DA CONFIGURAÇÃO ===");
+
+        Path arquivo = encontrarArquivoConfig();
+        Valores valores;
+
+        if (arquivo != null) {
+            Log.info("✅ Arquivo encontrado: " + arquivo.toAbsolutePath());
+            try {
+                valores = lerArquivo(arquivo);
+                Log.info("✅ Configurações carregadas!");
+                Log.info("Chave API encontrada: " + (valores.apiKey.isEmpty() ? "NÃO" :
+                    "SIM (" + valores.apiKey.substring(0, Math.min(10, valores.apiKey.length())) + "...)"));
+            } catch (IOException | IllegalArgumentException e) {
+                Log.erro("❌ ERRO ao carregar: " + e.getMessage());
+                Log.aviso("Usando valores padrão até o arquivo ser corrigido...");
+                valores = new Valores(new Properties(), arquivo);
             }
-            
-        } catch (Exception e) {
-            System.out.println("❌ ERRO ao carregar: " + e.getMessage());
-            definirValoresPadrao();
-        }
-        
-        System.out.println("=== FIM DO CARREGAMENTO ===\n");
-    }
-    
-    private static File encontrarArquivoConfig() {
-        // Lista de lugares onde procurar
-        String[] lugares = {
-            "config.properties",                          // Pasta atual
-            "./config.properties",                        // Pasta atual (outra notação)
-            System.getProperty("user.dir") + "/config.properties",  // Pasta do projeto
-            System.getProperty("user.dir") + "\\config.properties", // Windows
-            "..\\config.properties",                      // Pasta acima (Windows)
-            "../config.properties"                        // Pasta acima (Linux/Mac)
-        };
-        
-        for (String lugar : lugares) {
-            File arquivo = new File(lugar);
-            System.out.println("Procurando em: " + arquivo.getAbsolutePath() + 
-                             " - Existe? " + arquivo.exists());
-            
-            if (arquivo.exists() && arquivo.isFile() && arquivo.length() > 0) {
-                return arquivo;
+            observarAlteracoes(arquivo);
+        } else {
+            Log.aviso("⚠️ Arquivo config.properties NÃO encontrado.");
+            Log.aviso("Usando modo de teste...");
+            valores = new Valores(new Properties(), null);
+        }
+
+        Metricas.registrar(Metricas.Etapa.CARREGAR_CONFIG, inicio);
+        Log.debug(() -> "=== FIM DO CARREGAMENTO ===");
+        return valores;
+    }
+
+    /**
+     * @throws IOException se o arquivo não puder ser lido
+     * @throws IllegalArgumentException se algum valor for inválido
+     */
+    private static Valores lerArquivo(Path arquivo) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        return new Valores(props, arquivo);
+    }
+
+    /**
+     * Procura o arquivo de configuração.
+     * Ordem: -Dchefai.config, pasta atual, pasta acima.
+     * Paths resolve os separadores de cada sistema operacional.
+     */
+    private static Path encontrarArquivoConfig() {
+        String explicito = System.getProperty("chefai.config");
+        Path[] lugares = explicito != null
+            ? new Path[]{ Paths.get(explicito) }
+            : new Path[]{ Paths.get("config.properties"), Paths.get("..", "config.properties") };
+
+        for (Path lugar : lugares) {
+            boolean valido = Files.isRegularFile(lugar) && tamanho(lugar) > 0;
+            Log.debug(() -> "Procurando em: " + lugar.toAbsolutePath() + " - Existe? " + valido);
+
+            if (valido) {
+                return lugar;
             }
         }
-        
+
         return null;
     }
-    
-    private static void definirValoresPadrao() {
-        props.setProperty("gemini.api.key", "");
-        props.setProperty("gemini.api.url", 
-            "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent");
+
+    private static long tamanho(Path arquivo) {
+        try {
+            return Files.size(arquivo);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // ========== RECARGA A QUENTE ==========
+
+    /**
+     * Inicia uma thread daemon que recarrega a configuração quando o arquivo muda.
+     */
+    private static void observarAlteracoes(Path arquivo) {
+        Path absoluto = arquivo.toAbsolutePath();
+        Path pasta = absoluto.getParent();
+        Path nome = absoluto.getFileName();
+
+        try {
+            WatchService observador = FileSystems.getDefault().newWatchService();
+            pasta.register(observador,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_CREATE);
+
+            Thread t = new Thread(() -> aguardarAlteracoes(observador, absoluto, nome), "chefai-config-watch");
+            t.setDaemon(true);
+            t.start();
+        } catch (IOException e) {
+            Log.aviso("⚠️  Recarga automática da configuração indisponível: " + e.getMessage());
+        }
+    }
+
+    private static void aguardarAlteracoes(WatchService observador, Path arquivo, Path nome) {
+        while (true) {
+            WatchKey chave;
+            try {
+                chave = observador.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            boolean mudou = false;
+            for (WatchEvent<?> evento : chave.pollEvents()) {
+                if (nome.equals(evento.context())) {
+                    mudou = true;
+                }
+            }
+
+            if (mudou && aguardarEstabilizar(arquivo)) {
+                recarregar(arquivo);
+            }
+
+            if (!chave.reset()) {
+                return; // Pasta removida
+            }
+        }
+    }
+
+    /**
+     * Espera o arquivo parar de mudar de tamanho (editores e cópias gravam em
+     * várias etapas), para não recarregar um arquivo pela metade.
+     *
+     * @return false se o arquivo sumiu ou ficou vazio
+     */
+    private static boolean aguardarEstabilizar(Path arquivo) {
+        long anterior = tamanho(arquivo);
+        for (int tentativa = 0; tentativa < 10 && anterior > 0; tentativa++) {
+            try {
+                Thread.sleep(ESPERA_ESTABILIZAR_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            long atual = tamanho(arquivo);
+            if (atual == anterior) {
+                return true;
+            }
+            anterior = atual;
+        }
+        return anterior > 0;
+    }
+
+    /**
+     * Relê o arquivo e troca a configuração atual de forma atômica.
+     * Se a leitura falhar, mantém a configuração anterior.
+     */
+    public static void recarregar() {
+        Path arquivo = Holder.atual.arquivo;
+        if (arquivo == null) {
+            arquivo = encontrarArquivoConfig();
+        }
+        if (arquivo != null) {
+            recarregar(arquivo);
+        }
+    }
+
+    private static void recarregar(Path arquivo) {
+        long inicio = Metricas.inicio();
+        Valores novos;
+        try {
+            novos = lerArquivo(arquivo);
+        } catch (IOException | IllegalArgumentException e) {
+            Log.erro("❌ Recarga da configuração falhou, mantendo a anterior: " + e.getMessage());
+            return;
+        }
+        Holder.atual = novos;
+        Metricas.registrar(Metricas.Etapa.CARREGAR_CONFIG, inicio);
+        Log.info("🔄 Configuração recarregada de " + arquivo.toAbsolutePath());
     }
-    
+
+    // ========== LEITURA ==========
+
+    /**
+     * Configuração atual (objeto imutável; guarde a referência se precisar
+     * de vários valores consistentes entre si).
+     */
+    public static Valores getValores() {
+        return Holder.atual;
+    }
+
     public static String getApiKey() {
-        garantirCarregado();
-        String chave = props.getProperty("gemini.api.key", "");
-        
+        return Holder.atual.apiKey;
+    }
+
+    public static String getApiUrl() {
+        return Holder.atual.apiUrl;
+    }
+
+    public static int getTimeoutConexaoMs() {
+        return Holder.atual.timeoutConexaoMs;
+    }
+
+    public static int getTimeoutLeituraMs() {
+        return Holder.atual.timeoutLeituraMs;
+    }
+
+    private static String validarChave(String chave) {
         // Limpar e verificar
         chave = chave.trim();
-        
-        if (chave.isEmpty() || chave.equals("SUA_CHAVE_AQUI") || 
+
+        if (chave.isEmpty() || chave.equals("SUA_CHAVE_AQUI") ||
             chave.equals("COLE_SUA_CHAVE_AQUI") || chave.length() < 20) {
             return "";
         }
-        
+
         return chave;
     }
-    
-    public static String getApiUrl() {
-        garantirCarregado();
-        return props.getProperty("gemini.api.url", 
-            "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent");
+
+    /**
+     * Timeout em ms (0 = sem limite, como em URLConnection).
+     * @throws IllegalArgumentException se não for um inteiro >= 0
+     */
+    private static int lerTimeout(Properties props, String chave, int padrao) {
+        String valor = props.getProperty(chave);
+        if (valor == null || valor.isBlank()) {
+            return padrao;
+        }
+        int ms;
+        try {
+            ms = Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(chave + " não é um número: " + valor.trim());
+        }
+        if (ms < 0) {
+            throw new IllegalArgumentException(chave + " não pode ser negativo: " + ms);
+        }
+        return ms;
     }
-    
+
     // Método para testar manualmente
     public static void testeManual() {
         System.out.println("=== TESTE MANUAL DA CONFIGURAÇÃO ===");
@@ -102,4 +330,4 @@ public class ConfiguracaoAPI {
         System.out.println("URL API: " + getApiUrl());
         System.out.println("Chave válida? " + (!getApiKey().isEmpty() ? "✅ SIM" : "❌ NÃO"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+/**
+ * Resultado esparso da contagem de acertos de uma despensa no catálogo.
+ *
+ * Só contém as receitas que têm pelo menos um ingrediente da despensa:
+ * receitas[i] é o id da receita e acertos[i] quantos ingredientes dela o usuário tem.
+ */
+public class ContagemAcertos {
+    private final int[] receitas;
+    private final int[] acertos;
+    private final int tamanho;
+
+    public ContagemAcertos(int[] receitas, int[] acertos, int tamanho) {
+        this.receitas = receitas;
+        this.acertos = acertos;
+        this.tamanho = tamanho;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public int getReceita(int i) {
+        return receitas[i];
+    }
+
+    public int getAcertos(int i) {
+        return acertos[i];
+    }
+}
@@ -0,0 +1,245 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversão simples entre JSON e as classes do ChefAI (Usuario e Receita).
+ *
+ * Escrito à mão, sem bibliotecas e sem reflexão: o parser gera Map/List/String/
+ * Double/Boolean e os métodos de escrita acrescentam a um StringBuilder o que o
+ * {@link EscritorJson} escreve (um formato só para receitas, em todo o projeto).
+ * Nos caminhos quentes (HTTP, lote) use {@link EscritorJson} e {@link LeitorJson},
+ * que trabalham direto em bytes UTF-8.
+ */
+public class ConversorJson {
+
+    // ========== LEITURA ==========
+
+    /**
+     * Lê um usuário no formato:
+     * {"nome":"Ana","ingredientes":[{"nome":"ovo","quantidade":3}],
+     *  "vegetariano":false,"semLactose":false,"semGluten":false}
+     * ("naoGosta" opcional, como "ingredientes"). Lê em streaming pelo {@link LeitorJson}.
+     *
+     * @throws IllegalArgumentException se o JSON for inválido
+     */
+    public static Usuario lerUsuario(String json) {
+        return LeitorJson.lerUsuario(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Faz o parse de um documento JSON qualquer (Map, List, String, Double, Boolean ou null).
+     */
+    public static Object ler(String json) {
+        return new Parser(json).lerDocumento();
+    }
+
+    // ========== ESCRITA ==========
+
+    /**
+     * Escreve uma lista de receitas como array JSON (pelo {@link EscritorJson}).
+     * Se o usuário for informado, cada ingrediente indica se ele já possui.
+     */
+    public static void escreverReceitas(StringBuilder sb, List<Receita> receitas, Usuario usuario) {
+        new EscritorJson().receitas(receitas, usuario).escreverEm(sb);
+    }
+
+    public static void escreverReceita(StringBuilder sb, Receita receita, Usuario usuario) {
+        new EscritorJson().receita(receita, usuario).escreverEm(sb);
+    }
+
+    /**
+     * Versão resumida (sem ingredientes e passos) para saídas grandes, como o modo em lote.
+     */
+    public static void escreverReceitasResumidas(StringBuilder sb, List<Receita> receitas, Usuario usuario) {
+        new EscritorJson().receitasResumidas(receitas, usuario).escreverEm(sb);
+    }
+
+    /**
+     * Escreve uma string JSON com aspas (escapada pelo {@link EscritorJson}).
+     */
+    public static void escreverTexto(StringBuilder sb, String texto) {
+        new EscritorJson().texto(texto).escreverEm(sb);
+    }
+
+    // ========== PARSER ==========
+
+    /**
+     * Parser recursivo descendente para JSON.
+     * Limita o aninhamento para que entrada maliciosa (ex.: "[[[[...") dê
+     * IllegalArgumentException em vez de estourar a pilha.
+     */
+    private static final class Parser {
+        static final int PROFUNDIDADE_MAXIMA = 64;
+
+        private final String json;
+        private int pos;
+        private int profundidade;
+
+        Parser(String json) {
+            this.json = json;
+            this.pos = 0;
+        }
+
+        Object lerDocumento() {
+            Object valor = lerValor();
+            pularEspacos();
+            if (pos != json.length()) {
+                throw erro("conteúdo após o fim do documento");
+            }
+            return valor;
+        }
+
+        private Object lerValor() {
+            pularEspacos();
+            if (pos >= json.length()) {
+                throw erro("fim inesperado");
+            }
+
+            char c = json.charAt(pos);
+            switch (c) {
+                case '{': return lerObjeto();
+                case '[': return lerLista();
+                case '"': return lerTexto();
+                case 't': esperar("true"); return Boolean.TRUE;
+                case 'f': esperar("false"); return Boolean.FALSE;
+                case 'n': esperar("null"); return null;
+                default:  return lerNumero();
+            }
+        }
+
+        private Map<String, Object> lerObjeto() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            pos++; // {
+            entrar();
+            pularEspacos();
+            if (consumir('}')) {
+                profundidade--;
+                return mapa;
+            }
+            do {
+                pularEspacos();
+                if (pos >= json.length() || json.charAt(pos) != '"') {
+                    throw erro("esperado nome de campo");
+                }
+                String chave = lerTexto();
+                pularEspacos();
+                if (!consumir(':')) {
+                    throw erro("esperado ':'");
+                }
+                mapa.put(chave, lerValor());
+                pularEspacos();
+            } while (consumir(','));
+
+            if (!consumir('}')) {
+                throw erro("esperado '}'");
+            }
+            profundidade--;
+            return mapa;
+        }
+
+        private List<Object> lerLista() {
+            List<Object> lista = new ArrayList<>();
+            pos++; // [
+            entrar();
+            pularEspacos();
+            if (consumir(']')) {
+                profundidade--;
+                return lista;
+            }
+            do {
+                lista.add(lerValor());
+                pularEspacos();
+            } while (consumir(','));
+
+            if (!consumir(']')) {
+                throw erro("esperado ']'");
+            }
+            profundidade--;
+            return lista;
+        }
+
+        private void entrar() {
+            if (++profundidade > PROFUNDIDADE_MAXIMA) {
+                throw erro("aninhamento maior que " + PROFUNDIDADE_MAXIMA + " níveis");
+            }
+        }
+
+        private String lerTexto() {
+            pos++; // "
+            StringBuilder sb = new StringBuilder();
+            while (pos < json.length()) {
+                char c = json.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= json.length()) {
+                    break;
+                }
+                char esc = json.charAt(pos++);
+                switch (esc) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > json.length()) {
+                            throw erro("escape \\u incompleto");
+                        }
+                        sb.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(esc); // \" \\ \/
+                }
+            }
+            throw erro("string não terminada");
+        }
+
+        private Double lerNumero() {
+            int inicio = pos;
+            while (pos < json.length() && "+-0123456789.eE".indexOf(json.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (inicio == pos) {
+                throw erro("valor inesperado");
+            }
+            try {
+                return Double.valueOf(json.substring(inicio, pos));
+            } catch (NumberFormatException e) {
+                throw erro("número inválido");
+            }
+        }
+
+        private void esperar(String literal) {
+            if (!json.startsWith(literal, pos)) {
+                throw erro("esperado " + literal);
+            }
+            pos += literal.length();
+        }
+
+        private boolean consumir(char c) {
+            if (pos < json.length() && json.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void pularEspacos() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException erro(String mensagem) {
+            return new IllegalArgumentException("JSON inválido na posição " + pos + ": " + mensagem);
+        }
+    }
+}
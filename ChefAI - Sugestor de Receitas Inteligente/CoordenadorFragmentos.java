@@ -0,0 +1,79 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Consulta todos os fragmentos do catálogo em paralelo (scatter-gather).
+ *
+ * Cada fragmento devolve o seu top-K local e o coordenador junta tudo em um
+ * top-K global. A latência é a do fragmento mais lento, não a soma, então
+ * o catálogo cresce adicionando fragmentos. Um fragmento que falha ou
+ * estoura o tempo limite fica de fora do resultado (com aviso no log); a
+ * consulta atrasada é interrompida, o que fecha o socket em andamento
+ * (ver {@link TransporteSocket}) e devolve a thread ao pool.
+ */
+public class CoordenadorFragmentos implements TransporteFragmento {
+    private final List<TransporteFragmento> fragmentos;
+    private final int tempoLimiteMs;
+    private final ExecutorService executor;
+
+    public CoordenadorFragmentos(List<? extends TransporteFragmento> fragmentos, int tempoLimiteMs) {
+        this.fragmentos = new ArrayList<>(fragmentos);
+        this.tempoLimiteMs = tempoLimiteMs;
+        this.executor = Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "chefai-coordenador");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CoordenadorFragmentos(List<? extends TransporteFragmento> fragmentos) {
+        this(fragmentos, 2000);
+    }
+
+    @Override
+    public List<ReceitaPontuada> buscarMelhores(Usuario usuario, int k) {
+        List<Future<List<ReceitaPontuada>>> pendentes = new ArrayList<>(fragmentos.size());
+        for (TransporteFragmento fragmento : fragmentos) {
+            pendentes.add(executor.submit(() -> fragmento.buscarMelhores(usuario, k)));
+        }
+
+        List<ReceitaPontuada> todas = new ArrayList<>(k * fragmentos.size());
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tempoLimiteMs);
+        for (int i = 0; i < pendentes.size(); i++) {
+            try {
+                long restante = Math.max(0, limite - System.nanoTime());
+                todas.addAll(pendentes.get(i).get(restante, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                pendentes.get(i).cancel(true); // interrompe: fecha o socket da consulta
+                Log.aviso("⚠️  " + fragmentos.get(i).getDescricao() + " não respondeu em " + tempoLimiteMs + "ms");
+            } catch (ExecutionException e) {
+                Log.aviso("⚠️  " + fragmentos.get(i).getDescricao() + " falhou: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Future<List<ReceitaPontuada>> pendente : pendentes) {
+                    pendente.cancel(true);
+                }
+                break;
+            }
+        }
+
+        // Cada lista já vem ordenada e com no máximo k itens: ordenar k * fragmentos é barato
+        todas.sort(ReceitaPontuada.MELHOR_PRIMEIRO);
+        return todas.size() > k ? new ArrayList<>(todas.subList(0, k)) : todas;
+    }
+
+    @Override
+    public String getDescricao() {
+        return "coordenador de " + fragmentos.size() + " fragmentos";
+    }
+
+    public void parar() {
+        executor.shutdownNow();
+    }
+}
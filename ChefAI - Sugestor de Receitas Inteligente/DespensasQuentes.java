@@ -0,0 +1,468 @@
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Detecta as despensas mais consultadas e responde a elas com resultados
+ * pré-calculados.
+ *
+ * Cada consulta vira uma impressão digital, independente de qual objeto Usuario
+ * fez a consulta. O que entra nela depende de quem calcula (ver {@link Impressao}):
+ * ids da despensa e do "não gosta" para os sugestores locais, nomes e quantidades
+ * para a API, que recebe o texto. Em ambos entram as restrições. A frequência
+ * vai para um {@link SketchContagemMinima}; quem passa do limiar entra na lista
+ * de quentes (no máximo {@code chefai.quentes.capacidade}, sai a menos frequente).
+ * Para cada quente guardamos o resultado pronto e uma cópia do usuário, usada
+ * por uma thread em segundo plano para recalcular quando o catálogo muda
+ * (ou, com validade, quando o resultado fica velho, como nas respostas da API).
+ *
+ * A memória é fixa: o sketch não cresce com o número de despensas distintas
+ * e a lista de quentes tem capacidade limitada.
+ *
+ * O cálculo pode devolver null quando não tem um resultado que valha guardar
+ * (ex.: API fora do ar); nada é guardado e quem chamou decide o que fazer.
+ * Cálculos lentos (chamadas externas) devem receber um executor próprio para
+ * a atualização, para não atrasar as das outras instâncias.
+ */
+public class DespensasQuentes {
+    private static final int CAPACIDADE = Integer.getInteger("chefai.quentes.capacidade", 32);
+    private static final int LIMIAR = Integer.getInteger("chefai.quentes.limiar", 8);
+    private static final int LARGURA_SKETCH = 4096;
+    private static final int PROFUNDIDADE_SKETCH = 4;
+    private static final long CONSULTAS_POR_ENVELHECIMENTO = 100_000;
+    private static final long PERIODO_ATUALIZACAO_MS = Long.getLong("chefai.quentes.atualizacaoMs", 30_000L);
+
+    private static final CopyOnWriteArrayList<WeakReference<DespensasQuentes>> REGISTRADAS =
+        new CopyOnWriteArrayList<>();
+
+    private static ScheduledExecutorService atualizador; // criado com a primeira instância
+
+    /**
+     * O que identifica uma consulta.
+     */
+    public enum Impressao {
+        /**
+         * Ids da despensa e do "não gosta" no dicionário do catálogo e restrições.
+         * Para cálculos sobre o catálogo, que só enxergam os ids.
+         */
+        IDS,
+        /**
+         * Nomes normalizados e quantidades da despensa, como o usuário informou,
+         * e restrições. Para quem usa o texto (o prompt da API): nomes que o
+         * dicionário junta no mesmo id, ou quantidades diferentes, dão respostas diferentes.
+         */
+        NOMES
+    }
+
+    private final String nome;
+    private final Impressao impressao;
+    private final Function<Usuario, ArrayList<Receita>> calcular;
+    private final Supplier<CatalogoReceitas> catalogoAtual;
+    private final long validadeMs; // 0 = vale enquanto o catálogo for o mesmo
+    private final SketchContagemMinima sketch;
+    private final AtomicLong consultas;
+    private final ConcurrentHashMap<Long, Entrada> quentes;
+    private final LongAdder acertos;
+    private final Executor executorAtualizacao; // null = a thread compartilhada
+    private final AtomicBoolean atualizando;
+
+    /**
+     * @param nome Para logs (ex.: nome do sugestor)
+     * @param calcular Cálculo normal do resultado para um usuário
+     * @param catalogoAtual Catálogo que o cálculo usa
+     * @param validadeMs 0 para recalcular só quando o catálogo muda; senão, idade máxima do resultado
+     */
+    public DespensasQuentes(String nome, Function<Usuario, ArrayList<Receita>> calcular,
+                            Supplier<CatalogoReceitas> catalogoAtual, long validadeMs) {
+        this(nome, calcular, catalogoAtual, validadeMs, null, Impressao.IDS);
+    }
+
+    /**
+     * @param executorAtualizacao Onde rodar a atualização desta instância
+     *        (null = na thread compartilhada, só para cálculos rápidos)
+     * @param impressao O que identifica uma consulta para este cálculo
+     */
+    public DespensasQuentes(String nome, Function<Usuario, ArrayList<Receita>> calcular,
+                            Supplier<CatalogoReceitas> catalogoAtual, long validadeMs,
+                            Executor executorAtualizacao, Impressao impressao) {
+        this.nome = nome;
+        this.impressao = impressao;
+        this.calcular = calcular;
+        this.catalogoAtual = catalogoAtual;
+        this.validadeMs = validadeMs;
+        this.sketch = new SketchContagemMinima(LARGURA_SKETCH, PROFUNDIDADE_SKETCH);
+        this.consultas = new AtomicLong();
+        this.quentes = new ConcurrentHashMap<>();
+        this.acertos = new LongAdder();
+        this.executorAtualizacao = executorAtualizacao;
+        this.atualizando = new AtomicBoolean();
+
+        REGISTRADAS.add(new WeakReference<>(this)); // fraca: some junto com o dono
+        iniciarAtualizador();
+    }
+
+    // ========== CONSULTA ==========
+
+    /**
+     * Resultado para o usuário: pré-calculado se a despensa dele está entre as
+     * quentes, senão calculado agora (e guardado, se ela acabou de esquentar).
+     *
+     * @return Lista nova (pode ser alterada), ou null se o cálculo devolveu null
+     */
+    public ArrayList<Receita> sugerir(Usuario usuario) {
+        CatalogoReceitas catalogo = catalogoAtual.get();
+        Consulta consulta = Consulta.de(usuario, catalogo, impressao);
+        int frequencia = sketch.adicionar(consulta.chave);
+        if (consultas.incrementAndGet() % CONSULTAS_POR_ENVELHECIMENTO == 0) {
+            sketch.envelhecer();
+        }
+
+        Entrada entrada = quentes.get(consulta.chave);
+        if (entrada != null && !entrada.consulta.equals(consulta)) {
+            entrada = null; // colisão de impressão digital
+        }
+        if (entrada != null) {
+            Resultado pronto = entrada.resultado;
+            if (pronto.valido(catalogo, validadeMs, System.currentTimeMillis())) {
+                acertos.increment();
+                Metricas.contarCacheHit();
+                return new ArrayList<>(pronto.receitas);
+            }
+        }
+
+        ArrayList<Receita> receitas = calcular.apply(usuario);
+        if (receitas == null) {
+            return null; // nada que valha guardar; o resultado antigo (se houver) fica
+        }
+        Resultado novo = new Resultado(new ArrayList<>(receitas), catalogo, System.currentTimeMillis());
+        if (entrada != null) {
+            entrada.resultado = novo;
+        } else if (frequencia >= LIMIAR) {
+            promover(consulta, usuario, novo, frequencia);
+        }
+        return receitas;
+    }
+
+    /**
+     * Coloca a consulta entre as quentes, tirando a menos frequente se estiver cheio.
+     */
+    private synchronized void promover(Consulta consulta, Usuario usuario, Resultado resultado, int frequencia) {
+        if (quentes.containsKey(consulta.chave)) {
+            return;
+        }
+        if (quentes.size() >= CAPACIDADE) {
+            Long maisFria = null;
+            int menor = Integer.MAX_VALUE;
+            for (Long chave : quentes.keySet()) {
+                int estimativa = sketch.estimar(chave);
+                if (estimativa < menor) {
+                    menor = estimativa;
+                    maisFria = chave;
+                }
+            }
+            if (maisFria == null || menor >= frequencia) {
+                return;
+            }
+            quentes.remove(maisFria);
+        }
+        quentes.put(consulta.chave, new Entrada(consulta, copiar(usuario), resultado));
+        Log.debug(() -> "🔥 Despensa quente em " + nome + " (" + quentes.size() + "/" + CAPACIDADE + ")");
+    }
+
+    // ========== ATUALIZAÇÃO EM SEGUNDO PLANO ==========
+
+    /**
+     * Uma thread só para todas as instâncias.
+     */
+    private static synchronized void iniciarAtualizador() {
+        if (atualizador != null) {
+            return;
+        }
+        atualizador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "chefai-despensas-quentes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        atualizador.scheduleWithFixedDelay(DespensasQuentes::atualizarTodas,
+            PERIODO_ATUALIZACAO_MS, PERIODO_ATUALIZACAO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void atualizarTodas() {
+        REGISTRADAS.removeIf(referencia -> referencia.get() == null);
+        for (WeakReference<DespensasQuentes> referencia : REGISTRADAS) {
+            DespensasQuentes despensas = referencia.get();
+            if (despensas != null) {
+                despensas.agendarAtualizacao();
+            }
+        }
+    }
+
+    /**
+     * Roda a atualização aqui mesmo ou no executor próprio da instância
+     * (sem acumular: se a anterior ainda não terminou, pula esta rodada).
+     */
+    private void agendarAtualizacao() {
+        if (executorAtualizacao == null) {
+            atualizarComLog();
+            return;
+        }
+        if (!atualizando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executorAtualizacao.execute(() -> {
+                try {
+                    atualizarComLog();
+                } finally {
+                    atualizando.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            atualizando.set(false);
+        }
+    }
+
+    private void atualizarComLog() {
+        try {
+            atualizar();
+        } catch (RuntimeException e) {
+            Log.aviso("⚠️  Falha ao atualizar despensas quentes de " + nome + ": " + e);
+        }
+    }
+
+    /**
+     * Tira as que esfriaram e recalcula as que estão (ou vão ficar antes da
+     * próxima rodada) desatualizadas. Chamado pela thread de atualização.
+     */
+    void atualizar() {
+        CatalogoReceitas catalogo = catalogoAtual.get();
+        long agora = System.currentTimeMillis();
+        for (Map.Entry<Long, Entrada> item : quentes.entrySet()) {
+            Entrada entrada = item.getValue();
+            boolean outroDicionario = entrada.consulta.dicionario != null
+                && entrada.consulta.dicionario != catalogo.getDicionario();
+            if (outroDicionario || sketch.estimar(item.getKey()) < LIMIAR / 2) {
+                quentes.remove(item.getKey(), entrada); // os ids da despensa não valem mais, ou esfriou
+                continue;
+            }
+            if (!entrada.resultado.valido(catalogo, validadeMs, agora + PERIODO_ATUALIZACAO_MS)) {
+                ArrayList<Receita> receitas = calcular.apply(entrada.molde);
+                if (receitas != null) { // senão tenta de novo na próxima rodada
+                    entrada.resultado = new Resultado(new ArrayList<>(receitas), catalogo, agora);
+                }
+            }
+        }
+    }
+
+    // ========== CONSULTAS ==========
+
+    public int tamanho() {
+        return quentes.size();
+    }
+
+    /**
+     * Consultas respondidas com resultado pré-calculado.
+     */
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    /**
+     * Frequência estimada da despensa deste usuário.
+     */
+    public int estimarFrequencia(Usuario usuario) {
+        return sketch.estimar(Consulta.de(usuario, catalogoAtual.get(), impressao).chave);
+    }
+
+    /**
+     * Despensas quentes, da mais para a menos frequente (ex.: "[ovo, queijo] ~120").
+     */
+    public List<String> descreverQuentes() {
+        List<Map.Entry<Long, Entrada>> itens = new ArrayList<>(quentes.entrySet());
+        itens.sort((a, b) -> Integer.compare(sketch.estimar(b.getKey()), sketch.estimar(a.getKey())));
+        List<String> linhas = new ArrayList<>(itens.size());
+        for (Map.Entry<Long, Entrada> item : itens) {
+            Consulta consulta = item.getValue().consulta;
+            StringBuilder sb = new StringBuilder("[");
+            if (consulta.nomes != null) {
+                for (int i = 0; i < consulta.nomes.length; i++) {
+                    sb.append(i > 0 ? ", " : "").append(consulta.quantidades[i]).append(' ').append(consulta.nomes[i]);
+                }
+            } else {
+                for (int i = 0; i < consulta.despensa.length; i++) {
+                    sb.append(i > 0 ? ", " : "").append(consulta.dicionario.getNome(consulta.despensa[i]));
+                }
+            }
+            linhas.add(sb.append("] ~").append(sketch.estimar(item.getKey())).toString());
+        }
+        return linhas;
+    }
+
+    /**
+     * Cópia independente do que importa para o cálculo (despensa, "não gosta" e restrições).
+     */
+    private static Usuario copiar(Usuario usuario) {
+        Usuario molde = new Usuario(usuario.getNome());
+        for (Ingrediente ingrediente : usuario.getIngredientesDisponiveis()) {
+            molde.adicionarIngrediente(new Ingrediente(ingrediente.getNome(), ingrediente.getQuantidade()));
+        }
+        for (Ingrediente ingrediente : usuario.getIngredientesNaoGosta()) {
+            molde.adicionarIngredienteNaoGosta(new Ingrediente(ingrediente.getNome(), ingrediente.getQuantidade()));
+        }
+        molde.setVegetariano(usuario.isVegetariano());
+        molde.setSemLactose(usuario.isSemLactose());
+        molde.setSemGluten(usuario.isSemGluten());
+        return molde;
+    }
+
+    /**
+     * Impressão digital de uma consulta; equals compara os ids (ou nomes) de verdade.
+     * Em {@link Impressao#IDS} só os ids e o dicionário são preenchidos; em
+     * {@link Impressao#NOMES}, só os nomes e as quantidades.
+     */
+    private static final class Consulta {
+        final int[] despensa;
+        final int[] naoGosta;
+        final DicionarioIngredientes dicionario;
+        final String[] nomes;
+        final int[] quantidades;
+        final int restricoes;
+        final long chave;
+
+        private Consulta(int[] despensa, int[] naoGosta, DicionarioIngredientes dicionario,
+                         String[] nomes, int[] quantidades, int restricoes) {
+            this.despensa = despensa;
+            this.naoGosta = naoGosta;
+            this.dicionario = dicionario;
+            this.nomes = nomes;
+            this.quantidades = quantidades;
+            this.restricoes = restricoes;
+
+            long h = misturar(restricoes + 1);
+            if (nomes != null) {
+                for (int i = 0; i < nomes.length; i++) {
+                    h = misturar(h + nomes[i].hashCode());
+                    h = misturar(h + quantidades[i]);
+                }
+            } else {
+                for (int id : despensa) {
+                    h = misturar(h + id + 1);
+                }
+                h = misturar(h ^ 0x9E3779B97F4A7C15L); // separa a despensa do "não gosta"
+                for (int id : naoGosta) {
+                    h = misturar(h + id + 1);
+                }
+            }
+            this.chave = h;
+        }
+
+        static Consulta de(Usuario usuario, CatalogoReceitas catalogo, Impressao impressao) {
+            int restricoes = (usuario.isVegetariano() ? 1 : 0)
+                | (usuario.isSemLactose() ? 2 : 0)
+                | (usuario.isSemGluten() ? 4 : 0);
+            if (impressao == Impressao.NOMES) {
+                return porNomes(usuario.getIngredientesDisponiveis(), restricoes);
+            }
+            // Ids já resolvidos em cache no usuário (não normaliza nomes de novo)
+            DicionarioIngredientes dicionario = catalogo.getDicionario();
+            return new Consulta(catalogo.resolverDespensa(usuario), usuario.getIdsNaoGosta(dicionario),
+                dicionario, null, null, restricoes);
+        }
+
+        /**
+         * Nomes normalizados em ordem alfabética, cada um com a sua quantidade
+         * (a ordem em que o usuário listou não muda a resposta).
+         */
+        private static Consulta porNomes(List<Ingrediente> disponiveis, int restricoes) {
+            int n = disponiveis.size();
+            String[] normalizados = new String[n];
+            Integer[] ordem = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                normalizados[i] = DicionarioIngredientes.normalizar(disponiveis.get(i).getNome());
+                ordem[i] = i;
+            }
+            Arrays.sort(ordem, (a, b) -> {
+                int porNome = normalizados[a].compareTo(normalizados[b]);
+                return porNome != 0 ? porNome
+                    : Integer.compare(disponiveis.get(a).getQuantidade(), disponiveis.get(b).getQuantidade());
+            });
+            String[] nomes = new String[n];
+            int[] quantidades = new int[n];
+            for (int i = 0; i < n; i++) {
+                nomes[i] = normalizados[ordem[i]];
+                quantidades[i] = disponiveis.get(ordem[i]).getQuantidade();
+            }
+            return new Consulta(null, null, null, nomes, quantidades, restricoes);
+        }
+
+        /** Finalizador do MurmurHash3 (64 bits). */
+        private static long misturar(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            return h ^ (h >>> 33);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Consulta)) {
+                return false;
+            }
+            Consulta outra = (Consulta) obj;
+            return chave == outra.chave && restricoes == outra.restricoes && dicionario == outra.dicionario
+                && Arrays.equals(despensa, outra.despensa) && Arrays.equals(naoGosta, outra.naoGosta)
+                && Arrays.equals(nomes, outra.nomes) && Arrays.equals(quantidades, outra.quantidades);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(chave);
+        }
+    }
+
+    /**
+     * Resultado pronto e de quando/qual catálogo ele é (imutável).
+     */
+    private static final class Resultado {
+        final ArrayList<Receita> receitas;
+        final CatalogoReceitas catalogo;
+        final long calculadoEm;
+
+        Resultado(ArrayList<Receita> receitas, CatalogoReceitas catalogo, long calculadoEm) {
+            this.receitas = receitas;
+            this.catalogo = catalogo;
+            this.calculadoEm = calculadoEm;
+        }
+
+        boolean valido(CatalogoReceitas atual, long validadeMs, long agora) {
+            return validadeMs == 0 ? catalogo == atual : agora - calculadoEm < validadeMs;
+        }
+    }
+
+    private static final class Entrada {
+        final Consulta consulta;
+        final Usuario molde;
+        volatile Resultado resultado;
+
+        Entrada(Consulta consulta, Usuario molde, Resultado resultado) {
+            this.consulta = consulta;
+            this.molde = molde;
+            this.resultado = resultado;
+        }
+    }
+}
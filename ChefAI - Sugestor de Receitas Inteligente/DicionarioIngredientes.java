@@ -0,0 +1,155 @@
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Dicionário de ingredientes: associa cada nome (normalizado) a um id inteiro.
+ *
+ * Os ids são densos (0, 1, 2...) e nunca mudam, então podem ser usados
+ * como índice de arrays no catálogo. Só cresce: leituras não usam lock,
+ * escritas (novos nomes) são sincronizadas.
+ *
+ * A normalização tira acentos e plurais ("Açúcar" → "acucar", "ovos" → "ovo"),
+ * e {@link #resolver} ainda tolera erros de digitação por trigramas ("quejo" → "queijo").
+ * A busca aproximada é conservadora: nomes de tamanhos bem diferentes nunca
+ * casam ("salsa" não é "sal", "cebolinha" não é "cebola", "leite condensado"
+ * não é "leite"), e só vale para a despensa, nunca para nomes de receitas.
+ */
+public class DicionarioIngredientes {
+    private static final double SIMILARIDADE_MINIMA = 0.6;
+    private static final double PROPORCAO_MINIMA_COMPRIMENTO = 0.8; // menor / maior
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private final ConcurrentHashMap<String, Integer> ids;
+    private final IndiceTrigramas trigramas;
+    private volatile String[] nomes;
+    private volatile int tamanho;
+
+    public DicionarioIngredientes() {
+        this.ids = new ConcurrentHashMap<>();
+        this.trigramas = new IndiceTrigramas();
+        this.nomes = new String[64];
+        this.tamanho = 0;
+    }
+
+    // ========== NORMALIZAÇÃO ==========
+
+    /**
+     * Forma canônica de um nome de ingrediente: minúsculas, sem acentos,
+     * espaços simples e cada palavra no singular.
+     */
+    public static String normalizar(String nome) {
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(nome, Normalizer.Form.NFD)).replaceAll("");
+        String[] palavras = ESPACOS.split(semAcentos.trim().toLowerCase(Locale.ROOT));
+
+        StringBuilder sb = new StringBuilder(semAcentos.length());
+        for (String palavra : palavras) {
+            if (palavra.isEmpty()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(singular(palavra));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Regras simples de plural do português (já sem acentos).
+     */
+    private static String singular(String palavra) {
+        if (palavra.length() <= 3 || !palavra.endsWith("s") || palavra.endsWith("ss")) {
+            return palavra;
+        }
+        if (palavra.endsWith("oes") || palavra.endsWith("aes")) {
+            return palavra.substring(0, palavra.length() - 3) + "ao";   // limões, pães
+        }
+        if (palavra.endsWith("ais")) {
+            return palavra.substring(0, palavra.length() - 3) + "al";   // cereais
+        }
+        if (palavra.endsWith("eis")) {
+            return palavra.substring(0, palavra.length() - 3) + "el";   // pastéis
+        }
+        if (palavra.endsWith("ns")) {
+            return palavra.substring(0, palavra.length() - 2) + "m";    // atuns
+        }
+        if (palavra.endsWith("res") || palavra.endsWith("zes")) {
+            return palavra.substring(0, palavra.length() - 2);          // colheres, nozes
+        }
+        return palavra.substring(0, palavra.length() - 1);              // ovos, tomates
+    }
+
+    // ========== CONSULTA ==========
+
+    /**
+     * Id de um ingrediente ou -1 se não existir no dicionário.
+     */
+    public int idDe(String nome) {
+        Integer id = ids.get(normalizar(nome));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Resolve um nome digitado pelo usuário para um id, tolerando variações.
+     * Ordem: forma canônica exata, depois o termo mais parecido por trigramas
+     * entre os de comprimento parecido.
+     * Só para a despensa (uma vez por ingrediente ao montá-la); nomes de
+     * ingredientes de receitas usam {@link #idDe}.
+     *
+     * @return O id ou -1 se nada for parecido o suficiente
+     */
+    public int resolver(String nome) {
+        String canonico = normalizar(nome);
+        Integer id = ids.get(canonico);
+        if (id != null) {
+            return id;
+        }
+        return trigramas.maisParecido(canonico, SIMILARIDADE_MINIMA, PROPORCAO_MINIMA_COMPRIMENTO);
+    }
+
+    /**
+     * Nome canônico de um id.
+     */
+    public String getNome(int id) {
+        return nomes[id];
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    // ========== REGISTRO ==========
+
+    /**
+     * Retorna o id do ingrediente, criando um novo se ainda não existir.
+     */
+    public int registrar(String nome) {
+        String canonico = normalizar(nome);
+        Integer existente = ids.get(canonico);
+        if (existente != null) {
+            return existente;
+        }
+        return registrarCanonico(canonico);
+    }
+
+    private synchronized int registrarCanonico(String canonico) {
+        Integer existente = ids.get(canonico);
+        if (existente != null) {
+            return existente;
+        }
+
+        int id = tamanho;
+        if (id == nomes.length) {
+            nomes = Arrays.copyOf(nomes, id * 2);
+        }
+        nomes[id] = canonico;
+        trigramas.adicionar(id, canonico);
+        tamanho = id + 1;      // publica o nome antes do mapa
+        ids.put(canonico, id);
+        return id;
+    }
+}
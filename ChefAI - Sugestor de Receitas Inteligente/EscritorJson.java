@@ -0,0 +1,375 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Escritor JSON em streaming que grava UTF-8 direto em um array de bytes
+ * reutilizável, sem reflexão, sem String intermediária e sem CharsetEncoder.
+ *
+ * Os nomes de campo (já com aspas e ':') são convertidos para bytes uma vez,
+ * na carga da classe; textos são escapados e codificados em uma única passada;
+ * números são escritos dígito a dígito. O formato de receita e usuário é o
+ * mesmo de {@link ConversorJson} e é lido de volta por {@link LeitorJson}.
+ *
+ * Não é thread-safe: use {@link #local()} (um por thread, buffer reaproveitado).
+ */
+public final class EscritorJson {
+    private static final int CAPACIDADE_INICIAL = 8192;
+    private static final int CAPACIDADE_MAXIMA_RETIDA = 1 << 20; // acima disso, devolve a memória
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MENOR_LONG = "9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+
+    // Nomes de campo pré-codificados: "nome":
+    static final byte[] NOME = campo("nome");
+    static final byte[] TEMPO_PREPARO = campo("tempoPreparo");
+    static final byte[] VEGETARIANA = campo("vegetariana");
+    static final byte[] INGREDIENTES = campo("ingredientes");
+    static final byte[] QUANTIDADE = campo("quantidade");
+    static final byte[] POSSUI = campo("possui");
+    static final byte[] COMPATIBILIDADE = campo("compatibilidade");
+    static final byte[] PASSOS = campo("passos");
+    static final byte[] NAO_GOSTA = campo("naoGosta");
+    static final byte[] VEGETARIANO = campo("vegetariano");
+    static final byte[] SEM_LACTOSE = campo("semLactose");
+    static final byte[] SEM_GLUTEN = campo("semGluten");
+
+    private static final ThreadLocal<EscritorJson> LOCAL = ThreadLocal.withInitial(EscritorJson::new);
+
+    private byte[] bytes;
+    private int tamanho;
+    private boolean[] possui = new boolean[32];
+
+    public EscritorJson() {
+        this.bytes = new byte[CAPACIDADE_INICIAL];
+    }
+
+    /**
+     * O escritor desta thread, já vazio.
+     * Não guarde a referência entre requisições nem a passe a outras threads.
+     */
+    public static EscritorJson local() {
+        return LOCAL.get().limpar();
+    }
+
+    /**
+     * Esvazia o buffer (mantendo a capacidade, salvo se cresceu demais).
+     */
+    public EscritorJson limpar() {
+        if (bytes.length > CAPACIDADE_MAXIMA_RETIDA) {
+            bytes = new byte[CAPACIDADE_INICIAL];
+        }
+        tamanho = 0;
+        return this;
+    }
+
+    /**
+     * Bytes de {@code "nome":} para usar com {@link #campo(byte[])}.
+     */
+    public static byte[] campo(String nome) {
+        byte[] texto = nome.getBytes(StandardCharsets.UTF_8);
+        byte[] campo = new byte[texto.length + 3];
+        campo[0] = '"';
+        System.arraycopy(texto, 0, campo, 1, texto.length);
+        campo[texto.length + 1] = '"';
+        campo[texto.length + 2] = ':';
+        return campo;
+    }
+
+    // ========== RECEITAS E USUÁRIOS ==========
+
+    /**
+     * Array de receitas. Se o usuário for informado, cada ingrediente indica se
+     * ele já possui (pela despensa resolvida na pontuação) e sai a compatibilidade.
+     */
+    public EscritorJson receitas(List<Receita> receitas, Usuario usuario) {
+        CatalogoReceitas catalogo = CatalogoReceitas.atual();
+        simbolo('[');
+        for (int i = 0; i < receitas.size(); i++) {
+            if (i > 0) {
+                simbolo(',');
+            }
+            receita(receitas.get(i), usuario, catalogo);
+        }
+        return simbolo(']');
+    }
+
+    public EscritorJson receita(Receita receita, Usuario usuario) {
+        return receita(receita, usuario, CatalogoReceitas.atual());
+    }
+
+    private EscritorJson receita(Receita receita, Usuario usuario, CatalogoReceitas catalogo) {
+        ArrayList<Ingrediente> ingredientes = receita.getIngredientes();
+        int possuidos = marcar(receita, ingredientes, usuario, catalogo);
+
+        simbolo('{');
+        campo(NOME).texto(receita.getNome());
+        simbolo(',').campo(TEMPO_PREPARO).numero(receita.getTempoPreparo());
+        simbolo(',').campo(VEGETARIANA).booleano(receita.isVegetariana());
+
+        simbolo(',').campo(INGREDIENTES).simbolo('[');
+        for (int i = 0; i < ingredientes.size(); i++) {
+            Ingrediente ing = ingredientes.get(i);
+            if (i > 0) {
+                simbolo(',');
+            }
+            simbolo('{').campo(NOME).texto(ing.getNome());
+            simbolo(',').campo(QUANTIDADE).numero(ing.getQuantidade());
+            if (possuidos >= 0) {
+                simbolo(',').campo(POSSUI).booleano(possui[i]);
+            }
+            simbolo('}');
+        }
+        simbolo(']');
+
+        if (possuidos >= 0) {
+            simbolo(',').campo(COMPATIBILIDADE).numero(compatibilidade(possuidos, ingredientes.size()));
+        }
+
+        simbolo(',').campo(PASSOS).simbolo('[');
+        ArrayList<String> passos = receita.getPassos();
+        for (int i = 0; i < passos.size(); i++) {
+            if (i > 0) {
+                simbolo(',');
+            }
+            texto(passos.get(i));
+        }
+        return simbolo(']').simbolo('}');
+    }
+
+    /**
+     * Versão resumida (sem ingredientes e passos), como em
+     * {@link ConversorJson#escreverReceitasResumidas}.
+     */
+    public EscritorJson receitasResumidas(List<Receita> receitas, Usuario usuario) {
+        CatalogoReceitas catalogo = CatalogoReceitas.atual();
+        simbolo('[');
+        for (int i = 0; i < receitas.size(); i++) {
+            Receita receita = receitas.get(i);
+            ArrayList<Ingrediente> ingredientes = receita.getIngredientes();
+            int possuidos = marcar(receita, ingredientes, usuario, catalogo);
+            if (i > 0) {
+                simbolo(',');
+            }
+            simbolo('{').campo(NOME).texto(receita.getNome());
+            simbolo(',').campo(TEMPO_PREPARO).numero(receita.getTempoPreparo());
+            simbolo(',').campo(VEGETARIANA).booleano(receita.isVegetariana());
+            simbolo(',').campo(COMPATIBILIDADE).numero(compatibilidade(Math.max(possuidos, 0), ingredientes.size()));
+            simbolo('}');
+        }
+        return simbolo(']');
+    }
+
+    /**
+     * Usuário no formato de {@link ConversorJson#lerUsuario}, mais "naoGosta".
+     */
+    public EscritorJson usuario(Usuario usuario) {
+        simbolo('{').campo(NOME).texto(usuario.getNome());
+        simbolo(',').campo(INGREDIENTES);
+        ingredientes(usuario.getIngredientesDisponiveis());
+        simbolo(',').campo(NAO_GOSTA);
+        ingredientes(usuario.getIngredientesNaoGosta());
+        simbolo(',').campo(VEGETARIANO).booleano(usuario.isVegetariano());
+        simbolo(',').campo(SEM_LACTOSE).booleano(usuario.isSemLactose());
+        simbolo(',').campo(SEM_GLUTEN).booleano(usuario.isSemGluten());
+        return simbolo('}');
+    }
+
+    private void ingredientes(List<Ingrediente> lista) {
+        simbolo('[');
+        for (int i = 0; i < lista.size(); i++) {
+            Ingrediente ing = lista.get(i);
+            if (i > 0) {
+                simbolo(',');
+            }
+            simbolo('{').campo(NOME).texto(ing.getNome());
+            simbolo(',').campo(QUANTIDADE).numero(ing.getQuantidade()).simbolo('}');
+        }
+        simbolo(']');
+    }
+
+    /**
+     * Marca em {@link #possui} o que o usuário tem; devolve quantos, ou -1 sem usuário.
+     */
+    private int marcar(Receita receita, ArrayList<Ingrediente> ingredientes, Usuario usuario,
+                       CatalogoReceitas catalogo) {
+        if (usuario == null) {
+            return -1;
+        }
+        if (possui.length < ingredientes.size()) {
+            possui = new boolean[Math.max(ingredientes.size(), possui.length * 2)];
+        }
+        return catalogo.marcarPossuidos(receita, ingredientes, usuario, possui);
+    }
+
+    static int compatibilidade(int possuidos, int total) {
+        return total == 0 ? 0 : (possuidos * 100) / total;
+    }
+
+    // ========== PRIMITIVAS ==========
+
+    /**
+     * Um byte ASCII literal ('{', ',', ':' ...).
+     */
+    public EscritorJson simbolo(char c) {
+        garantir(1);
+        bytes[tamanho++] = (byte) c;
+        return this;
+    }
+
+    /**
+     * Bytes já prontos, como os nomes de {@link #campo(String)}.
+     */
+    public EscritorJson campo(byte[] nomePreCodificado) {
+        garantir(nomePreCodificado.length);
+        System.arraycopy(nomePreCodificado, 0, bytes, tamanho, nomePreCodificado.length);
+        tamanho += nomePreCodificado.length;
+        return this;
+    }
+
+    public EscritorJson booleano(boolean valor) {
+        return campo(valor ? TRUE : FALSE);
+    }
+
+    public EscritorJson numero(long valor) {
+        garantir(20);
+        if (valor < 0) {
+            bytes[tamanho++] = '-';
+            if (valor == Long.MIN_VALUE) { // não tem positivo correspondente
+                return campo(MENOR_LONG);
+            }
+            valor = -valor;
+        }
+        int digitos = 1;
+        for (long v = valor; v >= 10; v /= 10) {
+            digitos++;
+        }
+        int fim = tamanho + digitos;
+        for (int i = fim - 1; i >= tamanho; i--) {
+            bytes[i] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        }
+        tamanho = fim;
+        return this;
+    }
+
+    /**
+     * String JSON entre aspas: escapa e codifica em UTF-8 na mesma passada.
+     * Surrogates sem par viram '?', como no String.getBytes.
+     */
+    public EscritorJson texto(String texto) {
+        if (texto == null) {
+            return campo(NULL);
+        }
+        int n = texto.length();
+        garantir(n * 6 + 2); // pior caso: 6 bytes por char (escape \\u00XX)
+        byte[] b = bytes;
+        int p = tamanho;
+        b[p++] = '"';
+        for (int i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x20 && c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    b[p++] = '\\';
+                }
+                b[p++] = (byte) c;
+            } else if (c < 0x20) {
+                b[p++] = '\\';
+                switch (c) {
+                    case '\n': b[p++] = 'n'; break;
+                    case '\r': b[p++] = 'r'; break;
+                    case '\t': b[p++] = 't'; break;
+                    default:
+                        b[p++] = 'u';
+                        b[p++] = '0';
+                        b[p++] = '0';
+                        b[p++] = HEX[c >> 4];
+                        b[p++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                b[p++] = (byte) (0xC0 | (c >> 6));
+                b[p++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, texto.charAt(++i));
+                    b[p++] = (byte) (0xF0 | (cp >> 18));
+                    b[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    b[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    b[p++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    b[p++] = '?';
+                }
+            } else {
+                b[p++] = (byte) (0xE0 | (c >> 12));
+                b[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[p++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        b[p++] = '"';
+        tamanho = p;
+        return this;
+    }
+
+    private void garantir(int mais) {
+        if (tamanho + mais > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, tamanho + mais));
+        }
+    }
+
+    // ========== SAÍDA ==========
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Cópia dos bytes escritos (para guardar depois que o escritor for reutilizado).
+     */
+    public byte[] paraBytes() {
+        return Arrays.copyOf(bytes, tamanho);
+    }
+
+    /**
+     * Os bytes escritos, sem cópia; só vale até a próxima escrita neste escritor.
+     */
+    public ByteBuffer comoByteBuffer() {
+        return ByteBuffer.wrap(bytes, 0, tamanho);
+    }
+
+    public void escreverEm(OutputStream saida) throws IOException {
+        saida.write(bytes, 0, tamanho);
+    }
+
+    /**
+     * @throws BufferOverflowException se não couber no destino
+     */
+    public void escreverEm(ByteBuffer destino) {
+        destino.put(bytes, 0, tamanho);
+    }
+
+    /**
+     * Acrescenta o JSON escrito a um StringBuilder (para a saída em texto do
+     * {@link RenderizadorResultados} e do {@link ConversorJson}).
+     */
+    public void escreverEm(StringBuilder destino) {
+        int ascii = 0;
+        while (ascii < tamanho && bytes[ascii] >= 0) {
+            destino.append((char) bytes[ascii++]);
+        }
+        if (ascii < tamanho) {
+            destino.append(new String(bytes, ascii, tamanho - ascii, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, tamanho, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Uma partição do catálogo com índice e pontuação próprios.
+ *
+ * Cada fragmento tem o seu {@link CatalogoReceitas} (posting lists só das suas
+ * receitas, dicionário compartilhado) e devolve apenas o seu top-K local. Usado direto no
+ * mesmo processo ou publicado por um {@link ServidorFragmento}.
+ */
+public class FragmentoCatalogo implements TransporteFragmento {
+    private final String nome;
+    private final CatalogoReceitas catalogo;
+
+    public FragmentoCatalogo(String nome, CatalogoReceitas catalogo) {
+        this.nome = nome;
+        this.catalogo = catalogo;
+    }
+
+    /**
+     * Divide as receitas do catálogo em n fragmentos pelo hash do nome (a mesma
+     * receita cai sempre no mesmo fragmento). Os fragmentos usam o dicionário
+     * do catálogo: os ids de ingredientes são os mesmos em todos, e o usuário
+     * resolve a despensa uma vez só em vez de uma vez por fragmento.
+     */
+    public static List<FragmentoCatalogo> particionar(CatalogoReceitas catalogo, int n) {
+        return particionar(catalogo.getReceitas(), n, catalogo.getDicionario());
+    }
+
+    /**
+     * Só o fragmento {@code indice} de {@code total}: filtra as receitas pela
+     * mesma regra de {@link #particionar} e monta um catálogo apenas com elas
+     * (um processo de fragmento não precisa dos outros).
+     */
+    public static FragmentoCatalogo fragmento(CatalogoReceitas catalogo, int indice, int total) {
+        if (indice < 0 || indice >= total) {
+            throw new IllegalArgumentException("fragmento " + indice + " fora de 0.." + (total - 1));
+        }
+        List<Receita> minhas = new ArrayList<>();
+        for (Receita receita : catalogo.getReceitas()) {
+            if (indiceFragmento(receita, total) == indice) {
+                minhas.add(receita);
+            }
+        }
+        return new FragmentoCatalogo("fragmento-" + indice,
+            CatalogoReceitas.construir(minhas, catalogo.getDicionario()));
+    }
+
+    /**
+     * Como {@link #particionar(CatalogoReceitas, int)}, com um dicionário novo
+     * compartilhado pelos fragmentos.
+     */
+    public static List<FragmentoCatalogo> particionar(List<Receita> receitas, int n) {
+        return particionar(receitas, n, new DicionarioIngredientes());
+    }
+
+    private static List<FragmentoCatalogo> particionar(List<Receita> receitas, int n,
+                                                       DicionarioIngredientes dicionario) {
+        List<List<Receita>> partes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            partes.add(new ArrayList<>());
+        }
+        for (Receita receita : receitas) {
+            partes.get(indiceFragmento(receita, n)).add(receita);
+        }
+
+        List<FragmentoCatalogo> fragmentos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            fragmentos.add(new FragmentoCatalogo("fragmento-" + i,
+                CatalogoReceitas.construir(partes.get(i), dicionario)));
+        }
+        return fragmentos;
+    }
+
+    /**
+     * Fragmento responsável por uma receita (mesma regra de {@link Receita#hashCode}).
+     */
+    public static int indiceFragmento(Receita receita, int totalFragmentos) {
+        return Math.floorMod(receita.hashCode(), totalFragmentos);
+    }
+
+    // ========== CONSULTA ==========
+
+    @Override
+    public List<ReceitaPontuada> buscarMelhores(Usuario usuario, int k) {
+        ContagemAcertos acertos = catalogo.contarAcertos(catalogo.resolverDespensa(usuario));
+        long[] permitidas = catalogo.permitidasPara(usuario);
+
+        // Heap de tamanho k com a pior receita no topo
+        PriorityQueue<ReceitaPontuada> melhores = new PriorityQueue<>(k + 1, ReceitaPontuada.MELHOR_PRIMEIRO.reversed());
+        for (int i = 0; i < acertos.tamanho(); i++) {
+            int id = acertos.getReceita(i);
+            Receita receita = catalogo.getReceita(id);
+            if (!ColunasCatalogo.contem(permitidas, id)) {
+                continue;
+            }
+            melhores.add(new ReceitaPontuada(receita, catalogo.calcularCompatibilidade(id, acertos.getAcertos(i))));
+            if (melhores.size() > k) {
+                melhores.poll();
+            }
+        }
+
+        List<ReceitaPontuada> resultado = new ArrayList<>(melhores);
+        resultado.sort(ReceitaPontuada.MELHOR_PRIMEIRO);
+        return resultado;
+    }
+
+    @Override
+    public String getDescricao() {
+        return nome + " (" + catalogo.tamanho() + " receitas)";
+    }
+
+    public CatalogoReceitas getCatalogo() {
+        return catalogo;
+    }
+}
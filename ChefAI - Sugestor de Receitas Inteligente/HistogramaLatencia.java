@@ -0,0 +1,127 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências sem locks (log-linear).
+ *
+ * Cada potência de 2 é dividida em 16 faixas (erro máximo ~6%).
+ * Registrar um valor é só um incremento atômico em um array,
+ * então várias threads podem gravar ao mesmo tempo sem disputa de lock.
+ */
+public class HistogramaLatencia {
+    private static final int BITS_SUB_FAIXA = 4;
+    private static final int SUB_FAIXAS = 1 << BITS_SUB_FAIXA;   // 16
+    private static final int MAIOR_EXPOENTE = 42;                // ~73 minutos em ns
+    private static final int TOTAL_FAIXAS = (MAIOR_EXPOENTE - BITS_SUB_FAIXA + 2) * SUB_FAIXAS;
+
+    private final AtomicLongArray faixas;
+    private final LongAdder contagem;
+    private final LongAdder soma;
+    private final AtomicLong maximo;
+
+    public HistogramaLatencia() {
+        this.faixas = new AtomicLongArray(TOTAL_FAIXAS);
+        this.contagem = new LongAdder();
+        this.soma = new LongAdder();
+        this.maximo = new AtomicLong();
+    }
+
+    // ========== REGISTRO ==========
+
+    /**
+     * Registra uma duração em nanossegundos.
+     */
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        faixas.incrementAndGet(indiceFaixa(nanos));
+        contagem.increment();
+        soma.add(nanos);
+
+        long atual = maximo.get();
+        while (nanos > atual && !maximo.compareAndSet(atual, nanos)) {
+            atual = maximo.get();
+        }
+    }
+
+    private static int indiceFaixa(long valor) {
+        if (valor < SUB_FAIXAS) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        if (expoente > MAIOR_EXPOENTE) {
+            return TOTAL_FAIXAS - 1;
+        }
+        int mantissa = (int) (valor >>> (expoente - BITS_SUB_FAIXA)) & (SUB_FAIXAS - 1);
+        return (expoente - BITS_SUB_FAIXA + 1) * SUB_FAIXAS + mantissa;
+    }
+
+    /**
+     * Maior valor representado por uma faixa (usado para reportar percentis).
+     */
+    private static long limiteSuperior(int indice) {
+        if (indice < SUB_FAIXAS) {
+            return indice;
+        }
+        int expoente = indice / SUB_FAIXAS + BITS_SUB_FAIXA - 1;
+        int mantissa = indice % SUB_FAIXAS;
+        long base = (long) (SUB_FAIXAS + mantissa) << (expoente - BITS_SUB_FAIXA);
+        long largura = 1L << (expoente - BITS_SUB_FAIXA);
+        return base + largura - 1;
+    }
+
+    // ========== CONSULTA ==========
+
+    /**
+     * Retorna o percentil pedido em nanossegundos.
+     *
+     * @param percentil Valor entre 0 e 100 (ex.: 99.9)
+     */
+    public long percentil(double percentil) {
+        long total = contagem.sum();
+        if (total == 0) {
+            return 0;
+        }
+
+        long alvo = (long) Math.ceil(total * (percentil / 100.0));
+        if (alvo < 1) {
+            alvo = 1;
+        }
+
+        long acumulado = 0;
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            acumulado += faixas.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    public long getContagem() {
+        return contagem.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long total = contagem.sum();
+        return total == 0 ? 0 : (double) soma.sum() / total;
+    }
+
+    /**
+     * Zera o histograma (não é atômico em relação a gravações concorrentes).
+     */
+    public void zerar() {
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            faixas.set(i, 0);
+        }
+        contagem.reset();
+        soma.reset();
+        maximo.set(0);
+    }
+}
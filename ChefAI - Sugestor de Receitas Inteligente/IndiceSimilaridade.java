@@ -0,0 +1,252 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice MinHash/LSH para achar receitas com ingredientes parecidos.
+ *
+ * Cada receita ganha uma assinatura de {@value #TOTAL_HASHES} MinHashes do seu
+ * conjunto de ingredientes. A assinatura é cortada em {@value #BANDAS} bandas;
+ * receitas com alguma banda idêntica viram candidatas, e só elas são
+ * comparadas pela similaridade de Jaccard exata. Com 32 bandas de 3 linhas,
+ * pares com Jaccard 0,4 viram candidatos ~88% das vezes e pares com 0,1 só ~3%.
+ * Catálogos pequenos dispensam o LSH e comparam com todas as receitas.
+ *
+ * Cada banda guarda (hash da banda, receita) ordenados por hash: a busca
+ * é uma busca binária por banda, sem mapas de objetos.
+ *
+ * O índice é montado junto com o catálogo. Quando o catálogo ganha receitas
+ * no fim ({@link CatalogoReceitas#comReceitas}), só as novas são assinadas e
+ * viram um segmento a mais; segmentos vizinhos de tamanho parecido são
+ * intercalados, então há O(log n) segmentos e cada receita é copiada
+ * O(log n) vezes no total. Baldes muito populares são cortados em
+ * {@value #LIMITE_POR_BALDE} candidatos antes do Jaccard exato.
+ */
+public class IndiceSimilaridade {
+    private static final int BANDAS = 32;
+    private static final int LINHAS = 3;
+    private static final int LIMITE_BUSCA_EXATA = 1024; // catálogos pequenos: compara com todas
+    private static final int TOTAL_HASHES = BANDAS * LINHAS;
+    private static final int LIMITE_POR_BALDE = 64; // candidatos por banda, somando os segmentos
+
+    private static final int[] MULTIPLICADORES = new int[TOTAL_HASHES];
+    private static final int[] DESLOCAMENTOS = new int[TOTAL_HASHES];
+
+    static {
+        long semente = 0x5DEECE66DL; // fixo: assinaturas iguais entre execuções
+        for (int i = 0; i < TOTAL_HASHES; i++) {
+            semente = semente * 6364136223846793005L + 1442695040888963407L;
+            MULTIPLICADORES[i] = (int) (semente >>> 32) | 1;
+            semente = semente * 6364136223846793005L + 1442695040888963407L;
+            DESLOCAMENTOS[i] = (int) (semente >>> 32);
+        }
+    }
+
+    private final CatalogoReceitas catalogo;
+    private final long[][][] segmentos; // por segmento, por banda: (hash << 32 | id da receita), ordenado
+
+    /**
+     * Calcula as assinaturas de todas as receitas do catálogo.
+     */
+    public IndiceSimilaridade(CatalogoReceitas catalogo) {
+        this(catalogo, new long[][][] {assinarIntervalo(catalogo, 0)});
+    }
+
+    private IndiceSimilaridade(CatalogoReceitas catalogo, long[][][] segmentos) {
+        this.catalogo = catalogo;
+        this.segmentos = segmentos;
+    }
+
+    /**
+     * Índice do catálogo {@code novo}, que tem as mesmas receitas (e ids) do
+     * catálogo deste índice mais as receitas a partir de {@code primeiraNova}.
+     * Só as novas são assinadas.
+     */
+    IndiceSimilaridade comReceitas(CatalogoReceitas novo, int primeiraNova) {
+        long[][][] todos = Arrays.copyOf(segmentos, segmentos.length + 1);
+        todos[segmentos.length] = assinarIntervalo(novo, primeiraNova);
+
+        // Intercala enquanto o penúltimo não for bem maior que o último
+        int n = todos.length;
+        while (n >= 2 && todos[n - 2][0].length <= 2 * todos[n - 1][0].length) {
+            long[][] juntos = new long[BANDAS][];
+            for (int b = 0; b < BANDAS; b++) {
+                juntos[b] = intercalar(todos[n - 2][b], todos[n - 1][b]);
+            }
+            todos[n - 2] = juntos;
+            n--;
+        }
+        return new IndiceSimilaridade(novo, Arrays.copyOf(todos, n));
+    }
+
+    /**
+     * Um segmento com as receitas de {@code primeira} até o fim do catálogo.
+     */
+    private static long[][] assinarIntervalo(CatalogoReceitas catalogo, int primeira) {
+        int total = 0;
+        for (int r = primeira; r < catalogo.tamanho(); r++) {
+            if (catalogo.getTotalIngredientes(r) > 0) {
+                total++;
+            }
+        }
+
+        long[][] bandas = new long[BANDAS][total];
+        int[] assinatura = new int[TOTAL_HASHES];
+        int n = 0;
+        for (int r = primeira; r < catalogo.tamanho(); r++) {
+            int[] ingredientes = catalogo.getIngredientes(r);
+            if (ingredientes.length == 0) {
+                continue; // sem ingredientes todas colidiriam entre si
+            }
+            assinar(ingredientes, assinatura);
+            for (int b = 0; b < BANDAS; b++) {
+                bandas[b][n] = ((long) hashBanda(assinatura, b) << 32) | r;
+            }
+            n++;
+        }
+        for (long[] banda : bandas) {
+            Arrays.sort(banda);
+        }
+        return bandas;
+    }
+
+    private static long[] intercalar(long[] a, long[] b) {
+        long[] resultado = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            resultado[n++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        System.arraycopy(a, i, resultado, n, a.length - i);
+        System.arraycopy(b, j, resultado, n + a.length - i, b.length - j);
+        return resultado;
+    }
+
+    // ========== ASSINATURA ==========
+
+    private static void assinar(int[] ingredientes, int[] assinatura) {
+        Arrays.fill(assinatura, Integer.MAX_VALUE);
+        for (int ingrediente : ingredientes) {
+            for (int h = 0; h < TOTAL_HASHES; h++) {
+                int valor = misturar(ingrediente * MULTIPLICADORES[h] + DESLOCAMENTOS[h]);
+                if (valor < assinatura[h]) {
+                    assinatura[h] = valor;
+                }
+            }
+        }
+    }
+
+    private static int misturar(int x) {
+        x ^= x >>> 16;
+        x *= 0x7feb352d;
+        x ^= x >>> 15;
+        x *= 0x846ca68b;
+        return x ^ (x >>> 16);
+    }
+
+    private static int hashBanda(int[] assinatura, int banda) {
+        int h = banda;
+        for (int i = banda * LINHAS; i < (banda + 1) * LINHAS; i++) {
+            h = 31 * h + assinatura[i];
+        }
+        return misturar(h);
+    }
+
+    // ========== CONSULTA ==========
+
+    /**
+     * As k receitas mais parecidas (Jaccard dos ingredientes), sem incluir a própria.
+     * Como o LSH é aproximado, receitas pouco parecidas podem não aparecer; cada
+     * banda contribui com no máximo {@value #LIMITE_POR_BALDE} candidatos.
+     *
+     * @param ingredientes Ids ordenados dos ingredientes da receita de referência
+     * @param excluir Id da receita de referência no catálogo (ou -1)
+     */
+    public List<Receita> similares(int[] ingredientes, int excluir, int k) {
+        if (ingredientes.length == 0 || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        if (catalogo.tamanho() <= LIMITE_BUSCA_EXATA) {
+            int[] todas = new int[catalogo.tamanho()];
+            for (int r = 0; r < todas.length; r++) {
+                todas[r] = r;
+            }
+            return ranquear(ingredientes, todas, todas.length, excluir, k);
+        }
+
+        int[] assinatura = new int[TOTAL_HASHES];
+        assinar(ingredientes, assinatura);
+
+        int[] candidatos = new int[16];
+        int n = 0;
+        for (int b = 0; b < BANDAS; b++) {
+            long chave = (long) hashBanda(assinatura, b) << 32;
+            int doBalde = 0;
+            for (long[][] segmento : segmentos) {
+                long[] banda = segmento[b];
+                int i = Arrays.binarySearch(banda, chave);
+                for (i = i < 0 ? -i - 1 : i; i < banda.length && doBalde < LIMITE_POR_BALDE
+                        && (banda[i] & 0xFFFFFFFF00000000L) == chave; i++, doBalde++) {
+                    if (n == candidatos.length) {
+                        candidatos = Arrays.copyOf(candidatos, n * 2);
+                    }
+                    candidatos[n++] = (int) banda[i];
+                }
+            }
+        }
+
+        return ranquear(ingredientes, candidatos, n, excluir, k);
+    }
+
+    /**
+     * Ordena os candidatos (sem repetição) pela similaridade exata e fica com k.
+     */
+    private List<Receita> ranquear(int[] ingredientes, int[] candidatos, int n, int excluir, int k) {
+        Arrays.sort(candidatos, 0, n);
+        long[] pontuados = new long[n];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            int receita = candidatos[i];
+            if (receita == excluir || (i > 0 && candidatos[i - 1] == receita)) {
+                continue;
+            }
+            double jaccard = jaccard(ingredientes, catalogo.getIngredientes(receita));
+            if (jaccard == 0) {
+                continue;
+            }
+            // maior Jaccard primeiro; empate pelo menor id
+            pontuados[m++] = ((long) (Integer.MAX_VALUE - (int) (jaccard * 1_000_000)) << 32) | receita;
+        }
+        Arrays.sort(pontuados, 0, m);
+
+        List<Receita> resultado = new ArrayList<>(Math.min(k, m));
+        for (int i = 0; i < m && i < k; i++) {
+            resultado.add(catalogo.getReceita((int) pontuados[i]));
+        }
+        return resultado;
+    }
+
+    /**
+     * |A ∩ B| / |A ∪ B| para arrays ordenados sem repetição.
+     */
+    static double jaccard(int[] a, int[] b) {
+        int comuns = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                comuns++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int uniao = a.length + b.length - comuns;
+        return uniao == 0 ? 0.0 : (double) comuns / uniao;
+    }
+}
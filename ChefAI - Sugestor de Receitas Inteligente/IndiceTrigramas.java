@@ -0,0 +1,129 @@
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de trigramas sobre o vocabulário de ingredientes.
+ *
+ * Cada termo é quebrado em trigramas ("queijo" → "  q", " qu", "que", "uei", ...).
+ * Para achar o termo mais parecido com um nome digitado só olhamos os termos
+ * que compartilham algum trigrama com ele, em vez de comparar com o vocabulário inteiro.
+ * A similaridade é o coeficiente de Dice: 2 * comuns / (trigramas A + trigramas B).
+ * Termos de comprimento muito diferente são descartados antes da comparação.
+ */
+public class IndiceTrigramas {
+    private final ConcurrentHashMap<String, Postagens> termosPorTrigrama;
+    private volatile int[] totalTrigramas; // por id de termo
+    private volatile int[] comprimentos;   // por id de termo
+
+    public IndiceTrigramas() {
+        this.termosPorTrigrama = new ConcurrentHashMap<>();
+        this.totalTrigramas = new int[64];
+        this.comprimentos = new int[64];
+    }
+
+    /**
+     * Trigramas distintos de um termo (com espaços nas pontas para marcar início e fim).
+     */
+    static Set<String> trigramas(String termo) {
+        String marcado = "  " + termo + " ";
+        Set<String> resultado = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= marcado.length(); i++) {
+            resultado.add(marcado.substring(i, i + 3));
+        }
+        return resultado;
+    }
+
+    /**
+     * Indexa um termo. Chamado pelo dicionário, que já sincroniza os registros.
+     */
+    synchronized void adicionar(int id, String termo) {
+        Set<String> tris = trigramas(termo);
+
+        int[] totais = totalTrigramas;
+        if (id >= totais.length) {
+            totais = Arrays.copyOf(totais, Math.max(id + 1, totais.length * 2));
+        }
+        totais[id] = tris.size();
+        int[] tamanhos = comprimentos;
+        if (id >= tamanhos.length) {
+            tamanhos = Arrays.copyOf(tamanhos, totais.length);
+        }
+        tamanhos[id] = termo.length();
+        comprimentos = tamanhos;
+        totalTrigramas = totais;
+
+        for (String tri : tris) {
+            termosPorTrigrama.computeIfAbsent(tri, t -> new Postagens()).adicionar(id);
+        }
+    }
+
+    /**
+     * Id do termo mais parecido ou -1 se nenhum atingir a similaridade mínima.
+     *
+     * @param termo Termo já normalizado
+     * @param similaridadeMinima Entre 0 e 1
+     * @param proporcaoMinima Menor comprimento / maior comprimento aceito, entre 0 e 1
+     */
+    public int maisParecido(String termo, double similaridadeMinima, double proporcaoMinima) {
+        Set<String> tris = trigramas(termo);
+        int[] totais = totalTrigramas;
+        int[] tamanhos = comprimentos;
+        int[] comuns = new int[totais.length];
+        int[] candidatos = new int[totais.length];
+        int totalCandidatos = 0;
+
+        for (String tri : tris) {
+            Postagens postagens = termosPorTrigrama.get(tri);
+            if (postagens == null) {
+                continue;
+            }
+            int total = postagens.tamanho; // lê o tamanho antes do array
+            int[] ids = postagens.ids;
+            for (int k = 0; k < total; k++) {
+                int id = ids[k];
+                if (id < comuns.length && comuns[id]++ == 0) {
+                    candidatos[totalCandidatos++] = id;
+                }
+            }
+        }
+
+        int melhor = -1;
+        double melhorSimilaridade = similaridadeMinima;
+        for (int i = 0; i < totalCandidatos; i++) {
+            int id = candidatos[i];
+            int tamanho = id < tamanhos.length ? tamanhos[id] : 0;
+            if (Math.min(tamanho, termo.length()) < proporcaoMinima * Math.max(tamanho, termo.length())) {
+                continue;
+            }
+            double similaridade = 2.0 * comuns[id] / (tris.size() + totais[id]);
+            if (similaridade > melhorSimilaridade || (similaridade == melhorSimilaridade && melhor < 0)) {
+                melhor = id;
+                melhorSimilaridade = similaridade;
+            }
+        }
+        return melhor;
+    }
+
+    /**
+     * Ids dos termos que têm um trigrama. Cresce dobrando a capacidade (inserção
+     * amortizada O(1)); só o escritor sincronizado altera. O array é publicado
+     * antes do tamanho, então quem lê o tamanho e depois o array vê todos os ids.
+     */
+    private static final class Postagens {
+        volatile int[] ids = new int[4];
+        volatile int tamanho;
+
+        void adicionar(int id) {
+            int n = tamanho;
+            int[] atuais = ids;
+            if (n == atuais.length) {
+                atuais = Arrays.copyOf(atuais, n * 2);
+                ids = atuais;
+            }
+            atuais[n] = id;
+            tamanho = n + 1;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incorpora ao catálogo local as receitas que chegam da API.
+ *
+ * As receitas entram em uma fila e uma thread de fundo ("chefai-ingestao")
+ * descarta as duplicatas e acumula as novas. Trocar o catálogo remonta posting
+ * lists, colunas e índices e invalida a despensa resolvida dos usuários, então
+ * a troca acontece no máximo a cada {@code chefai.ingestao.intervaloMs} (ou
+ * antes, se juntar {@value #LOTE_MAXIMO} receitas). Quem está sugerindo nunca
+ * espera pela ingestão. O catálogo para de crescer em
+ * {@code chefai.catalogo.maximo} receitas.
+ *
+ * Duplicata é decidida pela assinatura canônica (nome normalizado + nomes
+ * canônicos ordenados dos ingredientes), não só pelo nome: "Omelete de Queijo"
+ * com outros ingredientes é outra receita, e "omeletes de queijo" com os mesmos
+ * ingredientes é a mesma. A assinatura não usa o dicionário, então uma
+ * duplicata não registra termos nele.
+ */
+public class IngestorReceitas {
+    private static final int CAPACIDADE_FILA = 1024;
+    private static final int LOTE_MAXIMO = 512;
+    private static final long INTERVALO_MS = Long.getLong("chefai.ingestao.intervaloMs", 10_000L);
+    private static final int MAXIMO_RECEITAS = Integer.getInteger("chefai.catalogo.maximo", 50_000);
+
+    /**
+     * Colocada na fila por {@link #aguardar}: pede a troca sem esperar o intervalo.
+     */
+    private static final Receita DESCARREGAR = new Receita();
+
+    private final LinkedBlockingQueue<Receita> fila;
+    private final Set<String> assinaturas;
+    private final List<Receita> pendentes; // novas, esperando a próxima troca (só a thread de fundo usa)
+    private CatalogoReceitas base;         // catálogo ao qual "assinaturas" se refere
+    private long recebidas;                // guardadas por "this"
+    private long processadas;
+
+    private static final class Holder {
+        static final IngestorReceitas INSTANCIA = new IngestorReceitas();
+    }
+
+    private IngestorReceitas() {
+        this.fila = new LinkedBlockingQueue<>(CAPACIDADE_FILA);
+        this.assinaturas = new HashSet<>();
+        this.pendentes = new ArrayList<>();
+
+        Thread thread = new Thread(this::executar, "chefai-ingestao");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static IngestorReceitas getInstancia() {
+        return Holder.INSTANCIA;
+    }
+
+    // ========== ENTRADA ==========
+
+    /**
+     * Enfileira receitas para ingestão. Não bloqueia: se a fila estiver cheia
+     * as receitas excedentes são descartadas (voltarão em respostas futuras).
+     */
+    public void enviar(List<Receita> receitas) {
+        for (Receita receita : receitas) {
+            if (fila.offer(receita)) {
+                synchronized (this) {
+                    recebidas++;
+                }
+            } else {
+                Log.debug(() -> "📥 Fila de ingestão cheia, receita ignorada: " + receita.getNome());
+            }
+        }
+    }
+
+    /**
+     * Pede a troca imediata e espera até que tudo o que foi enviado esteja no
+     * catálogo (ou tenha sido descartado).
+     * @return false se o tempo acabou antes
+     */
+    public boolean aguardar(long tempoLimiteMs) throws InterruptedException {
+        fila.offer(DESCARREGAR); // se a fila estiver cheia, a troca sai pelo tamanho do lote
+        synchronized (this) {
+            long limite = System.currentTimeMillis() + tempoLimiteMs;
+            while (processadas < recebidas) {
+                long restante = limite - System.currentTimeMillis();
+                if (restante <= 0) {
+                    return false;
+                }
+                wait(restante);
+            }
+            return true;
+        }
+    }
+
+    // ========== THREAD DE FUNDO ==========
+
+    private void executar() {
+        List<Receita> lote = new ArrayList<>();
+        long ultimaTroca = System.currentTimeMillis() - INTERVALO_MS; // a primeira pode sair já
+        while (true) {
+            try {
+                long espera = ultimaTroca + INTERVALO_MS - System.currentTimeMillis();
+                Receita primeira = pendentes.isEmpty() ? fila.take()
+                                                       : fila.poll(Math.max(0, espera), TimeUnit.MILLISECONDS);
+                if (primeira != null) {
+                    lote.add(primeira);
+                    fila.drainTo(lote);
+                }
+                boolean urgente = lote.removeIf(receita -> receita == DESCARREGAR);
+                filtrar(lote);
+                lote.clear();
+
+                long agora = System.currentTimeMillis();
+                if (!pendentes.isEmpty()
+                        && (urgente || pendentes.size() >= LOTE_MAXIMO || agora - ultimaTroca >= INTERVALO_MS)) {
+                    trocar();
+                    ultimaTroca = agora;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                Log.erro("❌ Erro na ingestão de receitas: " + e.getMessage());
+                concluir(lote.size() + pendentes.size());
+                lote.clear();
+                pendentes.clear();
+                base = null; // refaz as assinaturas na próxima rodada
+            }
+        }
+    }
+
+    /**
+     * Receitas que entraram no catálogo ou foram descartadas: libera {@link #aguardar}.
+     */
+    private synchronized void concluir(int receitas) {
+        processadas += receitas;
+        notifyAll();
+    }
+
+    /**
+     * Move para "pendentes" as receitas do lote que não são duplicatas.
+     */
+    private void filtrar(List<Receita> lote) {
+        atualizarBase(CatalogoReceitas.atual());
+        int descartadas = 0;
+        for (Receita receita : lote) {
+            if (!receita.getIngredientes().isEmpty() && assinaturas.add(assinatura(receita))) {
+                pendentes.add(receita);
+            } else {
+                descartadas++;
+            }
+        }
+        concluir(descartadas);
+    }
+
+    /**
+     * Se o catálogo foi trocado por outra via (snapshot, testes), refaz as
+     * assinaturas a partir dele e tira de "pendentes" o que ele já tem.
+     */
+    private void atualizarBase(CatalogoReceitas catalogo) {
+        if (catalogo == base) {
+            return;
+        }
+        assinaturas.clear();
+        DicionarioIngredientes dicionario = catalogo.getDicionario();
+        for (int r = 0; r < catalogo.tamanho(); r++) {
+            assinaturas.add(assinatura(catalogo.getReceita(r), catalogo.getIngredientes(r), dicionario));
+        }
+        int antes = pendentes.size();
+        pendentes.removeIf(receita -> !assinaturas.add(assinatura(receita)));
+        concluir(antes - pendentes.size());
+        base = catalogo;
+    }
+
+    /**
+     * Monta um catálogo com as pendentes (até o máximo) e troca o atual.
+     */
+    private void trocar() {
+        CatalogoReceitas catalogo = CatalogoReceitas.atual();
+        atualizarBase(catalogo);
+        int vagas = Math.max(0, MAXIMO_RECEITAS - catalogo.tamanho());
+        if (pendentes.size() > vagas) {
+            int descartadas = pendentes.size() - vagas;
+            Log.aviso("⚠️  Catálogo local cheio (" + MAXIMO_RECEITAS + " receitas): " + descartadas
+                + " receitas da API descartadas");
+            pendentes.subList(vagas, pendentes.size()).clear();
+            concluir(descartadas);
+        }
+        if (pendentes.isEmpty()) {
+            return;
+        }
+
+        CatalogoReceitas novo;
+        int novas = pendentes.size();
+        try {
+            novo = catalogo.comReceitas(new ArrayList<>(pendentes));
+        } finally {
+            concluir(novas); // em caso de erro, descartadas
+            pendentes.clear();
+        }
+        CatalogoReceitas.definirAtual(novo);
+        base = novo;
+        Log.info(() -> "📚 Catálogo local cresceu: +" + novas + " receitas da API (" +
+            novo.tamanho() + " no total)");
+    }
+
+    // ========== ASSINATURA ==========
+
+    /**
+     * Receita que ainda não está em catálogo nenhum.
+     */
+    static String assinatura(Receita receita) {
+        ArrayList<Ingrediente> ingredientes = receita.getIngredientes();
+        String[] nomes = new String[ingredientes.size()];
+        for (int i = 0; i < nomes.length; i++) {
+            nomes[i] = DicionarioIngredientes.normalizar(ingredientes.get(i).getNome());
+        }
+        return assinatura(receita.getNome(), nomes);
+    }
+
+    /**
+     * Receita do catálogo: os nomes canônicos vêm do dicionário
+     * (são os mesmos que {@link DicionarioIngredientes#normalizar} daria).
+     */
+    static String assinatura(Receita receita, int[] idsIngredientes, DicionarioIngredientes dicionario) {
+        String[] nomes = new String[idsIngredientes.length];
+        for (int i = 0; i < nomes.length; i++) {
+            nomes[i] = dicionario.getNome(idsIngredientes[i]);
+        }
+        return assinatura(receita.getNome(), nomes);
+    }
+
+    /**
+     * Nome normalizado + nomes canônicos ordenados, sem repetição.
+     */
+    private static String assinatura(String nomeReceita, String[] nomesIngredientes) {
+        Arrays.sort(nomesIngredientes);
+        StringBuilder sb = new StringBuilder(DicionarioIngredientes.normalizar(nomeReceita));
+        sb.append('|');
+        for (int i = 0; i < nomesIngredientes.length; i++) {
+            if (i == 0 || !nomesIngredientes[i].equals(nomesIngredientes[i - 1])) {
+                sb.append(nomesIngredientes[i]).append(',');
+            }
+        }
+        return sb.toString();
+    }
+}
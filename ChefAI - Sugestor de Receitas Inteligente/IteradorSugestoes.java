@@ -0,0 +1,192 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Percorre sob demanda as receitas que atendem uma consulta, das mais
+ * rápidas para as mais lentas (ordem do índice por tempo do catálogo).
+ *
+ * Cada {@link #next()} avança pelo índice só até a próxima receita que
+ * passa nos filtros (restrições, "não gosta" e compatibilidade); nada é
+ * montado antes. Nesse caminho, memória e tempo da primeira página não
+ * dependem de quantas receitas atenderiam a consulta.
+ *
+ * Quando o {@link PlanejadorConsultas} prefere as posting lists (despensa
+ * pequena ou compatibilidade exigente, em que poucas receitas do prefixo de
+ * tempo passariam), as sobreviventes são juntadas pelas postings e ordenadas
+ * por (tempo, id); a ordem e o resultado são os mesmos, mas a primeira página
+ * não varre o índice por tempo inteiro.
+ *
+ * {@link #getCursor()} devolve um texto opaco com a chave (tempo, id) da
+ * próxima receita e uma impressão digital da despensa e dos "não gosta"; um
+ * iterador novo criado com esse cursor continua dali sem refazer as páginas
+ * anteriores, mesmo se o catálogo tiver crescido. Um cursor de outra
+ * despensa (usuário diferente ou despensa editada) é recusado.
+ */
+public class IteradorSugestoes implements Iterator<Receita> {
+    private static final String VERSAO_CURSOR = "3";
+    private static final int PAGINA_PADRAO = 10; // para o planejador, quando não se sabe o tamanho
+
+    private final CatalogoReceitas catalogo;
+    private final int[] idsDespensa;
+    private final long[] dieta;
+    private final int proibidos;
+    private final long impressaoDigital;
+    private final int tempoMaximo;
+    private final int compatibilidadeMinima;
+    private final long[] sobreviventes; // chaves (tempo << 32 | id) pelas postings, ou null
+    private final int fim;
+    private int posicao;
+    private int proxima = -1; // posição já encontrada e ainda não devolvida
+
+    /**
+     * @param cursor Cursor de {@link #getCursor()} ou null para começar do início
+     * @throws IllegalArgumentException se o cursor for inválido ou de outra consulta
+     */
+    public IteradorSugestoes(CatalogoReceitas catalogo, Usuario usuario, int tempoMaximo,
+                             int compatibilidadeMinima, String cursor) {
+        this(catalogo, usuario, tempoMaximo, compatibilidadeMinima, PAGINA_PADRAO, cursor);
+    }
+
+    /**
+     * @param tamanhoPagina Quantas receitas devem ser lidas (usado só para escolher o caminho)
+     * @param cursor Cursor de {@link #getCursor()} ou null para começar do início
+     * @throws IllegalArgumentException se o cursor for inválido ou de outra consulta
+     */
+    public IteradorSugestoes(CatalogoReceitas catalogo, Usuario usuario, int tempoMaximo,
+                             int compatibilidadeMinima, int tamanhoPagina, String cursor) {
+        this.catalogo = catalogo;
+        this.idsDespensa = catalogo.resolverDespensa(usuario);
+        int[] naoGosta = usuario.getIdsNaoGosta(catalogo.getDicionario());
+        this.proibidos = Alergenos.proibidosPara(usuario);
+        this.impressaoDigital = impressaoDigital(idsDespensa, naoGosta);
+        this.dieta = catalogo.permitidasPara(usuario); // restrições e "não gosta"
+        this.tempoMaximo = tempoMaximo;
+        this.compatibilidadeMinima = compatibilidadeMinima;
+
+        PlanejadorConsultas planejador = catalogo.getPlanejador();
+        PlanejadorConsultas.Plano plano = planejador.planejar(idsDespensa, proibidos,
+            catalogo.contarExcluidasPor(naoGosta), tempoMaximo, compatibilidadeMinima, Math.max(1, tamanhoPagina));
+        if (idsDespensa.length > 0 && plano.getCaminho() == PlanejadorConsultas.Caminho.POSTINGS) {
+            this.sobreviventes = planejador.sobreviventesPorPostings(plano, idsDespensa, dieta);
+            this.fim = sobreviventes.length;
+        } else {
+            this.sobreviventes = null;
+            this.fim = idsDespensa.length == 0 ? 0 : catalogo.contarReceitasComTempoAte(tempoMaximo);
+        }
+        this.posicao = cursor == null ? 0 : retomar(cursor);
+    }
+
+    // ========== ITERAÇÃO ==========
+
+    @Override
+    public boolean hasNext() {
+        if (proxima >= 0) {
+            return true;
+        }
+        if (sobreviventes != null) {
+            if (posicao < fim) {
+                proxima = posicao; // já filtradas
+                return true;
+            }
+            return false;
+        }
+        while (posicao < fim) {
+            int receita = catalogo.getReceitaPorTempo(posicao);
+            if (ColunasCatalogo.contem(dieta, receita)) {
+                int acertos = catalogo.contarAcertos(receita, idsDespensa);
+                if (acertos > 0 && catalogo.calcularCompatibilidade(receita, acertos) >= compatibilidadeMinima) {
+                    proxima = posicao;
+                    return true;
+                }
+            }
+            posicao++;
+        }
+        return false;
+    }
+
+    @Override
+    public Receita next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Receita receita = catalogo.getReceita(receitaEm(proxima));
+        posicao = proxima + 1;
+        proxima = -1;
+        return receita;
+    }
+
+    private int receitaEm(int indice) {
+        return sobreviventes != null ? (int) sobreviventes[indice] : catalogo.getReceitaPorTempo(indice);
+    }
+
+    // ========== CURSOR ==========
+
+    /**
+     * Cursor para continuar a partir da próxima receita, ou null se acabou.
+     */
+    public String getCursor() {
+        if (!hasNext()) {
+            return null;
+        }
+        int receita = receitaEm(proxima);
+        String texto = VERSAO_CURSOR + ":" + catalogo.getColunas().getTempo(receita) + ":" + receita + ":" +
+            tempoMaximo + ":" + compatibilidadeMinima + ":" + proibidos + ":" + Long.toHexString(impressaoDigital);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int retomar(String cursor) {
+        String[] partes;
+        try {
+            partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("cursor inválido");
+        }
+        if (partes.length != 7 || !VERSAO_CURSOR.equals(partes[0])) {
+            throw new IllegalArgumentException("cursor inválido");
+        }
+        try {
+            if (Integer.parseInt(partes[3]) != tempoMaximo
+                    || Integer.parseInt(partes[4]) != compatibilidadeMinima
+                    || Integer.parseInt(partes[5]) != proibidos) {
+                throw new IllegalArgumentException("cursor de outra consulta");
+            }
+            if (Long.parseUnsignedLong(partes[6], 16) != impressaoDigital) {
+                throw new IllegalArgumentException("cursor de outra despensa");
+            }
+            int tempo = Integer.parseInt(partes[1]);
+            int receita = Integer.parseInt(partes[2]);
+            if (sobreviventes == null) {
+                return catalogo.posicaoPorTempo(tempo, receita);
+            }
+            int i = Arrays.binarySearch(sobreviventes, ((long) tempo << 32) | receita);
+            return i < 0 ? -i - 1 : i;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("cursor inválido");
+        }
+    }
+
+    /**
+     * Hash de 64 bits dos ids da despensa e dos "não gosta" (os dois já ordenados).
+     */
+    private static long impressaoDigital(int[] despensa, int[] naoGosta) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int id : despensa) {
+            h = misturar(h ^ id);
+        }
+        h = misturar(h ^ 0xD1B54A32D192ED03L); // separa as duas listas
+        for (int id : naoGosta) {
+            h = misturar(h ^ id);
+        }
+        return h;
+    }
+
+    private static long misturar(long x) {
+        x *= 0xBF58476D1CE4E5B9L;
+        x ^= x >>> 31;
+        x *= 0x94D049BB133111EBL;
+        return x ^ (x >>> 29);
+    }
+}
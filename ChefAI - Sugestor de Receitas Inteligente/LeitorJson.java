@@ -0,0 +1,550 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Leitor JSON em streaming para Receita e Usuario, direto dos bytes UTF-8.
+ *
+ * Não monta Map/List intermediários nem usa reflexão: os nomes de campo são
+ * comparados byte a byte com os nomes pré-codificados de {@link EscritorJson}
+ * (sem criar String para a chave), campos desconhecidos são pulados e textos
+ * sem escape viram String com uma única decodificação.
+ *
+ * Aceita o que o {@link EscritorJson} e o {@link ConversorJson} escrevem;
+ * campos calculados ("possui", "compatibilidade") são ignorados.
+ */
+public final class LeitorJson {
+    private static final int PROFUNDIDADE_MAXIMA = 64; // aninhamento de valores pulados
+
+    // Campos do pedido de sugestões, além dos do usuário
+    private static final byte[] SUGESTOR = EscritorJson.campo("sugestor");
+    private static final byte[] USAR_API = EscritorJson.campo("usarApi");
+    private static final byte[] FORMATO = EscritorJson.campo("formato");
+
+    /**
+     * Pedido de sugestões: o usuário mais "sugestor", "usarApi" e "formato".
+     */
+    public static final class Pedido {
+        private Usuario usuario;
+        private String sugestor;
+        private boolean usarApi;
+        private String formato;
+
+        public Usuario getUsuario() {
+            return usuario;
+        }
+
+        /**
+         * @return O nome pedido, ou null se ausente
+         */
+        public String getSugestor() {
+            return sugestor;
+        }
+
+        public boolean isUsarApi() {
+            return usarApi;
+        }
+
+        /**
+         * @return O formato pedido, ou null se ausente
+         */
+        public String getFormato() {
+            return formato;
+        }
+    }
+
+    private final byte[] json;
+    private final int fim;
+    private int pos;
+    private int profundidade;
+
+    private LeitorJson(byte[] json, int inicio, int fim) {
+        this.json = json;
+        this.pos = inicio;
+        this.fim = fim;
+    }
+
+    // ========== RECEITAS E USUÁRIOS ==========
+
+    /**
+     * @throws IllegalArgumentException se o JSON for inválido
+     */
+    public static Receita lerReceita(byte[] json) {
+        LeitorJson leitor = new LeitorJson(json, 0, json.length);
+        Receita receita = leitor.receita();
+        leitor.terminar();
+        return receita;
+    }
+
+    /**
+     * Array de receitas, como escrito por {@link EscritorJson#receitas}.
+     * @throws IllegalArgumentException se o JSON for inválido
+     */
+    public static List<Receita> lerReceitas(byte[] json) {
+        LeitorJson leitor = new LeitorJson(json, 0, json.length);
+        List<Receita> receitas = new ArrayList<>();
+        leitor.esperar('[');
+        if (!leitor.consumir(']')) {
+            do {
+                receitas.add(leitor.receita());
+            } while (leitor.consumir(','));
+            leitor.esperar(']');
+        }
+        leitor.terminar();
+        return receitas;
+    }
+
+    /**
+     * Usuário no formato de {@link ConversorJson#lerUsuario} (mais "naoGosta").
+     * @throws IllegalArgumentException se o JSON for inválido
+     */
+    public static Usuario lerUsuario(byte[] json) {
+        return lerUsuario(json, 0, json.length);
+    }
+
+    public static Usuario lerUsuario(byte[] json, int inicio, int fim) {
+        LeitorJson leitor = new LeitorJson(json, inicio, fim);
+        Usuario usuario = leitor.usuario(null);
+        leitor.terminar();
+        return usuario;
+    }
+
+    /**
+     * Pedido do ServidorHTTP: o objeto do usuário com os campos do pedido no
+     * mesmo nível, lido em uma passada só.
+     * @throws IllegalArgumentException se o JSON for inválido
+     */
+    public static Pedido lerPedido(byte[] json) {
+        LeitorJson leitor = new LeitorJson(json, 0, json.length);
+        Pedido pedido = new Pedido();
+        pedido.usuario = leitor.usuario(pedido);
+        leitor.terminar();
+        return pedido;
+    }
+
+    private Receita receita() {
+        String nome = "Sem Nome";
+        int tempo = 0;
+        boolean vegetariana = false;
+        List<Ingrediente> ingredientes = List.of();
+        List<String> passos = List.of();
+
+        esperar('{');
+        if (!consumir('}')) {
+            do {
+                if (chave(EscritorJson.NOME)) {
+                    nome = textoOu(nome);
+                } else if (chave(EscritorJson.TEMPO_PREPARO)) {
+                    tempo = inteiro(tempo);
+                } else if (chave(EscritorJson.VEGETARIANA)) {
+                    vegetariana = booleano();
+                } else if (chave(EscritorJson.INGREDIENTES)) {
+                    ingredientes = ingredientes();
+                } else if (chave(EscritorJson.PASSOS)) {
+                    passos = textos();
+                } else {
+                    pularChave();
+                    pularValor();
+                }
+            } while (consumir(','));
+            esperar('}');
+        }
+
+        Receita receita = new Receita(nome, tempo, vegetariana);
+        for (Ingrediente ingrediente : ingredientes) {
+            receita.adicionarIngrediente(ingrediente);
+        }
+        for (String passo : passos) {
+            receita.adicionarPasso(passo);
+        }
+        return receita;
+    }
+
+    /**
+     * @param pedido Se não for null, recebe também os campos do pedido
+     */
+    private Usuario usuario(Pedido pedido) {
+        String nome = "Anônimo";
+        List<Ingrediente> disponiveis = List.of();
+        List<Ingrediente> naoGosta = List.of();
+        boolean vegetariano = false;
+        boolean semLactose = false;
+        boolean semGluten = false;
+
+        esperar('{');
+        if (!consumir('}')) {
+            do {
+                if (chave(EscritorJson.NOME)) {
+                    nome = textoOu(nome);
+                } else if (chave(EscritorJson.INGREDIENTES)) {
+                    disponiveis = ingredientes();
+                } else if (chave(EscritorJson.NAO_GOSTA)) {
+                    naoGosta = ingredientes();
+                } else if (chave(EscritorJson.VEGETARIANO)) {
+                    vegetariano = booleano();
+                } else if (chave(EscritorJson.SEM_LACTOSE)) {
+                    semLactose = booleano();
+                } else if (chave(EscritorJson.SEM_GLUTEN)) {
+                    semGluten = booleano();
+                } else if (pedido != null && chave(SUGESTOR)) {
+                    pedido.sugestor = textoOu(null);
+                } else if (pedido != null && chave(USAR_API)) {
+                    pedido.usarApi = booleano();
+                } else if (pedido != null && chave(FORMATO)) {
+                    pedido.formato = textoOu(null);
+                } else {
+                    pularChave();
+                    pularValor();
+                }
+            } while (consumir(','));
+            esperar('}');
+        }
+
+        Usuario usuario = new Usuario(nome);
+        for (Ingrediente ingrediente : disponiveis) {
+            usuario.adicionarIngrediente(ingrediente);
+        }
+        for (Ingrediente ingrediente : naoGosta) {
+            usuario.adicionarIngredienteNaoGosta(ingrediente);
+        }
+        usuario.setVegetariano(vegetariano);
+        usuario.setSemLactose(semLactose);
+        usuario.setSemGluten(semGluten);
+        return usuario;
+    }
+
+    /**
+     * Lista de ingredientes: objetos {"nome","quantidade"} ou só o nome (quantidade 1).
+     * Itens sem nome são ignorados.
+     */
+    private List<Ingrediente> ingredientes() {
+        List<Ingrediente> lista = new ArrayList<>();
+        if (!comecaCom('[')) {
+            pularValor(); // null ou outro tipo: lista vazia
+            return lista;
+        }
+        esperar('[');
+        if (consumir(']')) {
+            return lista;
+        }
+        do {
+            pularEspacos();
+            if (pos < fim && json[pos] == '"') {
+                lista.add(new Ingrediente(texto(), 1));
+                continue;
+            }
+            if (pos >= fim || json[pos] != '{') {
+                pularValor(); // nem nome nem objeto: ignorado
+                continue;
+            }
+            String nome = null;
+            int quantidade = 1;
+            esperar('{');
+            if (!consumir('}')) {
+                do {
+                    if (chave(EscritorJson.NOME)) {
+                        nome = textoOu(null);
+                    } else if (chave(EscritorJson.QUANTIDADE)) {
+                        quantidade = inteiro(quantidade);
+                    } else {
+                        pularChave();
+                        pularValor();
+                    }
+                } while (consumir(','));
+                esperar('}');
+            }
+            if (nome != null) {
+                lista.add(new Ingrediente(nome, quantidade));
+            }
+        } while (consumir(','));
+        esperar(']');
+        return lista;
+    }
+
+    private List<String> textos() {
+        List<String> lista = new ArrayList<>();
+        if (!comecaCom('[')) {
+            pularValor(); // null ou outro tipo: lista vazia
+            return lista;
+        }
+        esperar('[');
+        if (!consumir(']')) {
+            do {
+                lista.add(texto());
+            } while (consumir(','));
+            esperar(']');
+        }
+        return lista;
+    }
+
+    // ========== PRIMITIVAS ==========
+
+    /**
+     * Se a próxima chave é {@code nomePreCodificado} ("nome":), consome-a com o ':'.
+     */
+    private boolean chave(byte[] nomePreCodificado) {
+        pularEspacos();
+        int n = nomePreCodificado.length - 1; // sem o ':'
+        if (pos + n > fim || !Arrays.equals(json, pos, pos + n, nomePreCodificado, 0, n)) {
+            return false;
+        }
+        pos += n;
+        esperar(':');
+        return true;
+    }
+
+    private void pularChave() {
+        pularEspacos();
+        if (pos >= fim || json[pos] != '"') {
+            throw erro("esperado nome de campo");
+        }
+        pularTexto();
+        esperar(':');
+    }
+
+    private void pularValor() {
+        pularEspacos();
+        if (pos >= fim) {
+            throw erro("fim inesperado");
+        }
+        switch (json[pos]) {
+            case '{':
+                pos++;
+                entrar();
+                if (!consumir('}')) {
+                    do {
+                        pularChave();
+                        pularValor();
+                    } while (consumir(','));
+                    esperar('}');
+                }
+                profundidade--;
+                break;
+            case '[':
+                pos++;
+                entrar();
+                if (!consumir(']')) {
+                    do {
+                        pularValor();
+                    } while (consumir(','));
+                    esperar(']');
+                }
+                profundidade--;
+                break;
+            case '"': pularTexto(); break;
+            case 't': literal("true"); break;
+            case 'f': literal("false"); break;
+            case 'n': literal("null"); break;
+            default:  numero();
+        }
+    }
+
+    /**
+     * Sem limite, "[[[[..." estouraria a pilha com StackOverflowError.
+     */
+    private void entrar() {
+        if (++profundidade > PROFUNDIDADE_MAXIMA) {
+            throw erro("aninhamento maior que " + PROFUNDIDADE_MAXIMA + " níveis");
+        }
+    }
+
+    private void pularTexto() {
+        pos++; // "
+        while (pos < fim) {
+            byte b = json[pos++];
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                pos++;
+            }
+        }
+        throw erro("string não terminada");
+    }
+
+    private boolean comecaCom(char c) {
+        pularEspacos();
+        return pos < fim && json[pos] == c;
+    }
+
+    /**
+     * Texto, ou o padrão se o valor for de outro tipo (como o ConversorJson).
+     */
+    private String textoOu(String padrao) {
+        if (comecaCom('"')) {
+            return texto();
+        }
+        pularValor();
+        return padrao;
+    }
+
+    /**
+     * Lê uma string. Sem escapes, é uma única decodificação UTF-8 do trecho;
+     * com escapes, decodifica os pedaços entre eles.
+     */
+    private String texto() {
+        pularEspacos();
+        if (pos >= fim || json[pos] != '"') {
+            throw erro("esperado texto");
+        }
+        int inicio = ++pos;
+        while (pos < fim && json[pos] != '"' && json[pos] != '\\') {
+            pos++;
+        }
+        if (pos >= fim) {
+            throw erro("string não terminada");
+        }
+        if (json[pos] == '"') {
+            return new String(json, inicio, pos++ - inicio, StandardCharsets.UTF_8);
+        }
+
+        StringBuilder sb = new StringBuilder(pos - inicio + 16);
+        sb.append(new String(json, inicio, pos - inicio, StandardCharsets.UTF_8));
+        while (pos < fim) {
+            byte b = json[pos];
+            if (b == '"') {
+                pos++;
+                return sb.toString();
+            }
+            if (b != '\\') {
+                int trecho = pos;
+                while (pos < fim && json[pos] != '"' && json[pos] != '\\') {
+                    pos++;
+                }
+                sb.append(new String(json, trecho, pos - trecho, StandardCharsets.UTF_8));
+                continue;
+            }
+            if (++pos >= fim) {
+                break;
+            }
+            byte esc = json[pos++];
+            switch (esc) {
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos + 4 > fim) {
+                        throw erro("escape \\u incompleto");
+                    }
+                    int c = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int d = Character.digit(json[pos++], 16);
+                        if (d < 0) {
+                            throw erro("escape \\u inválido");
+                        }
+                        c = (c << 4) | d;
+                    }
+                    sb.append((char) c);
+                    break;
+                default: sb.append((char) esc); // \" \\ \/
+            }
+        }
+        throw erro("string não terminada");
+    }
+
+    /**
+     * Inteiro direto dos dígitos; frações são truncadas (como o intValue do
+     * ConversorJson) e expoentes caem no Double. Outros tipos dão o padrão.
+     */
+    private int inteiro(int padrao) {
+        pularEspacos();
+        if (pos >= fim || (json[pos] != '-' && (json[pos] < '0' || json[pos] > '9'))) {
+            pularValor();
+            return padrao;
+        }
+        int inicio = pos;
+        boolean negativo = consumir('-');
+        long valor = 0;
+        int digitos = 0;
+        while (pos < fim && json[pos] >= '0' && json[pos] <= '9') {
+            if (valor < Integer.MAX_VALUE) {
+                valor = valor * 10 + (json[pos] - '0');
+            }
+            pos++;
+            digitos++;
+        }
+        if (digitos == 0) {
+            throw erro("número inválido");
+        }
+        if (pos < fim && (json[pos] == '.' || json[pos] == 'e' || json[pos] == 'E')) {
+            pos = inicio;
+            return (int) numero();
+        }
+        valor = negativo ? -valor : valor;
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, valor));
+    }
+
+    private double numero() {
+        pularEspacos();
+        int inicio = pos;
+        while (pos < fim && "+-0123456789.eE".indexOf(json[pos]) >= 0) {
+            pos++;
+        }
+        if (inicio == pos) {
+            throw erro("valor inesperado");
+        }
+        try {
+            return Double.parseDouble(new String(json, inicio, pos - inicio, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw erro("número inválido");
+        }
+    }
+
+    private boolean booleano() {
+        pularEspacos();
+        if (pos < fim && json[pos] == 't') {
+            literal("true");
+            return true;
+        }
+        if (pos < fim && json[pos] == 'f') {
+            literal("false");
+            return false;
+        }
+        pularValor(); // como o ConversorJson: qualquer outra coisa é false
+        return false;
+    }
+
+    private void literal(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (pos + i >= fim || json[pos + i] != texto.charAt(i)) {
+                throw erro("esperado " + texto);
+            }
+        }
+        pos += texto.length();
+    }
+
+    private void esperar(char c) {
+        if (!consumir(c)) {
+            throw erro("esperado '" + c + "'");
+        }
+    }
+
+    private boolean consumir(char c) {
+        pularEspacos();
+        if (pos < fim && json[pos] == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void pularEspacos() {
+        while (pos < fim && (json[pos] == ' ' || json[pos] == '\n' || json[pos] == '\r' || json[pos] == '\t')) {
+            pos++;
+        }
+    }
+
+    private void terminar() {
+        pularEspacos();
+        if (pos != fim) {
+            throw erro("conteúdo após o fim do documento");
+        }
+    }
+
+    private IllegalArgumentException erro(String mensagem) {
+        return new IllegalArgumentException("JSON inválido na posição " + pos + ": " + mensagem);
+    }
+}
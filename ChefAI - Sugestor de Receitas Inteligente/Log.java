@@ -0,0 +1,204 @@
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Fachada de log assíncrono com níveis.
+ *
+ * As mensagens vão para um buffer circular sem locks e uma thread de fundo
+ * escreve tudo no console. Quem chama nunca faz I/O nem disputa o lock do System.out.
+ * Mensagens abaixo do nível configurado são descartadas antes de serem montadas
+ * (use as versões com Supplier no caminho quente).
+ *
+ * Cada linha sai com hora e nível ("12:03:04.512 AVISO mensagem"); a formatação
+ * acontece na thread de fundo. Ociosa, essa thread dorme sem prazo e só é acordada
+ * quando uma mensagem chega com o buffer vazio.
+ *
+ * Nível configurável pela propriedade -Dchefai.log.nivel=DEBUG|INFO|AVISO|ERRO (padrão INFO).
+ */
+public final class Log {
+
+    /**
+     * Níveis de log, do mais detalhado ao mais grave.
+     */
+    public enum Nivel { DEBUG, INFO, AVISO, ERRO }
+
+    private static final int CAPACIDADE = 1 << 13; // 8192 mensagens
+    private static final int MASCARA = CAPACIDADE - 1;
+
+    private static final AtomicReferenceArray<String> buffer = new AtomicReferenceArray<>(CAPACIDADE);
+    // Nível e instante de cada posição; gravados antes da mensagem, lidos depois dela
+    private static final byte[] niveis = new byte[CAPACIDADE];
+    private static final long[] instantes = new long[CAPACIDADE];
+    private static final Nivel[] NIVEIS = Nivel.values();
+    private static final DateTimeFormatter HORA =
+        DateTimeFormatter.ofPattern("HH:mm:ss.SSS ").withZone(ZoneId.systemDefault());
+    private static final AtomicLong cabeca = new AtomicLong(); // próxima posição a escrever
+    private static final AtomicLong cauda = new AtomicLong();  // próxima posição a ler
+    private static final AtomicLong gravadoAte = new AtomicLong(); // tudo antes disso já saiu no console
+    private static final LongAdder descartadas = new LongAdder();
+    private static volatile boolean escritorDormindo;
+
+    private static volatile Nivel nivelMinimo = lerNivelConfigurado();
+    private static final Thread escritor = iniciarEscritor();
+
+    private Log() {
+    }
+
+    // ========== API PÚBLICA ==========
+
+    public static boolean habilitado(Nivel nivel) {
+        return nivel.ordinal() >= nivelMinimo.ordinal();
+    }
+
+    public static void setNivel(Nivel nivel) {
+        nivelMinimo = nivel;
+    }
+
+    public static Nivel getNivel() {
+        return nivelMinimo;
+    }
+
+    public static void debug(Supplier<String> mensagem) {
+        if (habilitado(Nivel.DEBUG)) {
+            publicar(Nivel.DEBUG, mensagem.get());
+        }
+    }
+
+    public static void info(String mensagem) {
+        if (habilitado(Nivel.INFO)) {
+            publicar(Nivel.INFO, mensagem);
+        }
+    }
+
+    public static void info(Supplier<String> mensagem) {
+        if (habilitado(Nivel.INFO)) {
+            publicar(Nivel.INFO, mensagem.get());
+        }
+    }
+
+    public static void aviso(String mensagem) {
+        if (habilitado(Nivel.AVISO)) {
+            publicar(Nivel.AVISO, mensagem);
+        }
+    }
+
+    public static void erro(String mensagem) {
+        if (habilitado(Nivel.ERRO)) {
+            publicar(Nivel.ERRO, mensagem);
+        }
+    }
+
+    /**
+     * Quantas mensagens foram perdidas porque o buffer estava cheio.
+     */
+    public static long getDescartadas() {
+        return descartadas.sum();
+    }
+
+    /**
+     * Espera (até 1 segundo) a thread de fundo escrever tudo que já foi publicado.
+     * Útil em demonstrações de console antes de imprimir diretamente no System.out.
+     */
+    public static void descarregar() {
+        long alvo = cabeca.get();
+        long limite = System.nanoTime() + 1_000_000_000L;
+        while (gravadoAte.get() < alvo && System.nanoTime() < limite) {
+            LockSupport.unpark(escritor);
+            Thread.onSpinWait();
+        }
+    }
+
+    // ========== BUFFER CIRCULAR ==========
+
+    private static void publicar(Nivel nivel, String mensagem) {
+        long agora = System.currentTimeMillis();
+        while (true) {
+            long posicao = cabeca.get();
+            if (posicao - cauda.get() >= CAPACIDADE) {
+                descartadas.increment(); // Nunca bloqueia quem está logando
+                return;
+            }
+            if (cabeca.compareAndSet(posicao, posicao + 1)) {
+                int indice = (int) (posicao & MASCARA);
+                niveis[indice] = (byte) nivel.ordinal();
+                instantes[indice] = agora;
+                buffer.set(indice, mensagem);
+                // O escritor só dorme com o buffer vazio: acordá-lo é a transição vazio -> não vazio
+                if (escritorDormindo) {
+                    escritorDormindo = false;
+                    LockSupport.unpark(escritor);
+                }
+                return;
+            }
+        }
+    }
+
+    private static Thread iniciarEscritor() {
+        Thread t = new Thread(Log::drenar, "chefai-log");
+        t.setDaemon(true);
+        t.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::descarregar, "chefai-log-shutdown"));
+        return t;
+    }
+
+    private static void drenar() {
+        Writer saida = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16);
+
+        while (true) {
+            long posicao = cauda.get();
+            int indice = (int) (posicao & MASCARA);
+            String mensagem = buffer.get(indice);
+
+            if (mensagem == null) {
+                // Nada publicado (ou produtor ainda gravando): esvazia e dorme até alguém publicar
+                try {
+                    saida.flush();
+                } catch (IOException e) {
+                    // Console indisponível: não há para onde reportar
+                }
+                gravadoAte.lazySet(posicao);
+                escritorDormindo = true;
+                if (buffer.get(indice) == null) {
+                    LockSupport.park();
+                }
+                escritorDormindo = false;
+                continue;
+            }
+
+            buffer.lazySet(indice, null);
+            try {
+                saida.write(HORA.format(Instant.ofEpochMilli(instantes[indice])));
+                saida.write(NIVEIS[niveis[indice]].name());
+                saida.write(' ');
+                saida.write(mensagem);
+                saida.write('\n');
+            } catch (IOException e) {
+                // Console indisponível: descarta
+            }
+            cauda.lazySet(posicao + 1);
+        }
+    }
+
+    private static Nivel lerNivelConfigurado() {
+        String valor = System.getProperty("chefai.log.nivel", "INFO");
+        try {
+            return Nivel.valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Nivel.INFO;
+        }
+    }
+}
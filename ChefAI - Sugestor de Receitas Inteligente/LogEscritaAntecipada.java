@@ -0,0 +1,314 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Log de escrita antecipada (WAL) das alterações de usuários.
+ *
+ * Quem altera só copia o registro para um buffer em memória e recebe um número
+ * de sequência. Uma thread ("chefai-wal") grava tudo o que acumulou de uma vez
+ * e faz um único fsync por lote (group commit): sob carga, muitas alterações
+ * dividem o mesmo fsync. {@link #aguardarDuravel} espera um registro chegar ao disco.
+ *
+ * O log é dividido em segmentos "wal-<primeira sequência>.log". Depois de um
+ * snapshot, {@link #rotacionar} abre um segmento novo e os antigos podem ser apagados.
+ *
+ * Formato do registro: tamanho, CRC32, sequência, id do usuário, operação,
+ * texto (UTF-8, -1 se nulo) e valor.
+ */
+public class LogEscritaAntecipada {
+    private static final String PREFIXO = "wal-";
+    private static final String SUFIXO = ".log";
+    private static final int CABECALHO = 8; // tamanho + CRC
+
+    private final Path diretorio;
+    private FileChannel canal;           // só a thread do WAL usa depois de aberto
+
+    // Guardados por "this"
+    private byte[] buffer = new byte[64 * 1024];
+    private int tamanhoBuffer;
+    private long ultimaSequencia;
+    private long duravelAte;
+    private long rotacaoPedida = -1;     // sequência de corte pedida (-1 = nenhuma)
+    private long rotacaoFeita = -1;
+    private IOException falha;
+    private boolean aberto = true;
+
+    private final Thread gravador;
+
+    /**
+     * Abre um segmento novo que continua depois de {@code ultimaSequencia}.
+     */
+    public LogEscritaAntecipada(Path diretorio, long ultimaSequencia) throws IOException {
+        this.diretorio = diretorio;
+        this.ultimaSequencia = ultimaSequencia;
+        this.duravelAte = ultimaSequencia;
+        this.canal = abrirSegmento(ultimaSequencia + 1);
+
+        this.gravador = new Thread(this::gravar, "chefai-wal");
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    /**
+     * Um segmento que já exista com esse nome não tem nenhum registro válido
+     * (todos teriam sequência maior que a última lida), então pode ser truncado.
+     */
+    private FileChannel abrirSegmento(long primeiraSequencia) throws IOException {
+        Path arquivo = diretorio.resolve(PREFIXO + primeiraSequencia + SUFIXO);
+        return FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // ========== ESCRITA ==========
+
+    /**
+     * Anexa um registro ao buffer (sem I/O) e devolve o número de sequência.
+     */
+    public synchronized long anexar(long usuarioId, OuvinteUsuario.Operacao operacao, String texto, int valor) {
+        byte[] textoBytes = texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+        int corpo = 8 + 8 + 1 + 4 + (textoBytes == null ? 0 : textoBytes.length) + 4;
+        garantirEspaco(CABECALHO + corpo);
+
+        long sequencia = ++ultimaSequencia;
+        ByteBuffer bb = ByteBuffer.wrap(buffer, tamanhoBuffer, CABECALHO + corpo);
+        bb.putInt(corpo);
+        bb.putInt(0); // CRC, preenchido abaixo
+        bb.putLong(sequencia);
+        bb.putLong(usuarioId);
+        bb.put(operacao.getCodigo());
+        bb.putInt(textoBytes == null ? -1 : textoBytes.length);
+        if (textoBytes != null) {
+            bb.put(textoBytes);
+        }
+        bb.putInt(valor);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer, tamanhoBuffer + CABECALHO, corpo);
+        ByteBuffer.wrap(buffer, tamanhoBuffer + 4, 4).putInt((int) crc.getValue());
+
+        tamanhoBuffer += CABECALHO + corpo;
+        notifyAll();
+        return sequencia;
+    }
+
+    private void garantirEspaco(int bytes) {
+        if (tamanhoBuffer + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, tamanhoBuffer + bytes));
+        }
+    }
+
+    /**
+     * Espera até o registro {@code sequencia} estar gravado com fsync.
+     */
+    public synchronized void aguardarDuravel(long sequencia) throws IOException, InterruptedException {
+        while (duravelAte < sequencia) {
+            if (falha != null) {
+                throw falha;
+            }
+            wait();
+        }
+    }
+
+    public synchronized long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    /**
+     * Fecha o segmento atual e começa outro. Ao retornar, todo registro com
+     * sequência menor que o valor devolvido está em disco nos segmentos antigos.
+     */
+    public synchronized long rotacionar() throws IOException, InterruptedException {
+        long pedido = ultimaSequencia + 1;
+        rotacaoPedida = pedido;
+        notifyAll();
+        while (rotacaoFeita < pedido) {
+            if (falha != null) {
+                throw falha;
+            }
+            wait();
+        }
+        return rotacaoFeita; // pode ser maior que o pedido se chegaram registros no meio
+    }
+
+    /**
+     * Grava o que falta, faz fsync e para a thread.
+     */
+    public void fechar() throws IOException, InterruptedException {
+        synchronized (this) {
+            aberto = false;
+            notifyAll();
+        }
+        gravador.join();
+        canal.close();
+        if (falha != null) {
+            throw falha;
+        }
+    }
+
+    // ========== THREAD DE GRAVAÇÃO ==========
+
+    private void gravar() {
+        byte[] reserva = new byte[buffer.length];
+        while (true) {
+            byte[] lote;
+            int tamanho;
+            long ate;
+            long rotacao;
+            synchronized (this) {
+                while (tamanhoBuffer == 0 && rotacaoPedida < 0 && aberto) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (tamanhoBuffer == 0 && rotacaoPedida < 0 && !aberto) {
+                    return;
+                }
+
+                // Troca os buffers: quem anexa continua no outro enquanto este é gravado
+                lote = buffer;
+                tamanho = tamanhoBuffer;
+                buffer = reserva.length >= lote.length ? reserva : new byte[lote.length];
+                tamanhoBuffer = 0;
+                ate = ultimaSequencia;
+                rotacao = rotacaoPedida;
+                rotacaoPedida = -1;
+            }
+
+            try {
+                ByteBuffer bb = ByteBuffer.wrap(lote, 0, tamanho);
+                while (bb.hasRemaining()) {
+                    canal.write(bb);
+                }
+                canal.force(false);
+                if (rotacao >= 0) {
+                    canal.close();
+                    canal = abrirSegmento(ate + 1);
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    falha = e;
+                    notifyAll();
+                }
+                Log.erro("❌ Erro gravando o log de usuários: " + e.getMessage());
+                return;
+            }
+
+            reserva = lote;
+            synchronized (this) {
+                duravelAte = ate;
+                if (rotacao >= 0) {
+                    rotacaoFeita = ate + 1;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    // ========== LEITURA E LIMPEZA ==========
+
+    /**
+     * Registro lido do log.
+     */
+    public static final class Registro {
+        public final long sequencia;
+        public final long usuarioId;
+        public final OuvinteUsuario.Operacao operacao;
+        public final String texto;
+        public final int valor;
+
+        Registro(long sequencia, long usuarioId, OuvinteUsuario.Operacao operacao, String texto, int valor) {
+            this.sequencia = sequencia;
+            this.usuarioId = usuarioId;
+            this.operacao = operacao;
+            this.texto = texto;
+            this.valor = valor;
+        }
+    }
+
+    /**
+     * Lê todos os segmentos em ordem. Um registro incompleto ou com CRC errado
+     * (queda no meio de uma gravação) encerra a leitura daquele segmento.
+     *
+     * @return A maior sequência encontrada (0 se não houver registros)
+     */
+    public static long reproduzir(Path diretorio, Consumer<Registro> consumidor) throws IOException {
+        long maior = 0;
+        for (Path segmento : listarSegmentos(diretorio)) {
+            ByteBuffer bb = ByteBuffer.wrap(Files.readAllBytes(segmento));
+            CRC32 crc = new CRC32();
+            while (bb.remaining() >= CABECALHO) {
+                int corpo = bb.getInt();
+                int esperado = bb.getInt();
+                if (corpo < 25 || corpo > bb.remaining()) {
+                    Log.aviso("⚠️  Fim truncado em " + segmento.getFileName() + ", ignorando o resto");
+                    break;
+                }
+                crc.reset();
+                crc.update(bb.array(), bb.position(), corpo);
+                if ((int) crc.getValue() != esperado) {
+                    Log.aviso("⚠️  Registro corrompido em " + segmento.getFileName() + ", ignorando o resto");
+                    break;
+                }
+
+                long sequencia = bb.getLong();
+                long usuarioId = bb.getLong();
+                OuvinteUsuario.Operacao operacao = OuvinteUsuario.Operacao.deCodigo(bb.get());
+                int tamanhoTexto = bb.getInt();
+                String texto = null;
+                if (tamanhoTexto >= 0) {
+                    texto = new String(bb.array(), bb.position(), tamanhoTexto, StandardCharsets.UTF_8);
+                    bb.position(bb.position() + tamanhoTexto);
+                }
+                int valor = bb.getInt();
+
+                consumidor.accept(new Registro(sequencia, usuarioId, operacao, texto, valor));
+                maior = Math.max(maior, sequencia);
+            }
+        }
+        return maior;
+    }
+
+    /**
+     * Apaga os segmentos que só têm registros anteriores a {@code corte}
+     * (já incluídos em um snapshot).
+     */
+    public static void apagarAntesDe(Path diretorio, long corte) throws IOException {
+        for (Path segmento : listarSegmentos(diretorio)) {
+            if (primeiraSequencia(segmento) < corte) {
+                Files.delete(segmento);
+            }
+        }
+    }
+
+    /**
+     * Segmentos ordenados pela primeira sequência.
+     */
+    private static List<Path> listarSegmentos(Path diretorio) throws IOException {
+        List<Path> segmentos = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+            for (Path arquivo : arquivos) {
+                segmentos.add(arquivo);
+            }
+        }
+        segmentos.sort((a, b) -> Long.compare(primeiraSequencia(a), primeiraSequencia(b)));
+        return segmentos;
+    }
+
+    private static long primeiraSequencia(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+    }
+}
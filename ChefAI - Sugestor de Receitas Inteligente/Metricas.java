@@ -0,0 +1,178 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métricas do pipeline de sugestão.
+ *
+ * Guarda um histograma de latência por etapa e contadores de fallback,
+ * cache e erros da API. Tudo sem locks: pode ser chamado de qualquer thread.
+ *
+ * Uso típico:
+ *   long inicio = Metricas.inicio();
+ *   ... trabalho ...
+ *   Metricas.registrar(Metricas.Etapa.PARSEAR_RECEITAS, inicio);
+ */
+public class Metricas implements MetricasMBean {
+
+    /**
+     * Etapas medidas do pipeline.
+     */
+    public enum Etapa {
+        CARREGAR_CONFIG,
+        MONTAR_PROMPT,
+        HTTP_CONEXAO,
+        HTTP_ENVIO,
+        HTTP_RECEBIMENTO,
+        EXTRAIR_JSON,
+        PARSEAR_RECEITAS,
+        PONTUACAO_LOCAL,
+        RENDERIZACAO,
+        FALLBACK
+    }
+
+    private static final Metricas INSTANCIA = new Metricas();
+    private static final String NOME_JMX = "ChefAI:type=Metricas";
+
+    private final HistogramaLatencia[] histogramas;
+    private final LongAdder fallbacks;
+    private final LongAdder cacheHits;
+    private final LongAdder errosApi;
+
+    private Metricas() {
+        Etapa[] etapas = Etapa.values();
+        this.histogramas = new HistogramaLatencia[etapas.length];
+        for (int i = 0; i < etapas.length; i++) {
+            histogramas[i] = new HistogramaLatencia();
+        }
+        this.fallbacks = new LongAdder();
+        this.cacheHits = new LongAdder();
+        this.errosApi = new LongAdder();
+    }
+
+    public static Metricas getInstancia() {
+        return INSTANCIA;
+    }
+
+    // ========== REGISTRO (ESTÁTICO, PARA O CAMINHO QUENTE) ==========
+
+    /**
+     * Marca o início de uma etapa.
+     */
+    public static long inicio() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra a duração de uma etapa iniciada em {@code inicio}.
+     */
+    public static void registrar(Etapa etapa, long inicio) {
+        INSTANCIA.histogramas[etapa.ordinal()].registrar(System.nanoTime() - inicio);
+    }
+
+    public static void contarFallback() {
+        INSTANCIA.fallbacks.increment();
+    }
+
+    public static void contarCacheHit() {
+        INSTANCIA.cacheHits.increment();
+    }
+
+    public static void contarErroApi() {
+        INSTANCIA.errosApi.increment();
+    }
+
+    public static HistogramaLatencia getHistograma(Etapa etapa) {
+        return INSTANCIA.histogramas[etapa.ordinal()];
+    }
+
+    // ========== JMX ==========
+
+    /**
+     * Registra o MBean no servidor de plataforma (pode ser chamado mais de uma vez).
+     */
+    public static void registrarJMX() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName(NOME_JMX);
+            if (!servidor.isRegistered(nome)) {
+                servidor.registerMBean(INSTANCIA, nome);
+            }
+        } catch (Exception e) {
+            Log.aviso("⚠️  Não foi possível registrar métricas no JMX: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getRelatorio() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-18s %10s %10s %10s %10s %10s%n",
+            "ETAPA", "QTD", "p50(us)", "p99(us)", "p999(us)", "max(us)"));
+
+        for (Etapa etapa : Etapa.values()) {
+            HistogramaLatencia h = histogramas[etapa.ordinal()];
+            sb.append(String.format("%-18s %10d %10.1f %10.1f %10.1f %10.1f%n",
+                etapa.name(),
+                h.getContagem(),
+                h.percentil(50) / 1000.0,
+                h.percentil(99) / 1000.0,
+                h.percentil(99.9) / 1000.0,
+                h.getMaximo() / 1000.0));
+        }
+
+        sb.append("Fallbacks: ").append(fallbacks.sum())
+          .append(" | Cache hits: ").append(cacheHits.sum())
+          .append(" | Erros API: ").append(errosApi.sum())
+          .append("\n");
+        return sb.toString();
+    }
+
+    @Override
+    public String[] getEtapas() {
+        Etapa[] etapas = Etapa.values();
+        String[] nomes = new String[etapas.length];
+        for (int i = 0; i < etapas.length; i++) {
+            nomes[i] = etapas[i].name();
+        }
+        return nomes;
+    }
+
+    @Override
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getErrosApi() {
+        return errosApi.sum();
+    }
+
+    @Override
+    public double percentilMicros(String etapa, double percentil) {
+        return histogramas[Etapa.valueOf(etapa).ordinal()].percentil(percentil) / 1000.0;
+    }
+
+    @Override
+    public void zerar() {
+        for (HistogramaLatencia h : histogramas) {
+            h.zerar();
+        }
+        fallbacks.reset();
+        cacheHits.reset();
+        errosApi.reset();
+    }
+
+    /**
+     * Imprime o relatório de métricas no console.
+     */
+    public static void exibirRelatorio() {
+        System.out.println("\n📈 MÉTRICAS DO PIPELINE");
+        System.out.print(INSTANCIA.getRelatorio());
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * Interface de gerenciamento (JMX) das métricas do ChefAI.
+ * Pode ser consultada pelo JConsole/VisualVM em "ChefAI:type=Metricas".
+ */
+public interface MetricasMBean {
+
+    /**
+     * Relatório em texto com p50/p99/p999 de cada etapa.
+     */
+    String getRelatorio();
+
+    String[] getEtapas();
+
+    long getFallbacks();
+
+    long getCacheHits();
+
+    long getErrosApi();
+
+    /**
+     * Percentil de uma etapa em microssegundos.
+     *
+     * @param etapa Nome da etapa (ex.: "HTTP_RECEBIMENTO")
+     * @param percentil Valor entre 0 e 100
+     */
+    double percentilMicros(String etapa, double percentil);
+
+    void zerar();
+}
@@ -0,0 +1,41 @@
+/**
+ * Recebe cada alteração feita em um {@link Usuario}.
+ *
+ * É chamado com o lock do usuário, logo depois da alteração, então
+ * deve ser rápido (ex.: anexar ao log de persistência).
+ */
+public interface OuvinteUsuario {
+
+    /**
+     * Tipos de alteração. O código é o byte gravado no log: não reordenar.
+     */
+    enum Operacao {
+        CRIAR(1), NOME(2), ADICIONAR(3), REMOVER(4), NAO_GOSTA(5),
+        VEGETARIANO(6), SEM_LACTOSE(7), SEM_GLUTEN(8);
+
+        private final byte codigo;
+
+        Operacao(int codigo) {
+            this.codigo = (byte) codigo;
+        }
+
+        public byte getCodigo() {
+            return codigo;
+        }
+
+        public static Operacao deCodigo(byte codigo) {
+            for (Operacao operacao : values()) {
+                if (operacao.codigo == codigo) {
+                    return operacao;
+                }
+            }
+            throw new IllegalArgumentException("operação desconhecida: " + codigo);
+        }
+    }
+
+    /**
+     * @param texto Nome do ingrediente ou novo nome do usuário (null nas restrições)
+     * @param valor Quantidade do ingrediente ou 1/0 nas restrições
+     */
+    void aoAlterar(Usuario usuario, Operacao operacao, String texto, int valor);
+}
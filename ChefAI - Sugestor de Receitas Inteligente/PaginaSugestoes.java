@@ -0,0 +1,35 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uma página de sugestões e o cursor para buscar a próxima.
+ */
+public class PaginaSugestoes {
+    private final List<Receita> receitas;
+    private final String proximoCursor;
+
+    public PaginaSugestoes(List<Receita> receitas, String proximoCursor) {
+        this.receitas = receitas;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<Receita> getReceitas() {
+        return new ArrayList<>(receitas);
+    }
+
+    /**
+     * Cursor opaco para a próxima página, ou null se esta foi a última.
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public boolean temMais() {
+        return proximoCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return receitas.size() + " receitas" + (temMais() ? " (há mais)" : "");
+    }
+}
@@ -0,0 +1,474 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Planejador de consultas do tipo "tempo até x, dieta do usuário,
+ * compatibilidade mínima y, as k mais rápidas".
+ *
+ * Guarda estatísticas do catálogo, calculadas uma vez (histograma de tempos,
+ * histograma do nº de ingredientes por receita, fração de receitas permitida
+ * por cada combinação de restrições; a frequência de cada ingrediente é o
+ * tamanho da sua posting list) e, para cada consulta, estima o custo de cada
+ * caminho de acesso e a seletividade de cada filtro sem tocar em receitas.
+ * A compatibilidade é estimada supondo ingredientes independentes: uma
+ * receita com m ingredientes tem Binomial(m, entradas da despensa / entradas
+ * do catálogo) acertos.
+ *
+ * Só quando o melhor caminho e o segundo ficam próximos, e o melhor custa mais
+ * que avaliar uma amostra fixa de receitas, a consulta é avaliada na amostra
+ * (que capta ingredientes que aparecem juntos) e os custos são refeitos.
+ * Executa o caminho mais barato com os filtros mais seletivos primeiro.
+ * {@link Plano#explicar()} mostra a escolha e as estimativas.
+ *
+ * Caminhos:
+ * <ul>
+ *   <li>POSTINGS: conta acertos pelas posting lists da despensa, filtra as
+ *       receitas tocadas e ordena só as sobreviventes. Bom para despensas pequenas
+ *       ou com ingredientes raros.</li>
+ *   <li>INDICE_TEMPO: percorre o índice por tempo e calcula os acertos de cada
+ *       receita na hora; para ao juntar k. Bom quando quase toda receita rápida
+ *       serve (despensa grande, filtros frouxos).</li>
+ *   <li>HIBRIDO: conta acertos pelas postings e percorre o índice por tempo
+ *       (ver {@link CatalogoReceitas#melhoresPorTempo}).</li>
+ * </ul>
+ */
+public class PlanejadorConsultas {
+    private static final int MAIOR_TEMPO_HISTOGRAMA = 240; // minutos; acima disso cai no último balde
+    private static final int TAMANHO_AMOSTRA = 512;
+    private static final double FATOR_AMBIGUO = 2; // segundo caminho até 2x o melhor: vale conferir na amostra
+
+    /** Filtros aplicados às receitas candidatas (DIETA = restrições e "não gosta"). */
+    public enum Filtro { TEMPO, DIETA, COMPATIBILIDADE }
+
+    public enum Caminho { POSTINGS, INDICE_TEMPO, HIBRIDO }
+
+    private final CatalogoReceitas catalogo;
+    private final int[] acumuladoPorTempo;  // [t] = receitas com tempo ≤ t
+    private final ConcurrentHashMap<Integer, Double> fracaoPermitida; // por bits proibidos
+    private final double mediaIngredientes;
+    private final long totalEntradas;       // soma dos tamanhos das posting lists
+    private final int[] receitasPorTotal;   // [m] = receitas com m ingredientes
+    private final int[] amostra;            // ids espaçados uniformemente pelo catálogo
+
+    PlanejadorConsultas(CatalogoReceitas catalogo) {
+        this.catalogo = catalogo;
+        int n = catalogo.tamanho();
+
+        this.acumuladoPorTempo = new int[MAIOR_TEMPO_HISTOGRAMA + 1];
+        for (int t = 0; t <= MAIOR_TEMPO_HISTOGRAMA; t++) {
+            acumuladoPorTempo[t] = catalogo.contarReceitasComTempoAte(t);
+        }
+
+        this.fracaoPermitida = new ConcurrentHashMap<>();
+
+        long entradas = 0;
+        for (int r = 0; r < n; r++) {
+            entradas += catalogo.getTotalIngredientes(r);
+        }
+        this.mediaIngredientes = n == 0 ? 0 : (double) entradas / n;
+        this.totalEntradas = entradas;
+
+        int maiorTotal = 0;
+        while (catalogo.contarReceitasComAte(maiorTotal) < n) {
+            maiorTotal++;
+        }
+        this.receitasPorTotal = new int[maiorTotal + 1];
+        for (int m = 0; m <= maiorTotal; m++) {
+            receitasPorTotal[m] = catalogo.contarReceitasComAte(m) - catalogo.contarReceitasComAte(m - 1);
+        }
+
+        this.amostra = new int[Math.min(n, TAMANHO_AMOSTRA)];
+        for (int i = 0; i < amostra.length; i++) {
+            amostra[i] = (int) ((long) i * n / amostra.length);
+        }
+    }
+
+    // ========== ESTATÍSTICAS ==========
+
+    /**
+     * Fração estimada do catálogo com tempo até {@code tempoMaximo}.
+     */
+    public double seletividadeTempo(int tempoMaximo) {
+        int n = catalogo.tamanho();
+        if (n == 0 || tempoMaximo < 0) {
+            return 0;
+        }
+        if (tempoMaximo >= MAIOR_TEMPO_HISTOGRAMA) {
+            return (double) catalogo.contarReceitasComTempoAte(tempoMaximo) / n;
+        }
+        return (double) acumuladoPorTempo[tempoMaximo] / n;
+    }
+
+    /**
+     * Fração do catálogo sem nenhum dos bits {@code proibidos} (ver {@link Alergenos}).
+     */
+    public double seletividadeRestricoes(int proibidos) {
+        if (proibidos == 0) {
+            return 1;
+        }
+        return fracaoPermitida.computeIfAbsent(proibidos, bits -> {
+            int n = catalogo.tamanho();
+            long[] permitidas = catalogo.getColunas().filtrar(Integer.MAX_VALUE, bits);
+            return n == 0 ? 0.0 : (double) ColunasCatalogo.contar(permitidas) / n;
+        });
+    }
+
+    /**
+     * Em quantas receitas o ingrediente aparece.
+     */
+    public int frequencia(int ingredienteId) {
+        return catalogo.getPostings(ingredienteId).length;
+    }
+
+    /**
+     * Fração estimada do catálogo com compatibilidade ≥ {@code compatibilidadeMinima}
+     * (e pelo menos um acerto), só pelas estatísticas: para cada nº m de
+     * ingredientes, P(Binomial(m, q) ≥ mínimo de acertos), com q a chance de um
+     * ingrediente qualquer do catálogo estar na despensa.
+     */
+    public double seletividadeCompatibilidade(long entradasDespensa, int compatibilidadeMinima) {
+        int n = catalogo.tamanho();
+        if (n == 0 || totalEntradas == 0 || entradasDespensa == 0) {
+            return 0;
+        }
+        double q = Math.min(1.0, (double) entradasDespensa / totalEntradas);
+        double passam = 0;
+        for (int m = 1; m < receitasPorTotal.length; m++) {
+            if (receitasPorTotal[m] > 0) {
+                int minimo = Math.max(1, (compatibilidadeMinima * m + 99) / 100);
+                passam += receitasPorTotal[m] * caudaBinomial(m, q, minimo);
+            }
+        }
+        return passam / n;
+    }
+
+    /**
+     * P(X ≥ k) para X ~ Binomial(m, q).
+     */
+    private static double caudaBinomial(int m, double q, int k) {
+        if (k > m) {
+            return 0;
+        }
+        if (q >= 1) {
+            return 1;
+        }
+        double probabilidade = Math.pow(1 - q, m); // P(X = 0)
+        double abaixo = 0;
+        for (int j = 0; j < k; j++) {
+            abaixo += probabilidade;
+            probabilidade *= (double) (m - j) / (j + 1) * q / (1 - q);
+        }
+        return Math.max(0, 1 - abaixo);
+    }
+
+    /**
+     * Frações da amostra que passam na compatibilidade e em todos os filtros juntos.
+     * A de compatibilidade é arredondada para cima (meio acerto) para a ordem dos
+     * filtros; a conjunta fica zero se nada passou, e aí o planejador supõe o pior
+     * caso para quem percorre o índice por tempo (ir até o fim do prefixo).
+     */
+    private double[] avaliarAmostra(int[] idsDespensa, int proibidos, int tempoMaximo,
+                                    int compatibilidadeMinima) {
+        if (amostra.length == 0) {
+            return new double[] {0, 0};
+        }
+        ColunasCatalogo colunas = catalogo.getColunas();
+        int compativeis = 0;
+        int todos = 0;
+        for (int receita : amostra) {
+            int acertos = catalogo.contarAcertos(receita, idsDespensa);
+            if (acertos == 0 || catalogo.calcularCompatibilidade(receita, acertos) < compatibilidadeMinima) {
+                continue;
+            }
+            compativeis++;
+            if (colunas.getTempo(receita) <= tempoMaximo
+                    && (colunas.getRestricoes(receita) & proibidos) == 0) {
+                todos++;
+            }
+        }
+        return new double[] {
+            Math.max(compativeis, 0.5) / amostra.length,
+            (double) todos / amostra.length
+        };
+    }
+
+    // ========== PLANEJAMENTO ==========
+
+    /**
+     * Plano escolhido para uma consulta, com as estimativas que levaram a ele.
+     */
+    public static final class Plano {
+        private final Caminho caminho;
+        private final Filtro[] ordem;
+        private final double[] custos;        // por Caminho.ordinal()
+        private final double[] seletividades; // por Filtro.ordinal()
+        private final int tempoMaximo;
+        private final int compatibilidadeMinima;
+        private final int limite;
+        private final int ingredientes;
+        private final long tocadas;
+        private final boolean amostrado;
+
+        Plano(Caminho caminho, Filtro[] ordem, double[] custos, double[] seletividades,
+              int tempoMaximo, int compatibilidadeMinima, int limite, int ingredientes, long tocadas,
+              boolean amostrado) {
+            this.caminho = caminho;
+            this.ordem = ordem;
+            this.custos = custos;
+            this.seletividades = seletividades;
+            this.tempoMaximo = tempoMaximo;
+            this.compatibilidadeMinima = compatibilidadeMinima;
+            this.limite = limite;
+            this.ingredientes = ingredientes;
+            this.tocadas = tocadas;
+            this.amostrado = amostrado;
+        }
+
+        public Caminho getCaminho() {
+            return caminho;
+        }
+
+        public Filtro[] getOrdemFiltros() {
+            return ordem.clone();
+        }
+
+        public double getCustoEstimado() {
+            return custos[caminho.ordinal()];
+        }
+
+        /**
+         * Descrição legível do plano (estilo EXPLAIN).
+         */
+        public String explicar() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Consulta: tempo ≤ ").append(tempoMaximo).append("min, compatibilidade ≥ ")
+              .append(compatibilidadeMinima).append("%, limite ").append(limite).append('\n');
+            sb.append("Caminho: ").append(caminho)
+              .append(String.format(" (custo estimado %.0f)%n", getCustoEstimado()));
+            sb.append("  despensa: ").append(ingredientes).append(" ingredientes conhecidos, ")
+              .append(tocadas).append(" entradas nas posting lists\n");
+            sb.append("  estimativas: ").append(amostrado ? "conferidas na amostra" : "só estatísticas").append('\n');
+            sb.append("  filtros:");
+            for (int i = 0; i < ordem.length; i++) {
+                sb.append(i == 0 ? " " : " → ").append(ordem[i])
+                  .append(String.format(" (%.1f%%)", 100 * seletividades[ordem[i].ordinal()]));
+            }
+            sb.append('\n');
+            for (Caminho outro : Caminho.values()) {
+                if (outro != caminho) {
+                    sb.append("  descartado ").append(outro)
+                      .append(String.format(": custo %.0f%n", custos[outro.ordinal()]));
+                }
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return explicar();
+        }
+    }
+
+    /**
+     * Escolhe caminho e ordem dos filtros para a consulta.
+     *
+     * @param idsDespensa Ids da despensa (ver {@link CatalogoReceitas#resolverDespensa})
+     * @param proibidos Bits de {@link Alergenos} que o usuário não come
+     * @param excluidas Receitas com algum ingrediente que o usuário não gosta (estimativa)
+     */
+    public Plano planejar(int[] idsDespensa, int proibidos, int excluidas, int tempoMaximo,
+                          int compatibilidadeMinima, int limite) {
+        int n = Math.max(1, catalogo.tamanho());
+        long entradas = 0;
+        for (int id : idsDespensa) {
+            entradas += frequencia(id);
+        }
+
+        // Seletividade de cada filtro sobre o catálogo inteiro, só pelas estatísticas
+        double[] seletividades = new double[Filtro.values().length];
+        seletividades[Filtro.TEMPO.ordinal()] = seletividadeTempo(tempoMaximo);
+        double semNaoGosta = Math.max(0, 1 - (double) excluidas / n);
+        seletividades[Filtro.DIETA.ordinal()] = seletividadeRestricoes(proibidos) * semNaoGosta;
+        seletividades[Filtro.COMPATIBILIDADE.ordinal()] = seletividadeCompatibilidade(entradas, compatibilidadeMinima);
+
+        double passam = seletividades[Filtro.TEMPO.ordinal()] * seletividades[Filtro.DIETA.ordinal()]
+            * seletividades[Filtro.COMPATIBILIDADE.ordinal()];
+        double custoAcertos = mediaIngredientes + idsDespensa.length; // interseção por merge
+        double[] custos = estimarCustos(n, entradas, seletividades[Filtro.TEMPO.ordinal()], passam,
+            custoAcertos, limite);
+        Caminho melhor = maisBarato(custos);
+
+        // Caminhos empatados e o melhor custa mais que olhar a amostra: confere nela
+        boolean amostrado = false;
+        double custoAmostra = amostra.length * (1 + custoAcertos);
+        if (ambiguo(custos, melhor) && custos[melhor.ordinal()] > custoAmostra) {
+            double[] naAmostra = avaliarAmostra(idsDespensa, proibidos, tempoMaximo, compatibilidadeMinima);
+            seletividades[Filtro.COMPATIBILIDADE.ordinal()] = naAmostra[0];
+            passam = naAmostra[1] * semNaoGosta; // conjunta: capta filtros que não são independentes
+            custos = estimarCustos(n, entradas, seletividades[Filtro.TEMPO.ordinal()], passam,
+                custoAcertos, limite);
+            melhor = maisBarato(custos);
+            amostrado = true;
+        }
+
+        return new Plano(melhor, ordenarFiltros(melhor, seletividades, custoAcertos), custos, seletividades,
+            tempoMaximo, compatibilidadeMinima, limite, idsDespensa.length, entradas, amostrado);
+    }
+
+    /**
+     * Custo de cada caminho, por {@link Caminho#ordinal()}.
+     *
+     * @param passam Fração do catálogo que passa em todos os filtros
+     */
+    private static double[] estimarCustos(int n, long entradas, double seletividadeTempo, double passam,
+                                          double custoAcertos, int limite) {
+        double prefixo = seletividadeTempo * n;
+        double esperadas = Math.max(passam * n, 1e-9);
+        // Receitas do prefixo visitadas até juntar "limite" resultados
+        double visitadas = passam == 0 ? prefixo : Math.min(prefixo, limite * prefixo / esperadas);
+
+        double[] custos = new double[Caminho.values().length];
+        double tocadasUnicas = Math.min(n, entradas);
+        double sobreviventes = Math.min(tocadasUnicas, esperadas);
+        custos[Caminho.POSTINGS.ordinal()] = entradas + tocadasUnicas + sobreviventes * log2(sobreviventes);
+        custos[Caminho.INDICE_TEMPO.ordinal()] = log2(n) + visitadas * (1 + custoAcertos);
+        custos[Caminho.HIBRIDO.ordinal()] = entradas + tocadasUnicas + log2(n) + visitadas;
+        return custos;
+    }
+
+    private static Caminho maisBarato(double[] custos) {
+        Caminho melhor = Caminho.POSTINGS;
+        for (Caminho c : Caminho.values()) {
+            if (custos[c.ordinal()] < custos[melhor.ordinal()]) {
+                melhor = c;
+            }
+        }
+        return melhor;
+    }
+
+    private static boolean ambiguo(double[] custos, Caminho melhor) {
+        for (Caminho c : Caminho.values()) {
+            if (c != melhor && custos[c.ordinal()] < FATOR_AMBIGUO * custos[melhor.ordinal()]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Filtros mais baratos e mais seletivos primeiro: ordena por custo / (1 - seletividade).
+     * Nos caminhos pelo índice de tempo o filtro de tempo já vem de graça.
+     */
+    private static Filtro[] ordenarFiltros(Caminho caminho, double[] seletividades, double custoAcertos) {
+        double[] custo = new double[Filtro.values().length];
+        custo[Filtro.TEMPO.ordinal()] = 1;
+        custo[Filtro.DIETA.ordinal()] = 1;
+        custo[Filtro.COMPATIBILIDADE.ordinal()] = caminho == Caminho.INDICE_TEMPO ? custoAcertos : 1;
+
+        ArrayList<Filtro> ordem = new ArrayList<>(Arrays.asList(Filtro.values()));
+        if (caminho != Caminho.POSTINGS) {
+            ordem.remove(Filtro.TEMPO);
+        }
+        ordem.sort((a, b) -> Double.compare(
+            custo[a.ordinal()] / Math.max(1e-9, 1 - seletividades[a.ordinal()]),
+            custo[b.ordinal()] / Math.max(1e-9, 1 - seletividades[b.ordinal()])));
+        return ordem.toArray(new Filtro[0]);
+    }
+
+    private static double log2(double x) {
+        return x <= 1 ? 0 : Math.log(x) / Math.log(2);
+    }
+
+    // ========== EXECUÇÃO ==========
+
+    /**
+     * Executa o plano. O resultado é o mesmo em qualquer caminho: as primeiras
+     * {@code limite} receitas que passam nos filtros, em ordem de tempo (empate pelo id).
+     *
+     * @param dieta Receitas que o usuário aceita (ver {@link CatalogoReceitas#permitidasPara})
+     */
+    public int[] executar(Plano plano, int[] idsDespensa, long[] dieta) {
+        switch (plano.caminho) {
+            case HIBRIDO:
+                return catalogo.melhoresPorTempo(idsDespensa, plano.tempoMaximo,
+                    dieta, plano.compatibilidadeMinima, plano.limite);
+            case INDICE_TEMPO:
+                return porIndiceTempo(plano, idsDespensa, dieta);
+            default:
+                return porPostings(plano, idsDespensa, dieta);
+        }
+    }
+
+    private int[] porPostings(Plano plano, int[] idsDespensa, long[] dieta) {
+        long[] sobreviventes = sobreviventesPorPostings(plano, idsDespensa, dieta);
+        int[] ids = new int[Math.max(0, Math.min(plano.limite, sobreviventes.length))];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (int) sobreviventes[i];
+        }
+        return ids;
+    }
+
+    /**
+     * Todas as receitas tocadas pela despensa que passam nos filtros do plano,
+     * como chaves (tempo << 32 | id) em ordem crescente, a mesma do índice por tempo.
+     * O custo é o das posting lists da despensa, sem limite de quantidade.
+     */
+    long[] sobreviventesPorPostings(Plano plano, int[] idsDespensa, long[] dieta) {
+        ContagemAcertos acertos = catalogo.contarAcertos(idsDespensa);
+        ColunasCatalogo colunas = catalogo.getColunas();
+        long[] sobreviventes = new long[acertos.tamanho()];
+        int total = 0;
+        for (int i = 0; i < acertos.tamanho(); i++) {
+            int receita = acertos.getReceita(i);
+            if (passa(plano, receita, acertos.getAcertos(i), idsDespensa, colunas, dieta)) {
+                sobreviventes[total++] = ((long) colunas.getTempo(receita) << 32) | receita;
+            }
+        }
+        Arrays.sort(sobreviventes, 0, total); // tempo, depois id
+        return total == sobreviventes.length ? sobreviventes : Arrays.copyOf(sobreviventes, total);
+    }
+
+    private int[] porIndiceTempo(Plano plano, int[] idsDespensa, long[] dieta) {
+        ColunasCatalogo colunas = catalogo.getColunas();
+        int prefixo = idsDespensa.length == 0 ? 0 : catalogo.contarReceitasComTempoAte(plano.tempoMaximo);
+        int[] escolhidas = new int[Math.max(0, Math.min(plano.limite, prefixo))];
+        int total = 0;
+        for (int i = 0; i < prefixo && total < escolhidas.length; i++) {
+            int receita = catalogo.getReceitaPorTempo(i);
+            if (passa(plano, receita, -1, idsDespensa, colunas, dieta)) {
+                escolhidas[total++] = receita;
+            }
+        }
+        return total == escolhidas.length ? escolhidas : Arrays.copyOf(escolhidas, total);
+    }
+
+    /**
+     * Aplica os filtros na ordem do plano. Com {@code acertos} < 0 os acertos
+     * são calculados só se o filtro de compatibilidade for alcançado.
+     */
+    private boolean passa(Plano plano, int receita, int acertos, int[] idsDespensa,
+                          ColunasCatalogo colunas, long[] dieta) {
+        for (Filtro filtro : plano.ordem) {
+            switch (filtro) {
+                case TEMPO:
+                    if (colunas.getTempo(receita) > plano.tempoMaximo) {
+                        return false;
+                    }
+                    break;
+                case DIETA:
+                    if (!ColunasCatalogo.contem(dieta, receita)) {
+                        return false;
+                    }
+                    break;
+                default:
+                    int a = acertos >= 0 ? acertos : catalogo.contarAcertos(receita, idsDespensa);
+                    if (a == 0 || catalogo.calcularCompatibilidade(receita, a) < plano.compatibilidadeMinima) {
+                        return false;
+                    }
+                    break;
+            }
+        }
+        return true;
+    }
+}
@@ -4,8 +4,10 @@ public class Receita {
     private String nome;
     private int tempoDePreparo;
     private ArrayList<Ingrediente> ingredientes;
-    private ArrayList<String> passos;
+    private volatile ArrayList<String> passos; // null quando estão no ArmazemPassos
+    private int passosGuardados; // Id no ArmazemPassos (-1 se os passos estão em memória)
     private boolean vegetariana; // NOVO: informação se a receita é vegetariana
+    private int restricoes; // Bits de Alergenos (-1 = ainda não calculado)
     
     /**
      * Construtor COMPLETO com informação vegetariana
@@ -14,6 +16,8 @@ public class Receita {
         this.nome = nome;
         this.tempoDePreparo = tempoDePreparo;
         this.vegetariana = vegetariana;
+        this.restricoes = -1;
+        this.passosGuardados = -1;
         this.ingredientes = new ArrayList<>();
         this.passos = new ArrayList<>();
     }
@@ -37,10 +41,17 @@ public class Receita {
     
     public void adicionarIngrediente(Ingrediente ingrediente) {
         ingredientes.add(ingrediente);
+        restricoes = -1;
     }
     
     public void adicionarPasso(String passo) {
-        passos.add(passo);
+        ArrayList<String> atuais = passos;
+        if (atuais == null) {
+            atuais = carregarPassos(); // volta para a memória para poder alterar
+            passosGuardados = -1;
+            passos = atuais;
+        }
+        atuais.add(passo);
     }
     
     // ========== GETTERS ==========
@@ -58,13 +69,41 @@ public class Receita {
     }
     
     public ArrayList<String> getPassos() {
-        return new ArrayList<>(passos); // Retorna cópia para segurança
+        ArrayList<String> atuais = passos;
+        return atuais == null ? carregarPassos() : new ArrayList<>(atuais); // Retorna cópia para segurança
+    }
+    
+    /**
+     * Lê os passos do ArmazemPassos (já é uma lista nova).
+     * Só deve ser chamado depois de ler "passos" como null, o que garante
+     * que passosGuardados já está visível.
+     */
+    private ArrayList<String> carregarPassos() {
+        return ArmazemPassos.padrao().ler(passosGuardados);
     }
     
     public boolean isVegetariana() {
         return vegetariana;
     }
     
+    /**
+     * Bits de {@link Alergenos} presentes na receita: o OU dos ingredientes,
+     * mais CARNE se ela não for marcada como vegetariana.
+     * Calculado na primeira chamada. Dentro de um catálogo, prefira
+     * {@link CatalogoReceitas#getRestricoes(int)}.
+     */
+    public int getRestricoes() {
+        int atuais = restricoes;
+        if (atuais < 0) {
+            atuais = vegetariana ? 0 : Alergenos.CARNE;
+            for (Ingrediente ingrediente : ingredientes) {
+                atuais |= Alergenos.mascaraDe(ingrediente.getNome());
+            }
+            restricoes = atuais;
+        }
+        return atuais;
+    }
+    
     // ========== SETTERS ==========
     
     public void setNome(String nome) {
@@ -79,6 +118,35 @@ public class Receita {
     
     public void setVegetariana(boolean vegetariana) {
         this.vegetariana = vegetariana;
+        this.restricoes = -1;
+    }
+    
+    /**
+     * Move os passos para o ArmazemPassos padrão (comprimidos, fora do heap),
+     * o mesmo de onde {@link #getPassos()} os lê de volta.
+     * Usado pelo CatalogoReceitas: os passos só são lidos ao exibir a receita.
+     */
+    void guardarPassos() {
+        ArrayList<String> atuais = passos;
+        if (atuais != null) {
+            passosGuardados = ArmazemPassos.padrao().guardar(atuais);
+            passos = null; // escrita volátil: publica passosGuardados
+        }
+    }
+    
+    /**
+     * Passos que já estão no ArmazemPassos padrão (ex.: copiados de um snapshot).
+     */
+    void definirPassosGuardados(int id) {
+        passosGuardados = id;
+        passos = null; // escrita volátil: publica passosGuardados
+    }
+    
+    /**
+     * Id dos passos no ArmazemPassos padrão, ou -1 se estão em memória.
+     */
+    int getPassosGuardados() {
+        return passos == null ? passosGuardados : -1; // leitura volátil antes
     }
     
     // ========== MÉTODOS DE UTILIDADE ==========
@@ -109,6 +177,7 @@ public class Receita {
      * Retorna os primeiros N passos (útil para preview)
      */
     public ArrayList<String> getPrimeirosPassos(int quantidade) {
+        ArrayList<String> passos = getPassos();
         ArrayList<String> primeiros = new ArrayList<>();
         int limite = Math.min(quantidade, passos.size());
         
@@ -123,6 +192,7 @@ public class Receita {
      * Formata todos os passos em uma única string
      */
     public String getPassosFormatados() {
+        ArrayList<String> passos = getPassos();
         if (passos.isEmpty()) {
             return "Nenhum passo disponível.";
         }
@@ -142,27 +212,32 @@ public class Receita {
      * Exibe a receita completa formatada
      */
     public void exibirReceitaCompleta() {
-        System.out.println("\n" + "=".repeat(50));
-        System.out.println("🍳 " + nome.toUpperCase());
-        System.out.println("=".repeat(50));
+        ArrayList<String> passos = getPassos();
+        String linha = "=".repeat(50);
+        StringBuilder sb = new StringBuilder(512);
+        
+        sb.append('\n').append(linha).append('\n');
+        sb.append("🍳 ").append(nome.toUpperCase()).append('\n');
+        sb.append(linha).append('\n');
         
-        System.out.println("\n📊 INFORMAÇÕES:");
-        System.out.println("• Tempo de preparo: " + tempoDePreparo + " minutos");
-        System.out.println("• Tipo: " + (vegetariana ? "🥬 VEGETARIANA" : "🍗 NÃO VEGETARIANA"));
+        sb.append("\n📊 INFORMAÇÕES:\n");
+        sb.append("• Tempo de preparo: ").append(tempoDePreparo).append(" minutos\n");
+        sb.append("• Tipo: ").append(vegetariana ? "🥬 VEGETARIANA" : "🍗 NÃO VEGETARIANA").append('\n');
         
-        System.out.println("\n🛒 INGREDIENTES (" + ingredientes.size() + "):");
+        sb.append("\n🛒 INGREDIENTES (").append(ingredientes.size()).append("):\n");
         for (int i = 0; i < ingredientes.size(); i++) {
-            System.out.println("  " + (i + 1) + ". " + ingredientes.get(i));
+            sb.append("  ").append(i + 1).append(". ").append(ingredientes.get(i)).append('\n');
         }
         
-        System.out.println("\n📝 MODO DE PREPARO (" + passos.size() + " passos):");
+        sb.append("\n📝 MODO DE PREPARO (").append(passos.size()).append(" passos):\n");
         for (int i = 0; i < passos.size(); i++) {
-            System.out.println("  " + (i + 1) + ". " + passos.get(i));
+            sb.append("  ").append(i + 1).append(". ").append(passos.get(i)).append('\n');
         }
         
-        System.out.println("\n" + "=".repeat(50));
-        System.out.println("🍽️  Bom apetite!");
-        System.out.println("=".repeat(50));
+        sb.append('\n').append(linha).append('\n');
+        sb.append("🍽️  Bom apetite!\n");
+        sb.append(linha);
+        System.out.println(sb); // uma escrita só no console
     }
     
     // ========== MÉTODOS DE COMPATIBILIDADE ==========
@@ -196,7 +271,7 @@ public class Receita {
     
     /**
      * Verifica se a receita é adequada para o usuário
-     * Considera: ingredientes disponíveis, tempo e vegetarianismo
+     * Considera: ingredientes disponíveis, tempo e restrições alimentares
      */
     public boolean eAdequadaParaUsuario(Usuario usuario, int tempoMaximo) {
         // Verifica tempo
@@ -204,8 +279,8 @@ public class Receita {
             return false;
         }
         
-        // Verifica vegetarianismo
-        if (usuario.isVegetariano() && !vegetariana) {
+        // Verifica restrições (vegetariano, sem lactose, sem glúten)
+        if (!Alergenos.permitida(this, usuario)) {
             return false;
         }
         
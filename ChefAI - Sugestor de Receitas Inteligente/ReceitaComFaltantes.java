@@ -0,0 +1,50 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uma receita que quase dá para fazer, com a lista do que falta comprar.
+ */
+public class ReceitaComFaltantes {
+    private final Receita receita;
+    private final List<Ingrediente> faltantes;
+    private final int compatibilidade;
+
+    public ReceitaComFaltantes(Receita receita, List<Ingrediente> faltantes, int compatibilidade) {
+        this.receita = receita;
+        this.faltantes = faltantes;
+        this.compatibilidade = compatibilidade;
+    }
+
+    public Receita getReceita() {
+        return receita;
+    }
+
+    public List<Ingrediente> getFaltantes() {
+        return new ArrayList<>(faltantes);
+    }
+
+    public int getQuantidadeFaltante() {
+        return faltantes.size();
+    }
+
+    public int getCompatibilidade() {
+        return compatibilidade;
+    }
+
+    @Override
+    public String toString() {
+        if (faltantes.isEmpty()) {
+            return receita.getNome() + " (tem tudo!)";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(receita.getNome()).append(" (falta: ");
+        for (int i = 0; i < faltantes.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(faltantes.get(i).getNome());
+        }
+        return sb.append(")").toString();
+    }
+}
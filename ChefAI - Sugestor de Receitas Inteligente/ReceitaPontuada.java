@@ -0,0 +1,39 @@
+import java.util.Comparator;
+
+/**
+ * Receita acompanhada da compatibilidade calculada para um usuário.
+ * É o que cada fragmento do catálogo devolve ao coordenador.
+ */
+public class ReceitaPontuada {
+    /** Maior compatibilidade primeiro; empate pelo menor tempo e depois pelo nome. */
+    public static final Comparator<ReceitaPontuada> MELHOR_PRIMEIRO = (a, b) -> {
+        if (a.compatibilidade != b.compatibilidade) {
+            return Integer.compare(b.compatibilidade, a.compatibilidade);
+        }
+        if (a.receita.getTempoPreparo() != b.receita.getTempoPreparo()) {
+            return Integer.compare(a.receita.getTempoPreparo(), b.receita.getTempoPreparo());
+        }
+        return a.receita.getNome().compareTo(b.receita.getNome());
+    };
+
+    private final Receita receita;
+    private final int compatibilidade;
+
+    public ReceitaPontuada(Receita receita, int compatibilidade) {
+        this.receita = receita;
+        this.compatibilidade = compatibilidade;
+    }
+
+    public Receita getReceita() {
+        return receita;
+    }
+
+    public int getCompatibilidade() {
+        return compatibilidade;
+    }
+
+    @Override
+    public String toString() {
+        return receita.getNome() + " (" + compatibilidade + "%)";
+    }
+}
@@ -0,0 +1,309 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monta um conjunto inteiro de resultados em um único buffer reutilizável e
+ * só depois o entrega a um {@link Writer} ou {@link ByteBuffer}.
+ *
+ * Formatos: texto para o console, JSON (escrito pelo {@link EscritorJson}) e
+ * um formato compacto de uma linha por receita (ver {@link Formato#COMPACTO}).
+ *
+ * Quais ingredientes o usuário possui vem da despensa já resolvida na
+ * pontuação ({@link CatalogoReceitas#marcarPossuidos}), calculado uma vez por
+ * receita; passos e ingredientes são lidos uma vez cada. Não é thread-safe:
+ * use {@link #local()} (um por thread).
+ */
+public class RenderizadorResultados {
+    private static final int CAPACIDADE_INICIAL = 4096;
+    private static final int CAPACIDADE_MAXIMA_RETIDA = 1 << 20; // acima disso, devolve a memória
+    private static final int TAMANHO_BLOCO = 8192;
+
+    private static final ThreadLocal<RenderizadorResultados> LOCAL =
+        ThreadLocal.withInitial(RenderizadorResultados::new);
+
+    /**
+     * Formatos de saída.
+     */
+    public enum Formato {
+        /** Legível no console, com destaque do que o usuário já tem. */
+        TEXTO,
+        /** Array JSON de receitas, com "possui" por ingrediente e compatibilidade. */
+        JSON,
+        /**
+         * Uma linha por receita, campos separados por tab:
+         * nome, tempo, V/N (vegetariana), compatibilidade e ingredientes separados
+         * por vírgula ("+" na frente dos que o usuário possui). Sem passos.
+         * Tab, quebra de linha, vírgula, barra invertida e "+" inicial nos nomes são escapados com "\".
+         */
+        COMPACTO;
+
+        /**
+         * Formato pelo nome ("texto", "json", "compacto"); null ou vazio dá o padrão.
+         * @throws IllegalArgumentException se o nome não for conhecido
+         */
+        public static Formato de(String nome, Formato padrao) {
+            if (nome == null || nome.isEmpty()) {
+                return padrao;
+            }
+            for (Formato formato : values()) {
+                if (formato.name().equalsIgnoreCase(nome)) {
+                    return formato;
+                }
+            }
+            throw new IllegalArgumentException("formato desconhecido: " + nome);
+        }
+    }
+
+    private StringBuilder buffer;
+    private boolean[] possui = new boolean[32];
+    private EscritorJson json;
+    private char[] bloco;
+    private ByteBuffer bytes;
+    private CharsetEncoder codificador;
+
+    public RenderizadorResultados() {
+        this.buffer = new StringBuilder(CAPACIDADE_INICIAL);
+    }
+
+    /**
+     * O renderizador desta thread, já vazio.
+     * Não guarde a referência entre requisições nem a passe a outras threads.
+     */
+    public static RenderizadorResultados local() {
+        return LOCAL.get().limpar();
+    }
+
+    /**
+     * Esvazia o buffer (mantendo a capacidade, salvo se cresceu demais).
+     */
+    public RenderizadorResultados limpar() {
+        if (buffer.capacity() > CAPACIDADE_MAXIMA_RETIDA) {
+            buffer = new StringBuilder(CAPACIDADE_INICIAL);
+            bytes = null;
+        } else {
+            buffer.setLength(0);
+        }
+        return this;
+    }
+
+    /**
+     * O buffer em montagem, para quem precisa escrever um envelope em volta
+     * (ex.: {"usuario":...,"receitas":[...]}).
+     */
+    public StringBuilder getBuffer() {
+        return buffer;
+    }
+
+    // ========== RENDERIZAÇÃO ==========
+
+    /**
+     * Acrescenta ao buffer a lista de receitas no formato pedido.
+     * @param usuario Usado para marcar o que ele possui; pode ser null
+     */
+    public RenderizadorResultados renderizar(List<Receita> receitas, Usuario usuario, Formato formato) {
+        long inicio = Metricas.inicio();
+        CatalogoReceitas catalogo = CatalogoReceitas.atual();
+
+        switch (formato) {
+            case TEXTO:
+                if (receitas.isEmpty()) {
+                    buffer.append("   Nenhuma receita encontrada.\n");
+                }
+                for (int i = 0; i < receitas.size(); i++) {
+                    escreverTexto(i + 1, receitas.get(i), usuario, catalogo);
+                }
+                break;
+            case JSON:
+                escritorJson().receitas(receitas, usuario).escreverEm(buffer);
+                break;
+            default:
+                for (Receita receita : receitas) {
+                    escreverCompacto(receita, usuario, catalogo);
+                }
+        }
+
+        Metricas.registrar(Metricas.Etapa.RENDERIZACAO, inicio);
+        return this;
+    }
+
+    /**
+     * Acrescenta uma receita só (em JSON, um objeto em vez de array).
+     */
+    public RenderizadorResultados renderizar(Receita receita, Usuario usuario, Formato formato) {
+        if (formato == Formato.JSON) {
+            escritorJson().receita(receita, usuario).escreverEm(buffer);
+            return this;
+        }
+        return renderizar(List.of(receita), usuario, formato);
+    }
+
+    /**
+     * Marca em {@link #possui} o que o usuário tem; devolve quantos, ou -1 sem usuário.
+     */
+    private int marcar(Receita receita, ArrayList<Ingrediente> ingredientes, Usuario usuario,
+                       CatalogoReceitas catalogo) {
+        if (usuario == null) {
+            return -1;
+        }
+        if (possui.length < ingredientes.size()) {
+            possui = new boolean[Math.max(ingredientes.size(), possui.length * 2)];
+        }
+        return catalogo.marcarPossuidos(receita, ingredientes, usuario, possui);
+    }
+
+    /**
+     * Escritor próprio (não o {@link EscritorJson#local()}, que quem chama pode
+     * estar usando para o envelope), esvaziado a cada uso.
+     */
+    private EscritorJson escritorJson() {
+        if (json == null) {
+            json = new EscritorJson();
+        }
+        return json.limpar();
+    }
+
+    private void escreverTexto(int posicao, Receita receita, Usuario usuario, CatalogoReceitas catalogo) {
+        ArrayList<Ingrediente> ingredientes = receita.getIngredientes();
+        int possuidos = marcar(receita, ingredientes, usuario, catalogo);
+
+        buffer.append("\n   ").append(posicao).append(". ⭐ ").append(receita.getNome()).append('\n');
+        buffer.append("      ├── ⏱️  Tempo: ").append(receita.getTempoPreparo()).append(" min\n");
+        if (possuidos >= 0) {
+            buffer.append("      ├── 📊 Compatibilidade: ")
+                  .append(EscritorJson.compatibilidade(possuidos, ingredientes.size())).append("%\n");
+        }
+
+        buffer.append("      ├── 🛒 Ingredientes:\n");
+        for (int i = 0; i < ingredientes.size(); i++) {
+            Ingrediente ing = ingredientes.get(i);
+            buffer.append("      │   ").append(possuidos >= 0 && possui[i] ? "✅ " : "   ")
+                  .append(ing.getQuantidade()).append(" de ").append(ing.getNome()).append('\n');
+        }
+
+        ArrayList<String> passos = receita.getPassos();
+        buffer.append("      └── 📝 MODO DE PREPARO:\n");
+        if (passos.isEmpty()) {
+            buffer.append("          (Passos não disponíveis)\n");
+        }
+        for (int i = 0; i < passos.size(); i++) {
+            buffer.append("          ").append(i + 1).append(". ").append(passos.get(i)).append('\n');
+        }
+    }
+
+    private void escreverCompacto(Receita receita, Usuario usuario, CatalogoReceitas catalogo) {
+        ArrayList<Ingrediente> ingredientes = receita.getIngredientes();
+        int possuidos = marcar(receita, ingredientes, usuario, catalogo);
+
+        escaparCompacto(receita.getNome());
+        buffer.append('\t').append(receita.getTempoPreparo());
+        buffer.append('\t').append(receita.isVegetariana() ? 'V' : 'N');
+        buffer.append('\t').append(possuidos >= 0 ? EscritorJson.compatibilidade(possuidos, ingredientes.size()) : 0);
+        buffer.append('\t');
+        for (int i = 0; i < ingredientes.size(); i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            if (possuidos >= 0 && possui[i]) {
+                buffer.append('+');
+            }
+            escaparCompacto(ingredientes.get(i).getNome());
+        }
+        buffer.append('\n');
+    }
+
+    private void escaparCompacto(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '\t': buffer.append("\\t"); break;
+                case '\n': buffer.append("\\n"); break;
+                case '\r': buffer.append("\\r"); break;
+                case ',':  buffer.append("\\,"); break;
+                case '+':  buffer.append(i == 0 ? "\\+" : "+"); break;
+                case '\\': buffer.append("\\\\"); break;
+                default:   buffer.append(c);
+            }
+        }
+    }
+
+    // ========== SAÍDA ==========
+
+    /**
+     * Copia o buffer para o Writer em blocos, sem criar uma String intermediária.
+     * Não dá flush.
+     */
+    public void escreverEm(Writer saida) throws IOException {
+        if (bloco == null) {
+            bloco = new char[TAMANHO_BLOCO];
+        }
+        for (int i = 0; i < buffer.length(); i += bloco.length) {
+            int fim = Math.min(buffer.length(), i + bloco.length);
+            buffer.getChars(i, fim, bloco, 0);
+            saida.write(bloco, 0, fim - i);
+        }
+    }
+
+    /**
+     * Escreve o buffer no console (ou outro PrintStream) de uma vez e dá flush.
+     */
+    public void escreverEm(PrintStream saida) {
+        saida.append(buffer);
+        saida.flush();
+    }
+
+    /**
+     * Codifica o buffer em UTF-8 no destino.
+     * @return Quantos bytes foram escritos
+     * @throws BufferOverflowException se não couber (o destino fica na posição original)
+     */
+    public int escreverEm(ByteBuffer destino) {
+        if (codificador == null) {
+            codificador = StandardCharsets.UTF_8.newEncoder();
+        }
+        int posicaoInicial = destino.position();
+        CharBuffer entrada = CharBuffer.wrap(buffer);
+        codificador.reset();
+        CoderResult resultado = codificador.encode(entrada, destino, true);
+        if (!resultado.isOverflow()) {
+            resultado = codificador.flush(destino);
+        }
+        if (resultado.isOverflow()) {
+            destino.position(posicaoInicial);
+            throw new BufferOverflowException();
+        }
+        return destino.position() - posicaoInicial;
+    }
+
+    /**
+     * O buffer em UTF-8, pronto para leitura (posição 0, limite no fim).
+     * Reutilizado: só vale até a próxima chamada neste renderizador.
+     */
+    public ByteBuffer codificar() {
+        int maximo = buffer.length() * 3; // UTF-16 → UTF-8: no máximo 3 bytes por char
+        if (bytes == null || bytes.capacity() < maximo) {
+            bytes = ByteBuffer.allocate(Math.max(maximo, CAPACIDADE_INICIAL));
+        }
+        bytes.clear();
+        escreverEm(bytes);
+        bytes.flip();
+        return bytes;
+    }
+
+    public int tamanho() {
+        return buffer.length();
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+}
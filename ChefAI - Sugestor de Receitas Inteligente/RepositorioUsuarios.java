@@ -0,0 +1,355 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistência local dos usuários (despensa, ingredientes que não gosta e restrições).
+ *
+ * Cada alteração feita em um usuário do repositório vira um registro no
+ * {@link LogEscritaAntecipada}. De tempos em tempos o estado de todos os
+ * usuários é gravado em um snapshot ("usuarios.snapshot") e os segmentos
+ * antigos do log são apagados. Na recuperação: lê o snapshot e reaplica
+ * só os registros do log posteriores a ele.
+ *
+ * Cada usuário guarda a sequência do último registro que o alterou; é ela que
+ * diz, na recuperação, quais registros do log já estão no snapshot.
+ *
+ * Uso:
+ *   RepositorioUsuarios repo = RepositorioUsuarios.abrir(Paths.get("dados"));
+ *   Usuario ana = repo.criar("Ana");
+ *   ana.adicionarIngrediente(new Ingrediente("ovo", 3)); // já vai para o log
+ */
+public class RepositorioUsuarios {
+    private static final String ARQUIVO_SNAPSHOT = "usuarios.snapshot";
+    private static final int MAGICO = 0x55535253; // "USRS"
+    private static final int VERSAO = 1;
+    private static final long REGISTROS_POR_SNAPSHOT =
+        Long.getLong("chefai.usuarios.registrosPorSnapshot", 1_000_000L);
+
+    private final Path diretorio;
+    private final Map<Long, Usuario> porId;
+    private final Map<String, Long> idPorNome;
+    private final AtomicLong proximoId;
+    private final LogEscritaAntecipada log;
+
+    private final AtomicLong registrosDesdeSnapshot;
+    private final AtomicBoolean compactando;
+    private final ExecutorService compactador;
+
+    private RepositorioUsuarios(Path diretorio, Map<Long, Usuario> porId, long maiorId,
+                                long ultimaSequencia) throws IOException {
+        this.diretorio = diretorio;
+        this.porId = porId;
+        this.idPorNome = new ConcurrentHashMap<>();
+        this.proximoId = new AtomicLong(maiorId + 1);
+        this.log = new LogEscritaAntecipada(diretorio, ultimaSequencia);
+        this.registrosDesdeSnapshot = new AtomicLong();
+        this.compactando = new AtomicBoolean();
+        this.compactador = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "chefai-usuarios-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ========== ABERTURA E RECUPERAÇÃO ==========
+
+    /**
+     * Abre (ou cria) o repositório: lê o snapshot, reaplica o log e
+     * passa a registrar as alterações dos usuários carregados.
+     */
+    public static RepositorioUsuarios abrir(Path diretorio) throws IOException {
+        long inicio = System.nanoTime();
+        Files.createDirectories(diretorio);
+
+        Map<Long, Usuario> porId = new ConcurrentHashMap<>();
+        Map<Long, OuvinteRegistro> ouvintes = new ConcurrentHashMap<>();
+        long[] maiorId = new long[1];
+
+        Path snapshot = diretorio.resolve(ARQUIVO_SNAPSHOT);
+        if (Files.isRegularFile(snapshot)) {
+            lerSnapshot(snapshot, porId, ouvintes, maiorId);
+        }
+        int doSnapshot = porId.size();
+
+        long[] reaplicados = new long[1];
+        long ultimaSequencia = LogEscritaAntecipada.reproduzir(diretorio, registro -> {
+            OuvinteRegistro ouvinte = ouvintes.get(registro.usuarioId);
+            if (ouvinte != null && registro.sequencia <= ouvinte.ultimaSequencia) {
+                return; // já está no snapshot
+            }
+            Usuario usuario = porId.get(registro.usuarioId);
+            if (usuario == null) {
+                usuario = new Usuario(registro.texto != null ? registro.texto : "");
+                porId.put(registro.usuarioId, usuario);
+                ouvinte = new OuvinteRegistro(registro.usuarioId);
+                ouvintes.put(registro.usuarioId, ouvinte);
+                maiorId[0] = Math.max(maiorId[0], registro.usuarioId);
+            }
+            aplicar(usuario, registro);
+            ouvinte.ultimaSequencia = registro.sequencia;
+            reaplicados[0]++;
+        });
+
+        RepositorioUsuarios repositorio = new RepositorioUsuarios(diretorio, porId, maiorId[0],
+            Math.max(ultimaSequencia, maiorSequencia(ouvintes)));
+        for (Map.Entry<Long, Usuario> entrada : porId.entrySet()) {
+            OuvinteRegistro ouvinte = ouvintes.get(entrada.getKey());
+            ouvinte.repositorio = repositorio;
+            repositorio.idPorNome.put(entrada.getValue().getNome(), entrada.getKey());
+            entrada.getValue().definirOuvinte(ouvinte);
+        }
+
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        Log.info(() -> "👥 " + porId.size() + " usuários recuperados (" + doSnapshot + " do snapshot, " +
+            reaplicados[0] + " registros do log) em " + ms + "ms");
+        return repositorio;
+    }
+
+    private static long maiorSequencia(Map<Long, OuvinteRegistro> ouvintes) {
+        long maior = 0;
+        for (OuvinteRegistro ouvinte : ouvintes.values()) {
+            maior = Math.max(maior, ouvinte.ultimaSequencia);
+        }
+        return maior;
+    }
+
+    /**
+     * Reaplica um registro do log (o usuário ainda não tem ouvinte, então nada é regravado).
+     */
+    private static void aplicar(Usuario usuario, LogEscritaAntecipada.Registro registro) {
+        switch (registro.operacao) {
+            case CRIAR:
+                break;
+            case NOME:
+                usuario.setNome(registro.texto);
+                break;
+            case ADICIONAR:
+                usuario.adicionarIngrediente(new Ingrediente(registro.texto, registro.valor));
+                break;
+            case REMOVER:
+                usuario.removerIngrediente(registro.texto);
+                break;
+            case NAO_GOSTA:
+                usuario.adicionarIngredienteNaoGosta(new Ingrediente(registro.texto, registro.valor));
+                break;
+            case VEGETARIANO:
+                usuario.setVegetariano(registro.valor != 0);
+                break;
+            case SEM_LACTOSE:
+                usuario.setSemLactose(registro.valor != 0);
+                break;
+            case SEM_GLUTEN:
+                usuario.setSemGluten(registro.valor != 0);
+                break;
+        }
+    }
+
+    // ========== USUÁRIOS ==========
+
+    /**
+     * Cria e registra um usuário novo. As alterações seguintes são persistidas.
+     */
+    public Usuario criar(String nome) {
+        long id = proximoId.getAndIncrement();
+        Usuario usuario = new Usuario(nome);
+        OuvinteRegistro ouvinte = new OuvinteRegistro(id);
+        ouvinte.repositorio = this;
+
+        // Entra no mapa (já com o ouvinte) antes do registro CRIAR: um snapshot
+        // feito depois da rotação do log sempre enxerga o usuário
+        usuario.definirOuvinte(ouvinte);
+        porId.put(id, usuario);
+        idPorNome.put(nome, id);
+        synchronized (usuario) {
+            ouvinte.aoAlterar(usuario, OuvinteUsuario.Operacao.CRIAR, nome, 0);
+        }
+        return usuario;
+    }
+
+    public Usuario buscar(long id) {
+        return porId.get(id);
+    }
+
+    public Usuario buscarPorNome(String nome) {
+        Long id = idPorNome.get(nome);
+        return id == null ? null : porId.get(id);
+    }
+
+    public int tamanho() {
+        return porId.size();
+    }
+
+    /**
+     * Espera todas as alterações feitas até agora chegarem ao disco.
+     */
+    public void sincronizar() throws IOException, InterruptedException {
+        log.aguardarDuravel(log.getUltimaSequencia());
+    }
+
+    /**
+     * Grava o que falta e fecha o log.
+     */
+    public void fechar() throws IOException, InterruptedException {
+        compactador.shutdown();
+        compactador.awaitTermination(1, TimeUnit.MINUTES);
+        log.fechar();
+    }
+
+    // ========== SNAPSHOT ==========
+
+    /**
+     * Grava o estado de todos os usuários e apaga o log já coberto por ele.
+     * As alterações continuam sendo aceitas durante a compactação.
+     */
+    public synchronized void compactar() throws IOException, InterruptedException {
+        long corte = log.rotacionar();
+        registrosDesdeSnapshot.set(0);
+
+        Path temporario = diretorio.resolve(ARQUIVO_SNAPSHOT + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                 Channels.newOutputStream(canal), 1 << 20))) {
+            out.writeInt(MAGICO);
+            out.writeInt(VERSAO);
+            for (Map.Entry<Long, Usuario> entrada : porId.entrySet()) {
+                escreverUsuario(out, entrada.getKey(), entrada.getValue());
+            }
+            out.writeLong(-1); // fim
+            out.flush();
+            canal.force(true);
+        }
+        Files.move(temporario, diretorio.resolve(ARQUIVO_SNAPSHOT),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        LogEscritaAntecipada.apagarAntesDe(diretorio, corte);
+        Log.info(() -> "💾 Snapshot com " + porId.size() + " usuários gravado");
+    }
+
+    /**
+     * Lê o estado e a última sequência juntos, com o lock do usuário.
+     */
+    private static void escreverUsuario(DataOutputStream out, long id, Usuario usuario) throws IOException {
+        String nome;
+        boolean vegetariano;
+        boolean semLactose;
+        boolean semGluten;
+        List<Ingrediente> disponiveis;
+        List<Ingrediente> naoGosta;
+        long sequencia;
+        synchronized (usuario) {
+            nome = usuario.getNome();
+            vegetariano = usuario.isVegetariano();
+            semLactose = usuario.isSemLactose();
+            semGluten = usuario.isSemGluten();
+            disponiveis = usuario.getIngredientesDisponiveis();
+            naoGosta = usuario.getIngredientesNaoGosta();
+            sequencia = ((OuvinteRegistro) usuario.getOuvinte()).ultimaSequencia;
+        }
+
+        out.writeLong(id);
+        out.writeLong(sequencia);
+        out.writeUTF(nome);
+        out.writeBoolean(vegetariano);
+        out.writeBoolean(semLactose);
+        out.writeBoolean(semGluten);
+        escreverIngredientes(out, disponiveis);
+        escreverIngredientes(out, naoGosta);
+    }
+
+    private static void escreverIngredientes(DataOutputStream out, List<Ingrediente> ingredientes) throws IOException {
+        out.writeInt(ingredientes.size());
+        for (Ingrediente ingrediente : ingredientes) {
+            out.writeUTF(ingrediente.getNome());
+            out.writeInt(ingrediente.getQuantidade());
+        }
+    }
+
+    private static void lerSnapshot(Path arquivo, Map<Long, Usuario> porId,
+                                    Map<Long, OuvinteRegistro> ouvintes, long[] maiorId) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo), 1 << 20))) {
+            if (in.readInt() != MAGICO || in.readInt() != VERSAO) {
+                throw new IOException("formato de snapshot de usuários desconhecido");
+            }
+            long id;
+            while ((id = in.readLong()) >= 0) {
+                OuvinteRegistro ouvinte = new OuvinteRegistro(id);
+                ouvinte.ultimaSequencia = in.readLong();
+                Usuario usuario = new Usuario(in.readUTF());
+                usuario.setVegetariano(in.readBoolean());
+                usuario.setSemLactose(in.readBoolean());
+                usuario.setSemGluten(in.readBoolean());
+                int total = in.readInt();
+                for (int i = 0; i < total; i++) {
+                    usuario.adicionarIngrediente(new Ingrediente(in.readUTF(), in.readInt()));
+                }
+                total = in.readInt();
+                for (int i = 0; i < total; i++) {
+                    usuario.adicionarIngredienteNaoGosta(new Ingrediente(in.readUTF(), in.readInt()));
+                }
+
+                porId.put(id, usuario);
+                ouvintes.put(id, ouvinte);
+                maiorId[0] = Math.max(maiorId[0], id);
+            }
+        }
+    }
+
+    private void agendarCompactacao() {
+        if (compactando.compareAndSet(false, true)) {
+            compactador.execute(() -> {
+                try {
+                    compactar();
+                } catch (Exception e) {
+                    Log.erro("❌ Erro gravando snapshot de usuários: " + e.getMessage());
+                } finally {
+                    compactando.set(false);
+                }
+            });
+        }
+    }
+
+    // ========== OUVINTE ==========
+
+    /**
+     * Anexa as alterações de um usuário ao log. Chamado com o lock do usuário,
+     * o que mantém a ordem do log igual à ordem das alterações.
+     */
+    private static final class OuvinteRegistro implements OuvinteUsuario {
+        final long id;
+        long ultimaSequencia;                // guardada pelo lock do usuário
+        RepositorioUsuarios repositorio;
+
+        OuvinteRegistro(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void aoAlterar(Usuario usuario, Operacao operacao, String texto, int valor) {
+            ultimaSequencia = repositorio.log.anexar(id, operacao, texto, valor);
+            if (operacao == Operacao.NOME) {
+                repositorio.idPorNome.put(texto, id);
+            }
+            if (repositorio.registrosDesdeSnapshot.incrementAndGet() >= REGISTROS_POR_SNAPSHOT) {
+                repositorio.agendarCompactacao();
+            }
+        }
+    }
+}
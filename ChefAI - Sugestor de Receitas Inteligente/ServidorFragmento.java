@@ -0,0 +1,105 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Publica um {@link FragmentoCatalogo} em um socket local para o
+ * {@link CoordenadorFragmentos} de outro processo (ver {@link TransporteSocket}).
+ *
+ * Uso: java ServidorFragmento porta indice total
+ *      java ServidorFragmento porta arquivo.snapshot
+ * Com "indice total" o processo fica com a sua parte do catálogo atual;
+ * com um snapshot, serve o catálogo inteiro daquele arquivo.
+ */
+public class ServidorFragmento {
+    private final FragmentoCatalogo fragmento;
+    private ServerSocket servidor;
+
+    public ServidorFragmento(FragmentoCatalogo fragmento) {
+        this.fragmento = fragmento;
+    }
+
+    /**
+     * Começa a aceitar conexões em uma thread daemon (uma thread por conexão).
+     */
+    public void iniciar(int porta) throws IOException {
+        servidor = new ServerSocket(porta, 128, InetAddress.getLoopbackAddress());
+        Thread aceitador = new Thread(this::aceitar, "chefai-fragmento-" + porta);
+        aceitador.setDaemon(true);
+        aceitador.start();
+        Log.info("🧩 " + fragmento.getDescricao() + " ouvindo na porta " + servidor.getLocalPort());
+    }
+
+    public int getPorta() {
+        return servidor.getLocalPort();
+    }
+
+    public void parar() throws IOException {
+        servidor.close();
+    }
+
+    private void aceitar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                socket.setTcpNoDelay(true);
+                Thread atendente = new Thread(() -> atender(socket), "chefai-fragmento-conexao");
+                atendente.setDaemon(true);
+                atendente.start();
+            } catch (IOException e) {
+                if (!servidor.isClosed()) {
+                    Log.aviso("⚠️  Erro aceitando conexão: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            int[] k = new int[1];
+            while (true) {
+                Usuario usuario = TransporteSocket.lerPergunta(in, k);
+                List<ReceitaPontuada> melhores = fragmento.buscarMelhores(usuario, k[0]);
+                TransporteSocket.escreverResposta(out, melhores);
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // cliente fechou a conexão
+        } catch (IOException e) {
+            Log.aviso("⚠️  Conexão com o coordenador encerrada: " + e.getMessage());
+        }
+    }
+
+    // ========== LINHA DE COMANDO ==========
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Uso: java ServidorFragmento porta indice total");
+            System.out.println("     java ServidorFragmento porta arquivo.snapshot");
+            return;
+        }
+
+        int porta = Integer.parseInt(args[0]);
+        FragmentoCatalogo fragmento;
+        if (args.length >= 3) {
+            int indice = Integer.parseInt(args[1]);
+            int total = Integer.parseInt(args[2]);
+            fragmento = FragmentoCatalogo.fragmento(CatalogoReceitas.atual(), indice, total);
+        } else {
+            fragmento = new FragmentoCatalogo(args[1], SnapshotCatalogo.carregar(Paths.get(args[1])));
+        }
+
+        new ServidorFragmento(fragmento).iniciar(porta);
+        Thread.currentThread().join(); // roda até o processo ser encerrado
+    }
+}
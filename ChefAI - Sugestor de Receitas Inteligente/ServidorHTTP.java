@@ -0,0 +1,291 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serviço HTTP de sugestões de receitas.
+ *
+ * Endpoints:
+ *   POST /sugestoes  corpo JSON com o usuário (ver {@link LeitorJson#lerPedido}),
+ *                    mais os campos opcionais "sugestor" (padrão "rapido"), "usarApi" e
+ *                    "formato" ("json", padrão; "texto" ou "compacto", ver {@link RenderizadorResultados})
+ *   GET  /saude      verificação de saúde
+ *   GET  /metricas   relatório de latências em texto
+ *
+ * As requisições rodam em um pool fixo de threads de plataforma. Não usamos
+ * virtual threads: os buffers por thread (rascunho do catálogo, EscritorJson,
+ * RenderizadorResultados) seriam recriados a cada requisição.
+ *
+ * Pedidos com "usarApi" bloqueiam por segundos na API externa, então vão para um
+ * pool próprio e pequeno (-Dchefai.http.threadsApi) que responde de lá mesmo. Com a
+ * fila desse pool cheia a resposta é 503; o pool principal só faz trabalho local.
+ */
+public class ServidorHTTP {
+    public static final int PORTA_PADRAO = 8080;
+    private static final int TAMANHO_MAXIMO_CORPO = 64 * 1024; // 64 KB
+    private static final int THREADS = Integer.getInteger("chefai.http.threads",
+        Runtime.getRuntime().availableProcessors() * 2);
+    private static final int FILA_MAXIMA = 1024; // requisições esperando thread
+    private static final int THREADS_API = Integer.getInteger("chefai.http.threadsApi", 4);
+    private static final int FILA_MAXIMA_API = 64; // chamadas à API esperando thread
+    private static final byte[] CAMPO_USUARIO = EscritorJson.campo("usuario");
+    private static final byte[] CAMPO_FONTE = EscritorJson.campo("fonte");
+    private static final byte[] CAMPO_RECEITAS = EscritorJson.campo("receitas");
+
+    private final Map<String, SugestorBase> sugestores;
+    private final APIService apiService;
+    private HttpServer servidor;
+    private ExecutorService executor;
+    private ExecutorService executorApi;
+
+    public ServidorHTTP() {
+        this.sugestores = new ConcurrentHashMap<>();
+        this.apiService = new APIService();
+        registrarSugestor("rapido", new SugestorRapido());
+    }
+
+    /**
+     * Disponibiliza um sugestor pelo nome no campo "sugestor" da requisição.
+     */
+    public void registrarSugestor(String nome, SugestorBase sugestor) {
+        sugestores.put(nome, sugestor);
+    }
+
+    // ========== CICLO DE VIDA ==========
+
+    public void iniciar(int porta) throws IOException {
+        CatalogoReceitas.atual(); // carrega o catálogo antes de aceitar requisições
+
+        servidor = HttpServer.create(new InetSocketAddress(porta), 1024);
+        executor = criarExecutor("chefai-http-", THREADS, FILA_MAXIMA, new ThreadPoolExecutor.CallerRunsPolicy());
+        executorApi = criarExecutor("chefai-http-api-", THREADS_API, FILA_MAXIMA_API, new ThreadPoolExecutor.AbortPolicy());
+        servidor.setExecutor(executor);
+
+        servidor.createContext("/sugestoes", this::tratarSugestoes);
+        servidor.createContext("/saude", this::tratarSaude);
+        servidor.createContext("/metricas", this::tratarMetricas);
+
+        servidor.start();
+        Log.info("🌐 Servidor ChefAI ouvindo na porta " + porta);
+    }
+
+    public void parar() {
+        if (servidor != null) {
+            servidor.stop(1);
+            executor.shutdown();
+            executorApi.shutdown();
+        }
+    }
+
+    /**
+     * Pool fixo com fila limitada. No pool principal a política é CallerRuns: com a
+     * fila cheia a thread do próprio servidor atende (só trabalho local, de
+     * microssegundos), o que segura a aceitação de novas conexões. No pool da API a
+     * política é Abort e o pedido recusado vira 503.
+     */
+    private static ExecutorService criarExecutor(String prefixo, int threads, int fila,
+                                                 RejectedExecutionHandler politica) {
+        AtomicInteger contador = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(fila),
+            tarefa -> {
+                Thread thread = new Thread(tarefa, prefixo + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            politica);
+    }
+
+    // ========== ENDPOINTS ==========
+
+    private void tratarSugestoes(HttpExchange troca) throws IOException {
+        try {
+            if (!metodoPermitido(troca, "POST")) {
+                return;
+            }
+
+            byte[] corpo = lerCorpo(troca);
+            if (corpo == null) {
+                responder(troca, 413, "{\"erro\":\"corpo maior que " + TAMANHO_MAXIMO_CORPO + " bytes\"}");
+                return;
+            }
+
+            LeitorJson.Pedido pedido = LeitorJson.lerPedido(corpo);
+            Usuario usuario = pedido.getUsuario();
+            String nomeSugestor = pedido.getSugestor() != null ? pedido.getSugestor() : "rapido";
+            boolean usarApi = pedido.isUsarApi();
+            RenderizadorResultados.Formato formato = RenderizadorResultados.Formato.de(
+                pedido.getFormato(), RenderizadorResultados.Formato.JSON);
+
+            if (usarApi) {
+                try {
+                    // A thread da API responde; esta volta logo para o pool principal
+                    executorApi.execute(() -> responderApi(troca, usuario, formato));
+                } catch (RejectedExecutionException e) {
+                    troca.getResponseHeaders().set("Retry-After", "1");
+                    responder(troca, 503, "{\"erro\":\"fila da API cheia, tente novamente\"}");
+                }
+                return;
+            }
+
+            SugestorBase sugestor = sugestores.get(nomeSugestor);
+            if (sugestor == null) {
+                responder(troca, 400, "{\"erro\":\"sugestor desconhecido\"}");
+                return;
+            }
+            responderReceitas(troca, usuario, sugestor.sugerirComDespensasQuentes(usuario), nomeSugestor, formato);
+
+        } catch (IllegalArgumentException e) {
+            StringBuilder sb = new StringBuilder("{\"erro\":");
+            ConversorJson.escreverTexto(sb, e.getMessage());
+            responder(troca, 400, sb.append('}').toString());
+        } catch (Exception e) {
+            Log.erro("❌ Erro ao tratar /sugestoes: " + e);
+            responder(troca, 500, "{\"erro\":\"erro interno\"}");
+        }
+    }
+
+    /**
+     * Roda no pool da API: chama a API externa e responde a troca.
+     */
+    private void responderApi(HttpExchange troca, Usuario usuario, RenderizadorResultados.Formato formato) {
+        try {
+            responderReceitas(troca, usuario, apiService.buscarReceitas(usuario), "api", formato);
+        } catch (Exception e) {
+            Log.erro("❌ Erro ao tratar /sugestoes pela API: " + e);
+            try {
+                responder(troca, 500, "{\"erro\":\"erro interno\"}");
+            } catch (IOException ignorada) {
+                troca.close();
+            }
+        }
+    }
+
+    private static void responderReceitas(HttpExchange troca, Usuario usuario, ArrayList<Receita> receitas,
+                                          String fonte, RenderizadorResultados.Formato formato) throws IOException {
+        if (formato == RenderizadorResultados.Formato.JSON) {
+            // Bytes UTF-8 direto, sem passar por String
+            EscritorJson json = EscritorJson.local();
+            json.simbolo('{').campo(CAMPO_USUARIO).texto(usuario.getNome());
+            json.simbolo(',').campo(CAMPO_FONTE).texto(fonte);
+            json.simbolo(',').campo(CAMPO_RECEITAS).receitas(receitas, usuario).simbolo('}');
+            responder(troca, 200, "application/json; charset=utf-8", json.comoByteBuffer());
+        } else {
+            RenderizadorResultados renderizador = RenderizadorResultados.local()
+                .renderizar(receitas, usuario, formato);
+            responder(troca, 200, "text/plain; charset=utf-8", renderizador.codificar());
+        }
+    }
+
+    private void tratarSaude(HttpExchange troca) throws IOException {
+        if (!metodoPermitido(troca, "GET")) {
+            return;
+        }
+        lerCorpo(troca);
+        responder(troca, 200, "{\"status\":\"ok\",\"receitas\":" + CatalogoReceitas.atual().tamanho() + "}");
+    }
+
+    private void tratarMetricas(HttpExchange troca) throws IOException {
+        if (!metodoPermitido(troca, "GET")) {
+            return;
+        }
+        lerCorpo(troca);
+        byte[] bytes = Metricas.getInstancia().getRelatorio().getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        troca.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = troca.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // ========== AUXILIARES ==========
+
+    /**
+     * Responde 405 (com o cabeçalho Allow) se o método não for o esperado.
+     */
+    private static boolean metodoPermitido(HttpExchange troca, String metodo) throws IOException {
+        if (metodo.equals(troca.getRequestMethod())) {
+            return true;
+        }
+        lerCorpo(troca);
+        troca.getResponseHeaders().set("Allow", metodo);
+        responder(troca, 405, "{\"erro\":\"use " + metodo + "\"}");
+        return false;
+    }
+
+    /**
+     * Lê o corpo inteiro (necessário para reaproveitar a conexão).
+     *
+     * @return O corpo ou null se passar do limite
+     */
+    private static byte[] lerCorpo(HttpExchange troca) throws IOException {
+        String declarado = troca.getRequestHeaders().getFirst("Content-Length");
+        if (declarado != null) {
+            try {
+                if (Long.parseLong(declarado.trim()) > TAMANHO_MAXIMO_CORPO) {
+                    return null;
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        try (InputStream in = troca.getRequestBody()) {
+            byte[] corpo = in.readNBytes(TAMANHO_MAXIMO_CORPO + 1);
+            return corpo.length > TAMANHO_MAXIMO_CORPO ? null : corpo;
+        }
+    }
+
+    private static void responder(HttpExchange troca, int status, String json) throws IOException {
+        responder(troca, status, "application/json; charset=utf-8",
+            ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Responde com os bytes entre a posição e o limite de {@code corpo} (um heap buffer).
+     */
+    private static void responder(HttpExchange troca, int status, String tipo, ByteBuffer corpo)
+            throws IOException {
+        troca.getResponseHeaders().set("Content-Type", tipo);
+        troca.sendResponseHeaders(status, corpo.remaining());
+        try (OutputStream out = troca.getResponseBody()) {
+            out.write(corpo.array(), corpo.arrayOffset() + corpo.position(), corpo.remaining());
+        }
+    }
+
+    // ========== EXECUÇÃO ==========
+
+    /**
+     * Inicia o servidor: java ServidorHTTP [porta]
+     *
+     * Ajusta as conexões persistentes do HttpServer do JDK (propriedades globais da JVM,
+     * por isso ficam aqui e não em {@link #iniciar}); valores passados com -D prevalecem.
+     */
+    public static void main(String[] args) throws IOException {
+        // Keep-alive: mantém até 1000 conexões ociosas por 30s
+        if (System.getProperty("sun.net.httpserver.idleInterval") == null) {
+            System.setProperty("sun.net.httpserver.idleInterval", "30");
+        }
+        if (System.getProperty("sun.net.httpserver.maxIdleConnections") == null) {
+            System.setProperty("sun.net.httpserver.maxIdleConnections", "1000");
+        }
+
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : PORTA_PADRAO;
+        new ServidorHTTP().iniciar(porta);
+    }
+}
@@ -0,0 +1,179 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Sessão de edição da despensa de um usuário.
+ *
+ * Guarda quantos ingredientes de cada receita o usuário tem e mantém as receitas
+ * ordenadas por compatibilidade. Ao adicionar ou remover um ingrediente só as
+ * receitas da posting list dele são atualizadas, sem varrer o catálogo.
+ *
+ * Não é thread-safe: uma sessão pertence a um usuário editando a despensa.
+ */
+public class SessaoDespensa {
+    private final Usuario usuario;
+    private final CatalogoReceitas catalogo;
+    private final int k;
+
+    private final int[] acertos;                 // por id de receita
+    private final int[] compatibilidade;         // por id de receita (0 se não tocada)
+    private final Map<Integer, Integer> usos;    // id de ingrediente → entradas na despensa
+    private final Map<Ingrediente, ArrayDeque<Integer>> idsResolvidos; // entrada → id na hora em que entrou
+    private final TreeSet<Integer> ranking;      // receitas tocadas, melhor primeiro
+
+    /**
+     * Cria a sessão a partir da despensa atual do usuário.
+     * @param usuario O usuário
+     * @param catalogo Catálogo consultado (fixo durante a sessão)
+     * @param k Quantas receitas manter no topo
+     */
+    public SessaoDespensa(Usuario usuario, CatalogoReceitas catalogo, int k) {
+        this.usuario = usuario;
+        this.catalogo = catalogo;
+        this.k = k;
+        this.acertos = new int[catalogo.tamanho()];
+        this.compatibilidade = new int[catalogo.tamanho()];
+        this.usos = new HashMap<>();
+        this.idsResolvidos = new IdentityHashMap<>();
+        this.ranking = new TreeSet<>((a, b) -> {
+            if (compatibilidade[a] != compatibilidade[b]) {
+                return Integer.compare(compatibilidade[b], compatibilidade[a]);
+            }
+            int tempoA = catalogo.getReceita(a).getTempoPreparo();
+            int tempoB = catalogo.getReceita(b).getTempoPreparo();
+            if (tempoA != tempoB) {
+                return Integer.compare(tempoA, tempoB);
+            }
+            return Integer.compare(a, b);
+        });
+
+        for (Ingrediente ingrediente : usuario.getIngredientesDisponiveis()) {
+            entrar(ingrediente);
+        }
+    }
+
+    public SessaoDespensa(Usuario usuario, int k) {
+        this(usuario, CatalogoReceitas.atual(), k);
+    }
+
+    // ========== EDIÇÃO ==========
+
+    /**
+     * Adiciona o ingrediente ao usuário e atualiza só as receitas que o usam.
+     */
+    public void adicionarIngrediente(Ingrediente ingrediente) {
+        usuario.adicionarIngrediente(ingrediente);
+        entrar(ingrediente);
+    }
+
+    /**
+     * Remove o ingrediente do usuário e atualiza só as receitas que o usam.
+     * @return true se removeu, false se não encontrou
+     */
+    public boolean removerIngrediente(String nomeIngrediente) {
+        Ingrediente existente = usuario.getIngrediente(nomeIngrediente);
+        if (existente == null || !usuario.removerIngrediente(nomeIngrediente)) {
+            return false;
+        }
+        contar(sair(existente), -1);
+        return true;
+    }
+
+    /**
+     * Resolve o nome uma vez só, na entrada. O dicionário pode ganhar termos
+     * durante a sessão (ingestão da API) e a mesma entrada passar a resolver
+     * para outro id; a remoção tem que desfazer o id que foi somado.
+     */
+    private void entrar(Ingrediente ingrediente) {
+        int id = catalogo.getDicionario().resolver(ingrediente.getNome());
+        idsResolvidos.computeIfAbsent(ingrediente, i -> new ArrayDeque<>()).push(id);
+        contar(id, +1);
+    }
+
+    private int sair(Ingrediente ingrediente) {
+        ArrayDeque<Integer> ids = idsResolvidos.get(ingrediente);
+        if (ids == null) {
+            return -1; // não passou por esta sessão: nunca foi somado
+        }
+        int id = ids.pop();
+        if (ids.isEmpty()) {
+            idsResolvidos.remove(ingrediente);
+        }
+        return id;
+    }
+
+    /**
+     * Um mesmo id pode vir de várias entradas ("ovo" e "ovos"); a receita
+     * só ganha ou perde o acerto na primeira entrada e na última.
+     */
+    private void contar(int id, int delta) {
+        if (id < 0) {
+            return;
+        }
+
+        int antes = usos.getOrDefault(id, 0);
+        int depois = antes + delta;
+        if (depois <= 0) {
+            usos.remove(id);
+        } else {
+            usos.put(id, depois);
+        }
+        if ((antes == 0) == (depois == 0)) {
+            return;
+        }
+
+        for (int receita : catalogo.getPostings(id)) {
+            if (acertos[receita] > 0) {
+                ranking.remove(receita); // sai antes de mudar a chave de ordenação
+            }
+            acertos[receita] += delta;
+            compatibilidade[receita] = catalogo.calcularCompatibilidade(receita, acertos[receita]);
+            if (acertos[receita] > 0) {
+                ranking.add(receita);
+            }
+        }
+    }
+
+    // ========== CONSULTA ==========
+
+    /**
+     * As k receitas mais compatíveis que respeitam as restrições do usuário
+     * e não têm nada que ele não gosta.
+     */
+    public ArrayList<Receita> getMelhores() {
+        long[] permitidas = catalogo.permitidasPara(usuario);
+        ArrayList<Receita> melhores = new ArrayList<>(k);
+        for (int id : ranking) {
+            if (melhores.size() == k) {
+                break;
+            }
+            if (ColunasCatalogo.contem(permitidas, id)) {
+                melhores.add(catalogo.getReceita(id));
+            }
+        }
+        return melhores;
+    }
+
+    /**
+     * Quantos ingredientes da receita o usuário tem agora.
+     */
+    public int getAcertos(int receitaId) {
+        return acertos[receitaId];
+    }
+
+    public int getCompatibilidade(int receitaId) {
+        return compatibilidade[receitaId];
+    }
+
+    public Usuario getUsuario() {
+        return usuario;
+    }
+
+    public CatalogoReceitas getCatalogo() {
+        return catalogo;
+    }
+}
@@ -0,0 +1,80 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch: frequência aproximada de chaves de 64 bits em memória fixa.
+ *
+ * São {@code profundidade} linhas de {@code largura} contadores; cada chave cai
+ * em um contador por linha e a estimativa é o menor deles. Nunca subestima
+ * (a não ser por incrementos perdidos em corrida); superestima só por colisões.
+ * Usa atualização conservadora: só sobem os contadores que estão no mínimo.
+ *
+ * {@link #envelhecer()} divide tudo por 2, para que chaves que pararam de
+ * aparecer esfriem com o tempo. Thread-safe e sem locks.
+ */
+public class SketchContagemMinima {
+    private final int largura;       // potência de 2
+    private final int profundidade;
+    private final AtomicIntegerArray contadores; // linha * largura + coluna
+
+    /**
+     * @param largura Contadores por linha (arredondada para cima até potência de 2)
+     * @param profundidade Número de linhas (funções de hash)
+     */
+    public SketchContagemMinima(int largura, int profundidade) {
+        this.largura = Integer.highestOneBit(Math.max(2, largura - 1)) << 1;
+        this.profundidade = profundidade;
+        this.contadores = new AtomicIntegerArray(this.largura * profundidade);
+    }
+
+    /**
+     * Conta mais uma ocorrência da chave.
+     * @return A estimativa de frequência já com esta ocorrência
+     */
+    public int adicionar(long chave) {
+        int minimo = estimar(chave);
+        if (minimo == Integer.MAX_VALUE) {
+            return minimo;
+        }
+        for (int linha = 0; linha < profundidade; linha++) {
+            int i = indice(chave, linha);
+            if (contadores.get(i) == minimo) {
+                contadores.compareAndSet(i, minimo, minimo + 1); // se perder a corrida, outro já subiu
+            }
+        }
+        return minimo + 1;
+    }
+
+    public int estimar(long chave) {
+        int minimo = Integer.MAX_VALUE;
+        for (int linha = 0; linha < profundidade; linha++) {
+            minimo = Math.min(minimo, contadores.get(indice(chave, linha)));
+        }
+        return minimo;
+    }
+
+    /**
+     * Divide todos os contadores por 2.
+     */
+    public void envelhecer() {
+        for (int i = 0; i < contadores.length(); i++) {
+            contadores.updateAndGet(i, valor -> valor >>> 1);
+        }
+    }
+
+    /**
+     * Memória dos contadores (não muda com o número de chaves).
+     */
+    public int getBytes() {
+        return contadores.length() * Integer.BYTES;
+    }
+
+    /**
+     * Coluna da chave em uma linha: h1 + linha * h2 (duplo hash a partir das
+     * duas metades da chave, que já deve vir bem misturada).
+     */
+    private int indice(long chave, int linha) {
+        int h1 = (int) chave;
+        int h2 = (int) (chave >>> 32) | 1;
+        return linha * largura + ((h1 + linha * h2) & (largura - 1));
+    }
+}
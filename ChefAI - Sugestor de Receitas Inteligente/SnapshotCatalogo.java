@@ -0,0 +1,168 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot binário do catálogo já indexado (dicionário, receitas e posting lists).
+ *
+ * Carregar o snapshot é uma única leitura do arquivo seguida de decodificação
+ * em memória, sem reconstruir o índice. Os passos ficam gravados já
+ * comprimidos, no formato do {@link ArmazemPassos}, e são copiados direto
+ * para ele. Usado para inicialização rápida.
+ *
+ * Para gerar: java SnapshotCatalogo [arquivo]
+ */
+public class SnapshotCatalogo {
+    public static final String ARQUIVO_PADRAO = "catalogo.snapshot";
+
+    private static final int MAGICO = 0x43484546; // "CHEF"
+    private static final int VERSAO = 3; // 2: nomes canônicos sem acento e no singular; 3: passos comprimidos
+
+    // ========== GRAVAÇÃO ==========
+
+    public static void salvar(CatalogoReceitas catalogo, Path arquivo) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(arquivo), 1 << 16))) {
+            out.writeInt(MAGICO);
+            out.writeInt(VERSAO);
+
+            // Dicionário (a posição é o id)
+            DicionarioIngredientes dicionario = catalogo.getDicionario();
+            int totalIngredientes = catalogo.getTotalPostings();
+            out.writeInt(totalIngredientes);
+            for (int i = 0; i < totalIngredientes; i++) {
+                escreverTexto(out, dicionario.getNome(i));
+            }
+
+            // Cabeçalhos e conteúdo das receitas
+            out.writeInt(catalogo.tamanho());
+            for (Receita receita : catalogo.getReceitas()) {
+                escreverTexto(out, receita.getNome());
+                out.writeInt(receita.getTempoPreparo());
+                out.writeBoolean(receita.isVegetariana());
+
+                ArrayList<Ingrediente> ingredientes = receita.getIngredientes();
+                out.writeInt(ingredientes.size());
+                for (Ingrediente ingrediente : ingredientes) {
+                    escreverTexto(out, ingrediente.getNome());
+                    out.writeInt(ingrediente.getQuantidade());
+                }
+
+                int passos = receita.getPassosGuardados();
+                if (passos >= 0) {
+                    ArmazemPassos.padrao().escreverRegistro(passos, out);
+                } else {
+                    ArmazemPassos.escreverRegistro(receita.getPassos(), out);
+                }
+            }
+
+            // Índices
+            for (int r = 0; r < catalogo.tamanho(); r++) {
+                escreverInteiros(out, catalogo.getIngredientes(r));
+            }
+            for (int i = 0; i < totalIngredientes; i++) {
+                escreverInteiros(out, catalogo.getPostings(i));
+            }
+        }
+    }
+
+    private static void escreverTexto(DataOutputStream out, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void escreverInteiros(DataOutputStream out, int[] valores) throws IOException {
+        out.writeInt(valores.length);
+        for (int valor : valores) {
+            out.writeInt(valor);
+        }
+    }
+
+    // ========== LEITURA ==========
+
+    /**
+     * Lê o arquivo inteiro de uma vez e monta o catálogo sem reindexar.
+     */
+    public static CatalogoReceitas carregar(Path arquivo) throws IOException {
+        byte[] dados = Files.readAllBytes(arquivo);
+        ByteBuffer buffer = ByteBuffer.wrap(dados);
+
+        try {
+            if (buffer.getInt() != MAGICO || buffer.getInt() != VERSAO) {
+                throw new IOException("formato de snapshot desconhecido");
+            }
+
+            DicionarioIngredientes dicionario = new DicionarioIngredientes();
+            int totalIngredientes = buffer.getInt();
+            for (int i = 0; i < totalIngredientes; i++) {
+                if (dicionario.registrar(lerTexto(buffer, dados)) != i) {
+                    throw new IOException("dicionário inconsistente");
+                }
+            }
+
+            ArmazemPassos armazem = ArmazemPassos.padrao();
+            int totalReceitas = buffer.getInt();
+            List<Receita> receitas = new ArrayList<>(totalReceitas);
+            for (int r = 0; r < totalReceitas; r++) {
+                Receita receita = new Receita(lerTexto(buffer, dados), buffer.getInt(), buffer.get() != 0);
+
+                int totalIngredientesReceita = buffer.getInt();
+                for (int i = 0; i < totalIngredientesReceita; i++) {
+                    receita.adicionarIngrediente(new Ingrediente(lerTexto(buffer, dados), buffer.getInt()));
+                }
+
+                receita.definirPassosGuardados(armazem.guardarRegistro(buffer));
+                receitas.add(receita);
+            }
+
+            int[][] porReceita = new int[totalReceitas][];
+            for (int r = 0; r < totalReceitas; r++) {
+                porReceita[r] = lerInteiros(buffer);
+            }
+            int[][] postings = new int[totalIngredientes][];
+            for (int i = 0; i < totalIngredientes; i++) {
+                postings[i] = lerInteiros(buffer);
+            }
+
+            return new CatalogoReceitas(dicionario, receitas.toArray(new Receita[0]), porReceita, postings);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("snapshot truncado");
+        }
+    }
+
+    private static String lerTexto(ByteBuffer buffer, byte[] dados) {
+        int tamanho = buffer.getInt();
+        String texto = new String(dados, buffer.position(), tamanho, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + tamanho);
+        return texto;
+    }
+
+    private static int[] lerInteiros(ByteBuffer buffer) {
+        int[] valores = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(valores);
+        buffer.position(buffer.position() + valores.length * 4);
+        return valores;
+    }
+
+    // ========== FERRAMENTA DE LINHA DE COMANDO ==========
+
+    /**
+     * Gera o snapshot a partir do catálogo atual.
+     */
+    public static void main(String[] args) throws IOException {
+        Path destino = Paths.get(args.length > 0 ? args[0] : ARQUIVO_PADRAO);
+        CatalogoReceitas catalogo = CatalogoReceitas.atual();
+        salvar(catalogo, destino);
+        System.out.println("✅ Snapshot com " + catalogo.tamanho() + " receitas gravado em " +
+            destino.toAbsolutePath() + " (" + Files.size(destino) + " bytes)");
+    }
+}
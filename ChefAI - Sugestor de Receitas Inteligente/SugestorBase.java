@@ -1,4 +1,10 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Classe abstrata base para todos os sugestores de receita.
@@ -20,6 +26,235 @@ public abstract class SugestorBase {
      */
     public abstract ArrayList<Receita> sugerirReceitas(Usuario usuario);
     
+    // ========== CACHE DE SUGESTÕES ==========
+    
+    private final CacheSugestoes cache =
+        new CacheSugestoes(Integer.getInteger("chefai.cache.sugestoes", 1024));
+    
+    /**
+     * Igual a sugerirReceitas(), mas reaproveita o resultado enquanto o usuário
+     * (mesmo objeto, mesma versão) e o catálogo forem os mesmos. O cache é desta
+     * instância. Serve para usuários que ficam vivos entre consultas (app aberto,
+     * repositório de usuários); para usuários avulsos veja sugerirComDespensasQuentes().
+     * 
+     * @param usuario O usuário para quem sugerir receitas
+     * @param limite Número máximo de receitas
+     * @return Lista de receitas sugeridas (cópia, pode ser alterada)
+     */
+    public ArrayList<Receita> sugerirComCache(Usuario usuario, int limite) {
+        CatalogoReceitas catalogo = getCatalogo();
+        ArrayList<Receita> guardadas = cache.buscar(usuario, limite, catalogo);
+        if (guardadas != null) {
+            Metricas.contarCacheHit();
+            return new ArrayList<>(guardadas);
+        }
+        
+        long versao = usuario.getVersao();
+        ArrayList<Receita> receitas = limitarReceitas(sugerirComDespensasQuentes(usuario), limite);
+        cache.guardar(usuario, versao, limite, catalogo, new ArrayList<>(receitas));
+        return receitas;
+    }
+    
+    public ArrayList<Receita> sugerirComCache(Usuario usuario) {
+        return sugerirComCache(usuario, Integer.MAX_VALUE);
+    }
+    
+    // ========== DESPENSAS QUENTES ==========
+    
+    private volatile DespensasQuentes despensasQuentes; // criado na primeira consulta
+    
+    /**
+     * Igual a sugerirReceitas(), mas as despensas mais consultadas (mesmos
+     * ingredientes, "não gosta" e restrições, de qualquer usuário) são respondidas
+     * com resultados pré-calculados, atualizados em segundo plano quando o catálogo muda.
+     * Serve para consultas avulsas (HTTP, lote), em que cada requisição traz um Usuario novo.
+     * 
+     * @param usuario O usuário para quem sugerir receitas
+     * @return Lista de receitas sugeridas (pode ser alterada)
+     */
+    public ArrayList<Receita> sugerirComDespensasQuentes(Usuario usuario) {
+        return getDespensasQuentes().sugerir(usuario);
+    }
+    
+    protected DespensasQuentes getDespensasQuentes() {
+        DespensasQuentes atual = despensasQuentes;
+        if (atual == null) {
+            synchronized (this) {
+                atual = despensasQuentes;
+                if (atual == null) {
+                    atual = new DespensasQuentes(getClass().getSimpleName(), this::sugerirReceitas,
+                        this::getCatalogo, 0);
+                    despensasQuentes = atual;
+                }
+            }
+        }
+        return atual;
+    }
+    
+    // ========== CONSULTA PLANEJADA ==========
+    
+    /**
+     * As receitas mais rápidas que atendem tempo, restrições alimentares, "não gosta"
+     * e compatibilidade mínima.
+     * O planejador do catálogo escolhe o caminho mais barato para cada usuário
+     * (posting lists da despensa ou índice por tempo) e a ordem dos filtros.
+     * 
+     * @param usuario O usuário
+     * @param tempoMaximo Tempo máximo em minutos
+     * @param compatibilidadeMinima % mínima de compatibilidade
+     * @param limite Número máximo de receitas
+     * @return Receitas em ordem de tempo (empate pela ordem do catálogo)
+     */
+    protected ArrayList<Receita> sugerirPlanejado(Usuario usuario, int tempoMaximo,
+                                                  int compatibilidadeMinima, int limite) {
+        CatalogoReceitas catalogo = getCatalogo();
+        PlanejadorConsultas planejador = catalogo.getPlanejador();
+        int[] despensa = catalogo.resolverDespensa(usuario);
+        int excluidas = catalogo.contarExcluidasPor(usuario.getIdsNaoGosta(catalogo.getDicionario()));
+        PlanejadorConsultas.Plano plano = planejador.planejar(despensa, Alergenos.proibidosPara(usuario),
+            excluidas, tempoMaximo, compatibilidadeMinima, limite);
+        Log.debug(() -> "   🧭 " + plano.getCaminho() + " " + Arrays.toString(plano.getOrdemFiltros()));
+        
+        int[] ids = planejador.executar(plano, despensa, catalogo.permitidasPara(usuario));
+        ArrayList<Receita> receitas = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            receitas.add(catalogo.getReceita(id));
+        }
+        return receitas;
+    }
+    
+    /**
+     * Plano que {@link #sugerirPlanejado} usaria para esta consulta (estilo EXPLAIN).
+     */
+    public String explicarConsulta(Usuario usuario, int tempoMaximo, int compatibilidadeMinima, int limite) {
+        CatalogoReceitas catalogo = getCatalogo();
+        int excluidas = catalogo.contarExcluidasPor(usuario.getIdsNaoGosta(catalogo.getDicionario()));
+        return catalogo.getPlanejador().planejar(catalogo.resolverDespensa(usuario),
+            Alergenos.proibidosPara(usuario), excluidas, tempoMaximo, compatibilidadeMinima, limite).explicar();
+    }
+    
+    // ========== SUGESTÕES SOB DEMANDA (PAGINAÇÃO) ==========
+    
+    /**
+     * Receitas que atendem a consulta, das mais rápidas para as mais lentas,
+     * produzidas só à medida que o Stream é consumido (ex.: {@code .limit(3)}).
+     * 
+     * @param usuario O usuário
+     * @param tempoMaximo Tempo máximo em minutos
+     * @param compatibilidadeMinima % mínima de compatibilidade
+     * @return Stream sequencial e ordenado
+     */
+    public Stream<Receita> sugerirEmFluxo(Usuario usuario, int tempoMaximo, int compatibilidadeMinima) {
+        IteradorSugestoes iterador = new IteradorSugestoes(getCatalogo(), usuario,
+            tempoMaximo, compatibilidadeMinima, null);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterador,
+            Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+    
+    /**
+     * Uma página de sugestões. Passe o cursor da página anterior para continuar
+     * de onde ela parou (null na primeira página).
+     * 
+     * @param usuario O usuário
+     * @param tempoMaximo Tempo máximo em minutos
+     * @param compatibilidadeMinima % mínima de compatibilidade
+     * @param tamanhoPagina Receitas por página
+     * @param cursor Cursor de {@link PaginaSugestoes#getProximoCursor()} ou null
+     * @return Página com até tamanhoPagina receitas
+     * @throws IllegalArgumentException se o cursor for inválido ou de outra consulta
+     */
+    public PaginaSugestoes sugerirPagina(Usuario usuario, int tempoMaximo, int compatibilidadeMinima,
+                                         int tamanhoPagina, String cursor) {
+        IteradorSugestoes iterador = new IteradorSugestoes(getCatalogo(), usuario,
+            tempoMaximo, compatibilidadeMinima, tamanhoPagina, cursor);
+        ArrayList<Receita> receitas = new ArrayList<>(Math.min(tamanhoPagina, 64));
+        while (receitas.size() < tamanhoPagina && iterador.hasNext()) {
+            receitas.add(iterador.next());
+        }
+        return new PaginaSugestoes(receitas, iterador.getCursor());
+    }
+    
+    // ========== CONSULTA "FALTAM ATÉ K INGREDIENTES" ==========
+    
+    /**
+     * Receitas que o usuário consegue fazer comprando no máximo k ingredientes.
+     * Parte das posting lists da despensa e das receitas com até k ingredientes,
+     * então o custo acompanha a despensa e não o tamanho do catálogo.
+     * 
+     * @param usuario O usuário
+     * @param maxFaltantes Máximo de ingredientes que podem faltar (k)
+     * @return Receitas ordenadas: menos faltantes primeiro, depois maior compatibilidade
+     */
+    public ArrayList<ReceitaComFaltantes> sugerirComFaltantes(Usuario usuario, int maxFaltantes) {
+        CatalogoReceitas catalogo = getCatalogo();
+        int[] despensa = catalogo.resolverDespensa(usuario);
+        ContagemAcertos acertos = catalogo.contarAcertos(despensa);
+        long[] permitidas = catalogo.permitidasPara(usuario);
+        ArrayList<ReceitaComFaltantes> resultado = new ArrayList<>();
+        
+        // 1. Receitas que usam algum ingrediente da despensa: faltam = total - acertos
+        for (int i = 0; i < acertos.tamanho(); i++) {
+            int id = acertos.getReceita(i);
+            int faltam = catalogo.getTotalIngredientes(id) - acertos.getAcertos(i);
+            if (faltam <= maxFaltantes && ColunasCatalogo.contem(permitidas, id)) {
+                resultado.add(montarFaltantes(catalogo, id, despensa, acertos.getAcertos(i)));
+            }
+        }
+        
+        // 2. Receitas sem nenhum acerto, mas com até k ingredientes no total
+        int pequenas = catalogo.contarReceitasComAte(maxFaltantes);
+        for (int i = 0; i < pequenas; i++) {
+            int id = catalogo.getReceitaPorTotal(i);
+            if (ColunasCatalogo.contem(permitidas, id)
+                    && !temAlgum(catalogo.getIngredientes(id), despensa)) {
+                resultado.add(montarFaltantes(catalogo, id, despensa, 0));
+            }
+        }
+        
+        resultado.sort((a, b) -> {
+            if (a.getQuantidadeFaltante() != b.getQuantidadeFaltante()) {
+                return Integer.compare(a.getQuantidadeFaltante(), b.getQuantidadeFaltante());
+            }
+            if (a.getCompatibilidade() != b.getCompatibilidade()) {
+                return Integer.compare(b.getCompatibilidade(), a.getCompatibilidade());
+            }
+            return Integer.compare(a.getReceita().getTempoPreparo(), b.getReceita().getTempoPreparo());
+        });
+        return resultado;
+    }
+    
+    private ReceitaComFaltantes montarFaltantes(CatalogoReceitas catalogo, int id, int[] despensa, int acertos) {
+        Receita receita = catalogo.getReceita(id);
+        DicionarioIngredientes dicionario = catalogo.getDicionario();
+        ArrayList<Ingrediente> faltantes = new ArrayList<>();
+        
+        for (Ingrediente ingrediente : receita.getIngredientes()) {
+            if (Arrays.binarySearch(despensa, dicionario.idDe(ingrediente.getNome())) < 0) {
+                faltantes.add(ingrediente);
+            }
+        }
+        return new ReceitaComFaltantes(receita, faltantes, catalogo.calcularCompatibilidade(id, acertos));
+    }
+    
+    /**
+     * Verifica se dois arrays ordenados de ids têm algum elemento em comum.
+     */
+    private static boolean temAlgum(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                return true;
+            }
+            if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+    
     // ========== MÉTODOS PROTEGIDOS (HERANÇA) ==========
     
     /**
@@ -60,6 +295,28 @@ public abstract class SugestorBase {
         return vegetarianas;
     }
     
+    /**
+     * Filtra receitas que respeitam as restrições do usuário e não têm
+     * nenhum ingrediente que ele não gosta.
+     * 
+     * @param receitas Lista de receitas
+     * @param usuario Usuário com restrições
+     * @return Receitas sem nada que o usuário não possa ou não queira comer
+     */
+    protected ArrayList<Receita> filtrarPorRestricoes(ArrayList<Receita> receitas, Usuario usuario) {
+        CatalogoReceitas catalogo = getCatalogo();
+        long[] aceitas = catalogo.permitidasPara(usuario); // anti-join montado uma vez
+        
+        ArrayList<Receita> permitidas = new ArrayList<>();
+        for (Receita receita : receitas) {
+            if (catalogo.permitida(aceitas, receita, usuario)) {
+                permitidas.add(receita);
+            }
+        }
+        
+        return permitidas;
+    }
+    
     /**
      * Calcula a compatibilidade entre usuário e receita.
      * 
@@ -72,14 +329,12 @@ public abstract class SugestorBase {
             return 0;
         }
         
-        int ingredientesCompativeis = 0;
-        for (Ingrediente ingReceita : receita.getIngredientes()) {
-            if (usuario.temIngrediente(ingReceita.getNome())) {
-                ingredientesCompativeis++;
-            }
-        }
+        // Ids da receita em cache no catálogo; despensa já resolvida no usuário
+        List<Ingrediente> ingredientes = receita.getIngredientes();
+        int ingredientesCompativeis = getCatalogo().marcarPossuidos(receita, ingredientes, usuario,
+            new boolean[ingredientes.size()]);
         
-        return (ingredientesCompativeis * 100) / receita.getIngredientes().size();
+        return (ingredientesCompativeis * 100) / ingredientes.size();
     }
     
     /**
@@ -140,101 +395,32 @@ public abstract class SugestorBase {
     // ========== BANCO DE RECEITAS (COMPOSIÇÃO) ==========
     
     /**
-     * Cria um banco básico de receitas para demonstração.
-     * Método CONCRETO que pode ser usado por todas as subclasses.
-     * Demonstra COMPOSIÇÃO - Receita contém Ingredientes.
+     * Retorna as receitas do catálogo compartilhado.
+     * O catálogo é montado (ou lido do snapshot) uma única vez, não a cada sugestão.
      * 
      * @return Lista de receitas de exemplo
      */
     protected ArrayList<Receita> criarBancoReceitasBasico() {
-        ArrayList<Receita> banco = new ArrayList<>();
-        
-        // Receita 1 - Omelete (NÃO vegetariana)
-        Receita omelete = new Receita("Omelete Clássico", 12, false);
-        omelete.adicionarIngrediente(new Ingrediente("ovo", 3));
-        omelete.adicionarIngrediente(new Ingrediente("queijo", 100));
-        omelete.adicionarIngrediente(new Ingrediente("sal", 1));
-        omelete.adicionarPasso("Bata os ovos com sal em uma tigela");
-        omelete.adicionarPasso("Adicione queijo ralado e misture bem");
-        omelete.adicionarPasso("Aqueça uma frigideira antiaderente em fogo médio");
-        omelete.adicionarPasso("Despeje a mistura e cozinhe por 5-7 minutos até dourar");
-        omelete.adicionarPasso("Vire com cuidado e cozinhe por mais 2 minutos");
-        omelete.adicionarPasso("Sirva quente");
-        
-        // Receita 2 - Panqueca (vegetariana)
-        Receita panqueca = new Receita("Panquecas Simples", 18, true);
-        panqueca.adicionarIngrediente(new Ingrediente("farinha", 200));
-        panqueca.adicionarIngrediente(new Ingrediente("leite", 250));
-        panqueca.adicionarIngrediente(new Ingrediente("ovo", 2));
-        panqueca.adicionarIngrediente(new Ingrediente("açúcar", 30));
-        panqueca.adicionarIngrediente(new Ingrediente("fermento", 1));
-        panqueca.adicionarPasso("Misture farinha, açúcar e fermento em uma tigela grande");
-        panqueca.adicionarPasso("Adicione os ovos e metade do leite, misturando bem");
-        panqueca.adicionarPasso("Incorpore o restante do leite aos poucos até obter massa homogênea");
-        panqueca.adicionarPasso("Deixe a massa descansar por 5 minutos");
-        panqueca.adicionarPasso("Aqueça uma frigideira antiaderente em fogo médio");
-        panqueca.adicionarPasso("Coloque uma concha de massa e espalhe pela frigideira");
-        panqueca.adicionarPasso("Cozinhe por 2-3 minutos até formar bolhas, então vire");
-        panqueca.adicionarPasso("Cozinhe por mais 1-2 minutos do outro lado");
-        panqueca.adicionarPasso("Repita com o restante da massa");
-        
-        // Receita 3 - Sanduíche (NÃO vegetariana - tem queijo)
-        Receita sanduiche = new Receita("Sanduíche Quente", 8, false);
-        sanduiche.adicionarIngrediente(new Ingrediente("pão", 2));
-        sanduiche.adicionarIngrediente(new Ingrediente("queijo", 2));
-        sanduiche.adicionarIngrediente(new Ingrediente("manteiga", 1));
-        sanduiche.adicionarPasso("Passe manteiga na parte externa das fatias de pão");
-        sanduiche.adicionarPasso("Coloque as fatias de queijo entre as fatias de pão");
-        sanduiche.adicionarPasso("Aqueça uma frigideira em fogo médio");
-        sanduiche.adicionarPasso("Coloque o sanduíche na frigideira e cozinhe por 2-3 minutos");
-        sanduiche.adicionarPasso("Vire cuidadosamente com uma espátula");
-        sanduiche.adicionarPasso("Cozinhe por mais 2-3 minutos até dourar e o queijo derreter");
-        sanduiche.adicionarPasso("Retire da frigideira e corte ao meio");
-        sanduiche.adicionarPasso("Sirva imediatamente");
-        
-        // Receita 4 - Salada (vegetariana)
-        Receita salada = new Receita("Salada Completa", 15, true);
-        salada.adicionarIngrediente(new Ingrediente("alface", 1));
-        salada.adicionarIngrediente(new Ingrediente("tomate", 2));
-        salada.adicionarIngrediente(new Ingrediente("cenoura", 1));
-        salada.adicionarIngrediente(new Ingrediente("cebola", 1));
-        salada.adicionarIngrediente(new Ingrediente("azeite", 2));
-        salada.adicionarIngrediente(new Ingrediente("vinagre", 1));
-        salada.adicionarPasso("Lave bem todos os vegetais sob água corrente");
-        salada.adicionarPasso("Rasgue as folhas de alface com as mãos em pedaços médios");
-        salada.adicionarPasso("Corte os tomates em fatias ou cubos, conforme preferência");
-        salada.adicionarPasso("Rale a cenoura no ralo grosso");
-        salada.adicionarPasso("Corte a cebola em fatias finas");
-        salada.adicionarPasso("Em uma tigela grande, misture todos os vegetais");
-        salada.adicionarPasso("Em uma tigela pequena, misture azeite, vinagre e sal");
-        salada.adicionarPasso("Regue a salada com o molho e misture delicadamente");
-        salada.adicionarPasso("Sirva imediatamente");
-        
-        // Receita 5 - Ovo mexido (vegetariana)
-        Receita ovoMexido = new Receita("Ovo Mexido Cremoso", 10, true);
-        ovoMexido.adicionarIngrediente(new Ingrediente("ovo", 3));
-        ovoMexido.adicionarIngrediente(new Ingrediente("leite", 2));
-        ovoMexido.adicionarIngrediente(new Ingrediente("sal", 1));
-        ovoMexido.adicionarIngrediente(new Ingrediente("manteiga", 1));
-        ovoMexido.adicionarPasso("Quebre os ovos em uma tigela");
-        ovoMexido.adicionarPasso("Adicione o leite e o sal");
-        ovoMexido.adicionarPasso("Bata os ovos com um garfo até ficarem bem misturados");
-        ovoMexido.adicionarPasso("Derreta a manteiga em uma frigideira em fogo baixo-médio");
-        ovoMexido.adicionarPasso("Despeje a mistura de ovos na frigideira");
-        ovoMexido.adicionarPasso("Espere alguns segundos até começar a cozinhar nas bordas");
-        ovoMexido.adicionarPasso("Com uma espátula, empurre os ovos das bordas para o centro");
-        ovoMexido.adicionarPasso("Continue mexendo suavemente até os ovos estarem cremosos");
-        ovoMexido.adicionarPasso("Retire do fogo antes de ficarem completamente sólidos");
-        ovoMexido.adicionarPasso("Sirva imediatamente com pão torrado");
-        
-        // Adicionar todas ao banco
-        banco.add(omelete);
-        banco.add(panqueca);
-        banco.add(sanduiche);
-        banco.add(salada);
-        banco.add(ovoMexido);
-        
-        return banco;
+        return new ArrayList<>(getCatalogo().getReceitas());
+    }
+    
+    /**
+     * Catálogo indexado usado pelo sugestor.
+     */
+    protected CatalogoReceitas getCatalogo() {
+        return CatalogoReceitas.atual();
+    }
+    
+    /**
+     * Conta quantos ingredientes de cada receita o usuário tem, usando as
+     * posting lists do catálogo. Receitas sem nenhum acerto não aparecem.
+     * 
+     * @param catalogo Catálogo consultado
+     * @param usuario O usuário
+     * @return Contagem esparsa por receita
+     */
+    protected ContagemAcertos contarAcertos(CatalogoReceitas catalogo, Usuario usuario) {
+        return catalogo.contarAcertos(catalogo.resolverDespensa(usuario));
     }
     
     /**
@@ -276,10 +462,8 @@ public abstract class SugestorBase {
         // 1. Filtrar por tempo
         ArrayList<Receita> filtradas = filtrarPorTempo(receitas, tempoMaximo);
         
-        // 2. Filtrar por vegetarianismo se necessário
-        if (usuario.isVegetariano()) {
-            filtradas = filtrarVegetarianas(filtradas);
-        }
+        // 2. Filtrar por restrições (vegetariano, sem lactose, sem glúten) e "não gosta"
+        filtradas = filtrarPorRestricoes(filtradas, usuario);
         
         // 3. Filtrar por compatibilidade mínima
         filtradas = filtrarPorCompatibilidade(filtradas, usuario, compatibilidadeMinima);
@@ -291,32 +475,36 @@ public abstract class SugestorBase {
     
     /**
      * Exibe informações sobre o sugestor (para debug/demonstração).
+     * Vai para o log em nível DEBUG, então não custa nada em produção.
      */
     protected void exibirInformacoesSugestor(String nomeSugestor, Usuario usuario) {
-        System.out.println("\n🧠 " + nomeSugestor.toUpperCase());
-        System.out.println("   Usuário: " + usuario.getNome());
-        System.out.println("   Ingredientes disponíveis: " + usuario.getIngredientesDisponiveis().size());
-        System.out.println("   Vegetariano: " + (usuario.isVegetariano() ? "Sim" : "Não"));
-        System.out.println("   Buscando receitas...");
+        Log.debug(() -> "\n🧠 " + nomeSugestor.toUpperCase() +
+            "\n   Usuário: " + usuario.getNome() +
+            "\n   Ingredientes disponíveis: " + usuario.getIngredientesDisponiveis().size() +
+            "\n   Vegetariano: " + (usuario.isVegetariano() ? "Sim" : "Não") +
+            "\n   Buscando receitas...");
     }
     
     /**
-     * Exibe resultados da sugestão.
+     * Exibe resultados da sugestão (log em nível DEBUG).
      */
     protected void exibirResultadosSugestao(ArrayList<Receita> receitas) {
-        if (receitas.isEmpty()) {
-            System.out.println("   ❌ Nenhuma receita encontrada com os critérios atuais.");
-            return;
-        }
-        
-        System.out.println("   ✅ Encontradas " + receitas.size() + " receitas adequadas");
-        
-        for (int i = 0; i < receitas.size(); i++) {
-            Receita r = receitas.get(i);
-            System.out.println("   " + (i+1) + ". " + r.getNome() + 
-                " (" + r.getTempoPreparo() + "min, " +
-                (r.isVegetariana() ? "🥬" : "🍗") + ")");
-        }
+        Log.debug(() -> {
+            if (receitas.isEmpty()) {
+                return "   ❌ Nenhuma receita encontrada com os critérios atuais.";
+            }
+            
+            StringBuilder sb = new StringBuilder();
+            sb.append("   ✅ Encontradas ").append(receitas.size()).append(" receitas adequadas");
+            
+            for (int i = 0; i < receitas.size(); i++) {
+                Receita r = receitas.get(i);
+                sb.append("\n   ").append(i + 1).append(". ").append(r.getNome())
+                  .append(" (").append(r.getTempoPreparo()).append("min, ")
+                  .append(r.isVegetariana() ? "🥬" : "🍗").append(")");
+            }
+            return sb.toString();
+        });
     }
     
     /**
@@ -0,0 +1,33 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sugestor que consulta um catálogo dividido em fragmentos.
+ * Devolve as receitas mais compatíveis de todos os fragmentos juntos.
+ */
+public class SugestorFragmentado extends SugestorBase {
+    private final CoordenadorFragmentos coordenador;
+    private final int limite;
+
+    public SugestorFragmentado(CoordenadorFragmentos coordenador, int limite) {
+        this.coordenador = coordenador;
+        this.limite = limite;
+    }
+
+    @Override
+    public ArrayList<Receita> sugerirReceitas(Usuario usuario) {
+        exibirInformacoesSugestor("Sugestor Fragmentado", usuario);
+
+        long inicio = Metricas.inicio();
+        List<ReceitaPontuada> melhores = coordenador.buscarMelhores(usuario, limite);
+        Metricas.registrar(Metricas.Etapa.PONTUACAO_LOCAL, inicio);
+
+        ArrayList<Receita> receitas = new ArrayList<>(melhores.size());
+        for (ReceitaPontuada pontuada : melhores) {
+            receitas.add(pontuada.getReceita());
+        }
+
+        exibirResultadosSugestao(receitas);
+        return receitas;
+    }
+}
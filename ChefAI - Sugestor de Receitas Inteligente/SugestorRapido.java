@@ -12,45 +12,19 @@ public class SugestorRapido extends SugestorBase {
      */
     @Override
 public ArrayList<Receita> sugerirReceitas(Usuario usuario) {
-    System.out.println("⚡ SUGESTOR RÁPIDO: Buscando receitas em até 30 minutos...");
+    Log.debug(() -> "⚡ SUGESTOR RÁPIDO: Buscando receitas em até 30 minutos...");
+    long inicio = Metricas.inicio();
     
-    // 1. Obter todas as receitas disponíveis
-    ArrayList<Receita> todasReceitas = criarBancoReceitasBasico();
-    
-    // 2. Aplicar filtro principal: tempo máximo 30min
-    ArrayList<Receita> receitasRapidas = filtrarPorTempo(todasReceitas, 30);
-    
-    // 3. APLICAR FILTRO VEGETARIANO SE NECESSÁRIO
+    // 1. Tempo máximo 30min, vegetariano e 50% de compatibilidade; o planejador
+    //    escolhe por onde começar (despensa ou índice por tempo) e já devolve
+    //    as mais rápidas primeiro (empate pela ordem do catálogo)
+    ArrayList<Receita> sugestoes = sugerirPlanejado(usuario, 30, 50, 3);
     if (usuario.isVegetariano()) {
-        ArrayList<Receita> receitasVegetarianas = new ArrayList<>();
-        for (Receita receita : receitasRapidas) {
-            if (receita.isVegetariana()) {
-                receitasVegetarianas.add(receita);
-            }
-        }
-        receitasRapidas = receitasVegetarianas;
-        System.out.println("   🌱 Filtro vegetariano ativado");
-    }
-    
-    // 4. Ordenar por tempo (mais rápidas primeiro)
-    receitasRapidas.sort((r1, r2) -> Integer.compare(r1.getTempoPreparo(), r2.getTempoPreparo()));
-    
-    // 5. Selecionar até 3 receitas com melhor compatibilidade
-    ArrayList<Receita> sugestoes = new ArrayList<>();
-    
-    for (Receita receita : receitasRapidas) {
-        int compatibilidade = calcularCompatibilidade(usuario, receita);
-        
-        if (compatibilidade >= 50) { // Pelo menos 50% de compatibilidade
-            sugestoes.add(receita);
-            
-            if (sugestoes.size() >= 3) {
-                break; // Limitar a 3 sugestões
-            }
-        }
+        Log.debug(() -> "   🌱 Filtro vegetariano ativado");
     }
     
-    System.out.println("   ✅ Encontradas " + sugestoes.size() + " receitas rápidas");
+    Metricas.registrar(Metricas.Etapa.PONTUACAO_LOCAL, inicio);
+    Log.debug(() -> "   ✅ Encontradas " + sugestoes.size() + " receitas rápidas");
     return sugestoes;
 }
     
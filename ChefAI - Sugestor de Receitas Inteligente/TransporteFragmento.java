@@ -0,0 +1,22 @@
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Forma de falar com um fragmento do catálogo.
+ *
+ * Implementações: {@link FragmentoCatalogo} (mesmo processo) e
+ * {@link TransporteSocket} (outro processo, via socket local).
+ */
+public interface TransporteFragmento {
+
+    /**
+     * As k receitas do fragmento mais compatíveis com o usuário,
+     * já ordenadas por {@link ReceitaPontuada#MELHOR_PRIMEIRO}.
+     */
+    List<ReceitaPontuada> buscarMelhores(Usuario usuario, int k) throws IOException;
+
+    /**
+     * Nome para logs e mensagens de erro.
+     */
+    String getDescricao();
+}
@@ -0,0 +1,201 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Fala com um {@link ServidorFragmento} em outro processo por um socket local.
+ *
+ * Protocolo binário simples (DataOutputStream), uma pergunta e uma resposta
+ * por vez em cada conexão. As conexões ficam abertas e são reaproveitadas.
+ * O socket vem de um {@link SocketChannel}: interromper a thread que espera a
+ * resposta fecha a conexão na hora (é assim que o coordenador cancela um
+ * fragmento atrasado), em vez de esperar o SoTimeout.
+ *
+ * Pergunta: k, vegetariano, semLactose, semGluten, total, nomes dos ingredientes.
+ * Resposta: total, e para cada receita: compatibilidade, nome, tempo, vegetariana,
+ *           ingredientes (nome e quantidade) e passos.
+ */
+public class TransporteSocket implements TransporteFragmento {
+    static final int MAGICO = 0x46524147; // "FRAG"
+
+    private final String host;
+    private final int porta;
+    private final int tempoLimiteMs;
+    private final ConcurrentLinkedQueue<Conexao> livres;
+
+    public TransporteSocket(String host, int porta, int tempoLimiteMs) {
+        this.host = host;
+        this.porta = porta;
+        this.tempoLimiteMs = tempoLimiteMs;
+        this.livres = new ConcurrentLinkedQueue<>();
+    }
+
+    public TransporteSocket(int porta) {
+        this("127.0.0.1", porta, 2000);
+    }
+
+    @Override
+    public List<ReceitaPontuada> buscarMelhores(Usuario usuario, int k) throws IOException {
+        Conexao conexao = livres.poll();
+        if (conexao == null) {
+            conexao = abrir();
+        }
+
+        try {
+            escreverPergunta(conexao.saida, usuario, k);
+            conexao.saida.flush();
+            List<ReceitaPontuada> resultado = lerResposta(conexao.entrada);
+            livres.offer(conexao);
+            return resultado;
+        } catch (IOException e) {
+            conexao.fechar(); // estado do fluxo desconhecido: não reaproveita
+            throw e;
+        }
+    }
+
+    private Conexao abrir() throws IOException {
+        Socket socket = SocketChannel.open().socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(host, porta), tempoLimiteMs);
+            socket.setSoTimeout(tempoLimiteMs);
+            return new Conexao(socket);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Fecha as conexões ociosas.
+     */
+    public void fechar() {
+        Conexao conexao;
+        while ((conexao = livres.poll()) != null) {
+            conexao.fechar();
+        }
+    }
+
+    @Override
+    public String getDescricao() {
+        return "socket " + host + ":" + porta;
+    }
+
+    // ========== PROTOCOLO ==========
+
+    static void escreverPergunta(DataOutputStream out, Usuario usuario, int k) throws IOException {
+        List<Ingrediente> ingredientes = usuario.getIngredientesDisponiveis();
+        out.writeInt(MAGICO);
+        out.writeInt(k);
+        out.writeBoolean(usuario.isVegetariano());
+        out.writeBoolean(usuario.isSemLactose());
+        out.writeBoolean(usuario.isSemGluten());
+        out.writeInt(ingredientes.size());
+        for (Ingrediente ingrediente : ingredientes) {
+            out.writeUTF(ingrediente.getNome());
+        }
+        List<Ingrediente> naoGosta = usuario.getIngredientesNaoGosta();
+        out.writeInt(naoGosta.size());
+        for (Ingrediente ingrediente : naoGosta) {
+            out.writeUTF(ingrediente.getNome());
+        }
+    }
+
+    /**
+     * Lê uma pergunta e devolve o usuário equivalente (k vai em {@code k[0]}).
+     */
+    static Usuario lerPergunta(DataInputStream in, int[] k) throws IOException {
+        if (in.readInt() != MAGICO) {
+            throw new IOException("pergunta inválida");
+        }
+        k[0] = in.readInt();
+        Usuario usuario = new Usuario("remoto");
+        usuario.setVegetariano(in.readBoolean());
+        usuario.setSemLactose(in.readBoolean());
+        usuario.setSemGluten(in.readBoolean());
+        int total = in.readInt();
+        for (int i = 0; i < total; i++) {
+            usuario.adicionarIngrediente(new Ingrediente(in.readUTF(), 1));
+        }
+        int totalNaoGosta = in.readInt();
+        for (int i = 0; i < totalNaoGosta; i++) {
+            usuario.adicionarIngredienteNaoGosta(new Ingrediente(in.readUTF(), 1));
+        }
+        return usuario;
+    }
+
+    static void escreverResposta(DataOutputStream out, List<ReceitaPontuada> receitas) throws IOException {
+        out.writeInt(receitas.size());
+        for (ReceitaPontuada pontuada : receitas) {
+            Receita receita = pontuada.getReceita();
+            out.writeInt(pontuada.getCompatibilidade());
+            out.writeUTF(receita.getNome());
+            out.writeInt(receita.getTempoPreparo());
+            out.writeBoolean(receita.isVegetariana());
+
+            List<Ingrediente> ingredientes = receita.getIngredientes();
+            out.writeInt(ingredientes.size());
+            for (Ingrediente ingrediente : ingredientes) {
+                out.writeUTF(ingrediente.getNome());
+                out.writeInt(ingrediente.getQuantidade());
+            }
+
+            List<String> passos = receita.getPassos();
+            out.writeInt(passos.size());
+            for (String passo : passos) {
+                out.writeUTF(passo);
+            }
+        }
+    }
+
+    static List<ReceitaPontuada> lerResposta(DataInputStream in) throws IOException {
+        int total = in.readInt();
+        List<ReceitaPontuada> receitas = new ArrayList<>(total);
+        for (int r = 0; r < total; r++) {
+            int compatibilidade = in.readInt();
+            Receita receita = new Receita(in.readUTF(), in.readInt(), in.readBoolean());
+
+            int totalIngredientes = in.readInt();
+            for (int i = 0; i < totalIngredientes; i++) {
+                receita.adicionarIngrediente(new Ingrediente(in.readUTF(), in.readInt()));
+            }
+            int totalPassos = in.readInt();
+            for (int i = 0; i < totalPassos; i++) {
+                receita.adicionarPasso(in.readUTF());
+            }
+            receitas.add(new ReceitaPontuada(receita, compatibilidade));
+        }
+        return receitas;
+    }
+
+    /**
+     * Socket com os fluxos já bufferizados.
+     */
+    private static final class Conexao {
+        final Socket socket;
+        final DataInputStream entrada;
+        final DataOutputStream saida;
+
+        Conexao(Socket socket) throws IOException {
+            this.socket = socket;
+            this.entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.saida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void fechar() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // já estava fechado
+            }
+        }
+    }
+}
@@ -1,17 +1,31 @@
         import java.util.ArrayList;
+        import java.util.Arrays;
+        import java.util.Collections;
         import java.util.List;
+        import java.util.concurrent.atomic.AtomicLong;
         
         /**
          * Classe que representa um usuário do sistema ChefAI
          * Armazena as preferências e ingredientes disponíveis do usuário
+         * 
+         * Pode ser compartilhado entre threads: as listas de ingredientes são
+         * imutáveis e trocadas por inteiro a cada alteração (copy-on-write),
+         * então leitores pegam um retrato consistente sem lock e sem cópia.
          */
         public class Usuario {
             private String nome;
-            private List<Ingrediente> ingredientesDisponiveis;
-            private List<Ingrediente> ingredientesNaoGosta;
-            private boolean vegetariano;
-            private boolean semLactose;
-            private boolean semGluten;
+            private volatile List<Ingrediente> ingredientesDisponiveis; // imutável, trocada inteira
+            private volatile List<Ingrediente> ingredientesNaoGosta;    // imutável, trocada inteira
+            private volatile boolean vegetariano;
+            private volatile boolean semLactose;
+            private volatile boolean semGluten;
+            private volatile DespensaResolvida despensaResolvida; // ids canônicos em cache
+            private volatile DespensaResolvida naoGostaResolvido;  // idem, para o que não gosta
+            private volatile DespensaCanonica despensaCanonica;   // nomes normalizados em cache
+            private static final AtomicLong PROXIMA_IDENTIDADE = new AtomicLong();
+            private final long identidade = PROXIMA_IDENTIDADE.incrementAndGet(); // única nesta execução
+            private final AtomicLong versao = new AtomicLong(); // muda a cada alteração que afeta sugestões
+            private volatile OuvinteUsuario ouvinte;            // ex.: log de persistência
             
             /**
              * Construtor básico do usuário
@@ -19,8 +33,8 @@
              */
             public Usuario(String nome) {
                 this.nome = nome;
-                this.ingredientesDisponiveis = new ArrayList<>();
-                this.ingredientesNaoGosta = new ArrayList<>();
+                this.ingredientesDisponiveis = Collections.emptyList();
+                this.ingredientesNaoGosta = Collections.emptyList();
                 this.vegetariano = false;
                 this.semLactose = false;
                 this.semGluten = false;
@@ -32,8 +46,10 @@
              * Adiciona um ingrediente à lista de disponíveis
              * @param ingrediente Ingrediente a ser adicionado
              */
-            public void adicionarIngrediente(Ingrediente ingrediente) {
-                ingredientesDisponiveis.add(ingrediente);
+            public synchronized void adicionarIngrediente(Ingrediente ingrediente) {
+                ingredientesDisponiveis = comMais(ingredientesDisponiveis, ingrediente);
+                versao.incrementAndGet();
+                notificar(OuvinteUsuario.Operacao.ADICIONAR, ingrediente.getNome(), ingrediente.getQuantidade());
             }
             
             /**
@@ -41,10 +57,15 @@
              * @param nomeIngrediente Nome do ingrediente a remover
              * @return true se removeu, false se não encontrou
              */
-            public boolean removerIngrediente(String nomeIngrediente) {
-                for (int i = 0; i < ingredientesDisponiveis.size(); i++) {
-                    if (ingredientesDisponiveis.get(i).getNome().equalsIgnoreCase(nomeIngrediente)) {
-                        ingredientesDisponiveis.remove(i);
+            public synchronized boolean removerIngrediente(String nomeIngrediente) {
+                List<Ingrediente> atuais = ingredientesDisponiveis;
+                for (int i = 0; i < atuais.size(); i++) {
+                    if (atuais.get(i).getNome().equalsIgnoreCase(nomeIngrediente)) {
+                        ArrayList<Ingrediente> novos = new ArrayList<>(atuais);
+                        novos.remove(i);
+                        ingredientesDisponiveis = Collections.unmodifiableList(novos);
+                        versao.incrementAndGet();
+                        notificar(OuvinteUsuario.Operacao.REMOVER, nomeIngrediente, 0);
                         return true;
                     }
                 }
@@ -52,17 +73,149 @@
             }
             
             /**
-             * Verifica se tem um ingrediente específico
+             * Nova lista imutável com um elemento a mais.
+             */
+            private static List<Ingrediente> comMais(List<Ingrediente> atuais, Ingrediente ingrediente) {
+                ArrayList<Ingrediente> novos = new ArrayList<>(atuais.size() + 1);
+                novos.addAll(atuais);
+                novos.add(ingrediente);
+                return Collections.unmodifiableList(novos);
+            }
+            
+            /**
+             * Verifica se tem um ingrediente específico.
+             * Aceita variações de escrita ("ovos" e "ovo", "acucar" e "açúcar")
+             * comparando as formas canônicas; não faz busca aproximada.
              * @param nomeIngrediente Nome do ingrediente
              * @return true se tem o ingrediente
              */
             public boolean temIngrediente(String nomeIngrediente) {
+                List<Ingrediente> disponiveis = ingredientesDisponiveis;
+                for (Ingrediente ingrediente : disponiveis) {
+                    if (ingrediente.getNome().equalsIgnoreCase(nomeIngrediente)) {
+                        return true;
+                    }
+                }
+                
+                DespensaCanonica cache = despensaCanonica;
+                if (cache == null || cache.ingredientes != disponiveis) {
+                    cache = new DespensaCanonica(disponiveis);
+                    despensaCanonica = cache;
+                }
+                return Arrays.binarySearch(cache.nomes, DicionarioIngredientes.normalizar(nomeIngrediente)) >= 0;
+            }
+            
+            /**
+             * Verifica se tem um ingrediente da receita usando a despensa já
+             * resolvida para o dicionário. O nome da receita é procurado só pela
+             * forma canônica exata; a resolução aproximada fica do lado da despensa,
+             * feita uma vez por alteração (ver {@link #getIdsDespensa}).
+             * @param nomeIngrediente Nome do ingrediente na receita
+             * @param dicionario Dicionário do catálogo consultado
+             * @return true se tem o ingrediente
+             */
+            public boolean temIngrediente(String nomeIngrediente, DicionarioIngredientes dicionario) {
                 for (Ingrediente ingrediente : ingredientesDisponiveis) {
                     if (ingrediente.getNome().equalsIgnoreCase(nomeIngrediente)) {
                         return true;
                     }
                 }
-                return false;
+                
+                int id = dicionario.idDe(nomeIngrediente);
+                return id >= 0 && Arrays.binarySearch(getIdsDespensa(dicionario), id) >= 0;
+            }
+            
+            /**
+             * Ids canônicos (ordenados, sem repetição) dos ingredientes disponíveis.
+             * A resolução aproximada de nomes acontece só quando a despensa ou o
+             * dicionário mudam; nas outras chamadas o resultado vem do cache.
+             * @param dicionario Dicionário do catálogo consultado
+             * @return Ids dos ingredientes reconhecidos
+             */
+            int[] getIdsDespensa(DicionarioIngredientes dicionario) {
+                List<Ingrediente> disponiveis = ingredientesDisponiveis;
+                DespensaResolvida cache = despensaResolvida;
+                if (cache != null && cache.valePara(disponiveis, dicionario)) {
+                    return cache.ids;
+                }
+                cache = DespensaResolvida.resolver(disponiveis, dicionario);
+                despensaResolvida = cache;
+                return cache.ids;
+            }
+            
+            /**
+             * Ids canônicos (ordenados, sem repetição) dos ingredientes que o
+             * usuário não gosta, com o mesmo cache de {@link #getIdsDespensa}.
+             * @param dicionario Dicionário do catálogo consultado
+             * @return Ids dos ingredientes reconhecidos
+             */
+            int[] getIdsNaoGosta(DicionarioIngredientes dicionario) {
+                List<Ingrediente> naoGosta = ingredientesNaoGosta;
+                DespensaResolvida cache = naoGostaResolvido;
+                if (cache != null && cache.valePara(naoGosta, dicionario)) {
+                    return cache.ids;
+                }
+                cache = DespensaResolvida.resolver(naoGosta, dicionario);
+                naoGostaResolvido = cache;
+                return cache.ids;
+            }
+            
+            /**
+             * Cache dos ids canônicos de uma versão de uma lista (despensa ou
+             * "não gosta") para um dicionário.
+             * Vale enquanto a lista de ingredientes for a mesma instância.
+             */
+            private static final class DespensaResolvida {
+                final List<Ingrediente> ingredientes;
+                final DicionarioIngredientes dicionario;
+                final int tamanhoDicionario;
+                final int[] ids;
+                
+                DespensaResolvida(List<Ingrediente> ingredientes, DicionarioIngredientes dicionario,
+                                  int tamanhoDicionario, int[] ids) {
+                    this.ingredientes = ingredientes;
+                    this.dicionario = dicionario;
+                    this.tamanhoDicionario = tamanhoDicionario;
+                    this.ids = ids;
+                }
+                
+                boolean valePara(List<Ingrediente> lista, DicionarioIngredientes dicionarioAtual) {
+                    return ingredientes == lista && dicionario == dicionarioAtual
+                        && tamanhoDicionario == dicionarioAtual.tamanho();
+                }
+                
+                static DespensaResolvida resolver(List<Ingrediente> lista, DicionarioIngredientes dicionario) {
+                    int tamanhoDicionario = dicionario.tamanho();
+                    int[] ids = new int[lista.size()];
+                    int n = 0;
+                    for (Ingrediente ingrediente : lista) {
+                        int id = dicionario.resolver(ingrediente.getNome());
+                        if (id >= 0) {
+                            ids[n++] = id;
+                        }
+                    }
+                    ids = Arrays.stream(ids, 0, n).sorted().distinct().toArray();
+                    return new DespensaResolvida(lista, dicionario, tamanhoDicionario, ids);
+                }
+            }
+            
+            /**
+             * Nomes canônicos (ordenados) de uma versão da despensa, para
+             * {@link #temIngrediente(String)} sem dicionário.
+             */
+            private static final class DespensaCanonica {
+                final List<Ingrediente> ingredientes;
+                final String[] nomes;
+                
+                DespensaCanonica(List<Ingrediente> ingredientes) {
+                    this.ingredientes = ingredientes;
+                    String[] canonicos = new String[ingredientes.size()];
+                    for (int i = 0; i < canonicos.length; i++) {
+                        canonicos[i] = DicionarioIngredientes.normalizar(ingredientes.get(i).getNome());
+                    }
+                    Arrays.sort(canonicos);
+                    this.nomes = canonicos;
+                }
             }
             
             /**
@@ -85,8 +238,10 @@
              * Adiciona um ingrediente à lista de não gosta
              * @param ingrediente Ingrediente que não gosta
              */
-            public void adicionarIngredienteNaoGosta(Ingrediente ingrediente) {
-                ingredientesNaoGosta.add(ingrediente);
+            public synchronized void adicionarIngredienteNaoGosta(Ingrediente ingrediente) {
+                ingredientesNaoGosta = comMais(ingredientesNaoGosta, ingrediente);
+                versao.incrementAndGet();
+                notificar(OuvinteUsuario.Operacao.NAO_GOSTA, ingrediente.getNome(), ingrediente.getQuantidade());
             }
             
             /**
@@ -109,40 +264,87 @@
                 return nome;
             }
             
-            public void setNome(String nome) {
+            public synchronized void setNome(String nome) {
                 this.nome = nome;
+                notificar(OuvinteUsuario.Operacao.NOME, nome, 0);
             }
             
+            /**
+             * Retrato atual da despensa (somente leitura, não muda depois de retornado).
+             */
             public List<Ingrediente> getIngredientesDisponiveis() {
-                return new ArrayList<>(ingredientesDisponiveis); // Retorna cópia para segurança
+                return ingredientesDisponiveis;
             }
             
             public List<Ingrediente> getIngredientesNaoGosta() {
-                return new ArrayList<>(ingredientesNaoGosta);
+                return ingredientesNaoGosta;
             }
             
             public boolean isVegetariano() {
                 return vegetariano;
             }
             
-            public void setVegetariano(boolean vegetariano) {
+            public synchronized void setVegetariano(boolean vegetariano) {
                 this.vegetariano = vegetariano;
+                versao.incrementAndGet();
+                notificar(OuvinteUsuario.Operacao.VEGETARIANO, null, vegetariano ? 1 : 0);
             }
             
             public boolean isSemLactose() {
                 return semLactose;
             }
             
-            public void setSemLactose(boolean semLactose) {
+            public synchronized void setSemLactose(boolean semLactose) {
                 this.semLactose = semLactose;
+                versao.incrementAndGet();
+                notificar(OuvinteUsuario.Operacao.SEM_LACTOSE, null, semLactose ? 1 : 0);
             }
             
             public boolean isSemGluten() {
                 return semGluten;
             }
             
-            public void setSemGluten(boolean semGluten) {
+            public synchronized void setSemGluten(boolean semGluten) {
                 this.semGluten = semGluten;
+                versao.incrementAndGet();
+                notificar(OuvinteUsuario.Operacao.SEM_GLUTEN, null, semGluten ? 1 : 0);
+            }
+            
+            /**
+             * Define quem é avisado de cada alteração (no máximo um ouvinte).
+             * O aviso acontece dentro do lock do usuário, na ordem das alterações.
+             */
+            void definirOuvinte(OuvinteUsuario ouvinte) {
+                this.ouvinte = ouvinte;
+            }
+            
+            OuvinteUsuario getOuvinte() {
+                return ouvinte;
+            }
+            
+            private void notificar(OuvinteUsuario.Operacao operacao, String texto, int valor) {
+                OuvinteUsuario atual = ouvinte;
+                if (atual != null) {
+                    atual.aoAlterar(this, operacao, texto, valor);
+                }
+            }
+            
+            /**
+             * Versão do usuário: cresce a cada mudança na despensa, nos ingredientes
+             * que não gosta ou nas restrições. Serve de chave para caches de sugestão.
+             * @return Versão atual
+             */
+            public long getVersao() {
+                return versao.get();
+            }
+            
+            /**
+             * Número que identifica este objeto durante a execução (nunca reutilizado).
+             * Junto com a versão, serve de chave de cache sem prender o objeto na memória.
+             * @return Identidade do usuário
+             */
+            public long getIdentidade() {
+                return identidade;
             }
             
             // ========== MÉTODOS ÚTEIS ==========
@@ -152,14 +354,15 @@
              * @return String formatada com os ingredientes
              */
             public String listarIngredientesDisponiveis() {
-                if (ingredientesDisponiveis.isEmpty()) {
+                List<Ingrediente> disponiveis = ingredientesDisponiveis;
+                if (disponiveis.isEmpty()) {
                     return "Nenhum ingrediente disponível";
                 }
                 
                 StringBuilder sb = new StringBuilder();
                 sb.append("Ingredientes disponíveis:\n");
-                for (int i = 0; i < ingredientesDisponiveis.size(); i++) {
-                    Ingrediente ing = ingredientesDisponiveis.get(i);
+                for (int i = 0; i < disponiveis.size(); i++) {
+                    Ingrediente ing = disponiveis.get(i);
                     sb.append(String.format("%d. %s\n", i + 1, ing));
                 }
                 return sb.toString();
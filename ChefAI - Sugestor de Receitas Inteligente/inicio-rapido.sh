@@ -0,0 +1,26 @@
+#!/bin/sh
+# Inicialização rápida do ChefAI: snapshot do catálogo + arquivo AppCDS.
+#
+# 1. Compila as classes e empacota em chefai.jar (o CDS exige classpath em JAR)
+# 2. Gera o snapshot pré-indexado do catálogo (catalogo.snapshot)
+# 3. Roda uma vez gravando as classes usadas em um arquivo CDS (chefai.jsa)
+# 4. Roda o benchmark duas vezes: linha de base (sem snapshot nem CDS) e snapshot + CDS
+#
+# Requer JDK 13 ou superior (-XX:ArchiveClassesAtExit).
+set -e
+cd "$(dirname "$0")"
+
+SAIDA=build
+mkdir -p "$SAIDA"
+javac -encoding UTF-8 -d "$SAIDA" *.java
+jar cf chefai.jar -C "$SAIDA" .
+
+java -cp chefai.jar SnapshotCatalogo catalogo.snapshot
+
+java -XX:ArchiveClassesAtExit=chefai.jsa -cp chefai.jar BenchmarkInicializacao > /dev/null
+
+# Linha de base: aponta o catálogo para um arquivo inexistente para forçar o banco básico
+echo "--- Sem snapshot nem CDS ---"
+java -Xshare:off -Dchefai.catalogo=build/sem-snapshot -cp chefai.jar BenchmarkInicializacao
+echo "--- Com snapshot + CDS ---"
+java -XX:SharedArchiveFile=chefai.jsa -XX:TieredStopAtLevel=1 -cp chefai.jar BenchmarkInicializacao